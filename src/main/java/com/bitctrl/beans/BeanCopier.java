@@ -0,0 +1,578 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Kopiert Java Beans anhand eines einmalig pro Klasse erstellten Kopierplans.
+ * Der Plan besteht aus einem Konstruktor-Handle und je Property einem
+ * {@link MethodHandle}, das Getter und Setter direkt verbindet; primitive Werte
+ * werden dabei nicht geboxt.
+ * <p>
+ * Quell- und Zieltyp dürfen verschieden sein. Kopiert werden alle Properties,
+ * die in der Quelle lesbar und im Ziel unter demselben Namen schreibbar sind und
+ * deren Typen zueinander passen; primitive Typen dürfen erweitert werden. Ein
+ * {@code null} für eine primitive Property im Ziel wird übersprungen.
+ * <p>
+ * Standardmäßig wird flach kopiert. Mit {@link #deep(Class...)} erhält man
+ * einen Kopierer, der Collections, Maps und Felder neu anlegt und Beans der
+ * angegebenen Typen rekursiv kopiert. Zyklische Objektgraphen werden dabei nicht
+ * erkannt.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <S> der Typ der Quell-Bean.
+ * @param <T> der Typ der Ziel-Bean.
+ * @see BeanUtils#copy(Object)
+ */
+public final class BeanCopier<S, T> {
+
+	/** Die flachen Kopierer, erst nach Quell-, dann nach Zielklasse. */
+	private static final ClassValue<ClassValue<BeanCopier<?, ?>>> COPIERS = new ClassValue<>() {
+
+		@Override
+		protected ClassValue<BeanCopier<?, ?>> computeValue(final Class<?> sourceType) {
+			return new ClassValue<>() {
+
+				@Override
+				protected BeanCopier<?, ?> computeValue(final Class<?> targetType) {
+					return new BeanCopier<>(sourceType, targetType, null);
+				}
+
+			};
+		}
+
+	};
+
+	/** Die öffentlichen Standardkonstruktoren von Collections und Maps. */
+	private static final ClassValue<MethodHandle> CONTAINER_CONSTRUCTORS = new ClassValue<>() {
+
+		@Override
+		protected MethodHandle computeValue(final Class<?> type) {
+			try {
+				return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class))
+						.asType(MethodType.methodType(Object.class));
+			} catch (final NoSuchMethodException | IllegalAccessException ex) {
+				return null;
+			}
+		}
+
+	};
+
+	/**
+	 * Die öffentlichen Konstruktoren von sortierten Collections und Maps, die
+	 * einen {@link Comparator} erwarten.
+	 */
+	private static final ClassValue<MethodHandle> SORTED_CONTAINER_CONSTRUCTORS = new ClassValue<>() {
+
+		@Override
+		protected MethodHandle computeValue(final Class<?> type) {
+			try {
+				return MethodHandles.publicLookup()
+						.findConstructor(type, MethodType.methodType(void.class, Comparator.class))
+						.asType(MethodType.methodType(Object.class, Comparator.class));
+			} catch (final NoSuchMethodException | IllegalAccessException ex) {
+				return null;
+			}
+		}
+
+	};
+
+	private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final MethodHandle DEEP_COPY;
+
+	static {
+		try {
+			DEEP_COPY = MethodHandles.lookup().findVirtual(DeepCopy.class, "copy",
+					MethodType.methodType(Object.class, Object.class));
+		} catch (final NoSuchMethodException | IllegalAccessException ex) {
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	/**
+	 * Gibt den Kopierer für eine Bean-Klasse zurück. Die Kopierer werden pro
+	 * Klasse gecacht.
+	 * 
+	 * @param <T>  der Typ der Bean.
+	 * @param type die Klasse der Bean.
+	 * @return der Kopierer.
+	 */
+	public static <T> BeanCopier<T, T> of(final Class<T> type) {
+		return of(type, type);
+	}
+
+	/**
+	 * Gibt den Kopierer zwischen zwei Bean-Klassen zurück. Die Kopierer werden pro
+	 * Klassenpaar gecacht.
+	 * 
+	 * @param <S>        der Typ der Quell-Bean.
+	 * @param <T>        der Typ der Ziel-Bean.
+	 * @param sourceType die Klasse der Quell-Bean.
+	 * @param targetType die Klasse der Ziel-Bean.
+	 * @return der Kopierer.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S, T> BeanCopier<S, T> of(final Class<S> sourceType, final Class<T> targetType) {
+		return (BeanCopier<S, T>) COPIERS.get(sourceType).get(targetType);
+	}
+
+	/** Ein Schritt des Kopierplans. */
+	private static final class Step {
+
+		private final BeanProperty source;
+		private final BeanProperty target;
+
+		/** Verbindet Getter und Setter: {@code (Object target, Object source)void}. */
+		private final MethodHandle handle;
+
+		Step(final BeanProperty source, final BeanProperty target, final MethodHandle handle) {
+			this.source = source;
+			this.target = target;
+			this.handle = handle;
+		}
+
+	}
+
+	private final Class<S> sourceType;
+	private final Class<T> targetType;
+	private final BeanType targetBeanType;
+	private final Step[] steps;
+	private final DeepCopy deepCopy;
+
+	@SuppressWarnings("unchecked")
+	private BeanCopier(final Class<?> sourceType, final Class<?> targetType, final DeepCopy deepCopy) {
+		this.sourceType = (Class<S>) sourceType;
+		this.targetType = (Class<T>) targetType;
+		this.deepCopy = deepCopy;
+		targetBeanType = BeanType.of(targetType);
+
+		final List<Step> plan = new ArrayList<>();
+		if (sourceType == targetType) {
+			for (final BeanProperty property : targetBeanType.getCopyableProperties()) {
+				plan.add(new Step(property, property, createHandle(property, property)));
+			}
+			steps = plan.toArray(new Step[plan.size()]);
+			return;
+		}
+
+		final BeanType sourceBeanType = BeanType.of(sourceType);
+		for (final BeanProperty target : targetBeanType.getProperties()) {
+			if (!target.isWritable() || target.getType() == null) {
+				continue;
+			}
+
+			final BeanProperty source;
+			try {
+				source = sourceBeanType.getProperty(target.getName());
+			} catch (final IllegalArgumentException ex) {
+				continue;
+			}
+			if (!source.isReadable() || source.getType() == null
+					|| !isCompatible(source.getType(), target.getType())) {
+				continue;
+			}
+
+			plan.add(new Step(source, target, createHandle(source, target)));
+		}
+		steps = plan.toArray(new Step[plan.size()]);
+	}
+
+	private static boolean isCompatible(final Class<?> sourceType, final Class<?> targetType) {
+		if (sourceType.isPrimitive() && targetType.isPrimitive() && sourceType != targetType) {
+			// erweiternde Konvertierung, z.B. int nach long
+			try {
+				MethodHandles.identity(sourceType).asType(MethodType.methodType(targetType, sourceType));
+				return true;
+			} catch (final ClassCastException | WrongMethodTypeException ex) {
+				return false;
+			}
+		}
+		return wrap(targetType).isAssignableFrom(wrap(sourceType));
+	}
+
+	private static Class<?> wrap(final Class<?> type) {
+		if (!type.isPrimitive()) {
+			return type;
+		}
+		return MethodType.methodType(type).wrap().returnType();
+	}
+
+	/**
+	 * Verbindet Getter und Setter zu einem Handle. Für Properties, die tief
+	 * kopiert werden, für nicht erreichbare Methoden und für den Übergang von
+	 * einem Wrapper auf einen primitiven Typ wird kein Handle erzeugt; diese
+	 * Schritte laufen über {@link BeanProperty}.
+	 */
+	private MethodHandle createHandle(final BeanProperty source, final BeanProperty target) {
+		if (source.getType() == null || target.getType() == null) {
+			return null;
+		}
+		if (deepCopy != null && deepCopy.isDeep(source.getType())) {
+			return createDeepHandle(source, target);
+		}
+		if (target.getType().isPrimitive() && !source.getType().isPrimitive()) {
+			return null;
+		}
+
+		final MethodHandle getter = unreflect(source.getReadMethod());
+		final MethodHandle setter = unreflect(target.getWriteMethod());
+		if (getter == null || setter == null) {
+			return null;
+		}
+
+		try {
+			final MethodHandle typedGetter = getter.asType(getter.type().changeReturnType(target.getType()));
+			return MethodHandles.filterArguments(setter, 1, typedGetter).asType(COPY_TYPE);
+		} catch (final IllegalArgumentException | ClassCastException ex) {
+			return null;
+		}
+	}
+
+	private MethodHandle createDeepHandle(final BeanProperty source, final BeanProperty target) {
+		if (target.getType().isPrimitive()) {
+			return null;
+		}
+
+		final MethodHandle getter = unreflect(source.getReadMethod());
+		final MethodHandle setter = unreflect(target.getWriteMethod());
+		if (getter == null || setter == null) {
+			return null;
+		}
+
+		final MethodHandle copy = DEEP_COPY.bindTo(deepCopy).asType(
+				MethodType.methodType(target.getType(), getter.type().returnType()));
+		return MethodHandles.filterArguments(setter, 1, MethodHandles.filterReturnValue(getter, copy))
+				.asType(COPY_TYPE);
+	}
+
+	private static MethodHandle unreflect(final Method method) {
+		try {
+			return MethodHandles.publicLookup().unreflect(method);
+		} catch (final IllegalAccessException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gibt einen Kopierer zurück, der tief kopiert. Collections, Maps und Felder
+	 * werden als neue Instanzen angelegt, Beans der angegebenen Typen (und deren
+	 * Untertypen) werden rekursiv kopiert, auch als Elemente von Collections.
+	 * Sortierte Container behalten ihren Comparator. Alle anderen Objekte werden
+	 * weiterhin geteilt.
+	 * <p>
+	 * Der zurückgegebene Kopierer wird nicht gecacht und sollte deshalb vom
+	 * Aufrufer wiederverwendet werden.
+	 * 
+	 * @param beanTypes die Typen, deren Instanzen rekursiv kopiert werden.
+	 * @return der tief kopierende Kopierer.
+	 */
+	public BeanCopier<S, T> deep(final Class<?>... beanTypes) {
+		return new BeanCopier<>(sourceType, targetType, new DeepCopy(beanTypes));
+	}
+
+	/**
+	 * Gibt die Namen der Properties zurück, die kopiert werden.
+	 * 
+	 * @return die Propertynamen in der Reihenfolge der Bean Info des Ziels.
+	 */
+	public List<String> getPropertyNames() {
+		final List<String> names = new ArrayList<>(steps.length);
+		for (final Step step : steps) {
+			names.add(step.target.getName());
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Erzeugt eine neue Ziel-Bean und kopiert die Properties hinein.
+	 * 
+	 * @param source die Quell-Bean.
+	 * @return die Kopie.
+	 * @throws IllegalArgumentException wenn die Ziel-Bean nicht angelegt oder eine
+	 *                                  Property nicht kopiert werden kann.
+	 */
+	public T copy(final S source) {
+		final Object target;
+		try {
+			target = targetBeanType.newInstance();
+		} catch (final InstantiationException ex) {
+			throw new IllegalArgumentException("Can not copy interface or abstract class: " + targetType, ex);
+		} catch (final IllegalAccessException ex) {
+			throw new IllegalArgumentException("Bean must have a public default constructor: " + targetType, ex);
+		}
+
+		return copyInto(source, targetType.cast(target));
+	}
+
+	/**
+	 * Kopiert die Properties in eine vorhandene Ziel-Bean.
+	 * 
+	 * @param source die Quell-Bean.
+	 * @param target die Ziel-Bean.
+	 * @return die Ziel-Bean.
+	 * @throws IllegalArgumentException wenn eine Property nicht kopiert werden
+	 *                                  kann.
+	 */
+	public T copyInto(final S source, final T target) {
+		for (final Step step : steps) {
+			if (step.handle != null) {
+				try {
+					step.handle.invokeExact((Object) target, (Object) source);
+				} catch (final Error ex) {
+					throw ex;
+				} catch (final Throwable ex) {
+					throw new IllegalArgumentException("Can not copy property: " + sourceType + ", " + step.source,
+							ex);
+				}
+				continue;
+			}
+
+			try {
+				Object value = step.source.get(source);
+				if (value == null && step.target.getType() != null && step.target.getType().isPrimitive()) {
+					continue;
+				}
+				if (deepCopy != null) {
+					value = deepCopy.copy(value);
+				}
+				step.target.set(target, value);
+			} catch (final IllegalArgumentException ex) {
+				throw new IllegalArgumentException("Can not copy property: " + sourceType + ", " + step.source, ex);
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Die Regeln für tiefe Kopien.
+	 */
+	private static final class DeepCopy {
+
+		private final Class<?>[] beanTypes;
+
+		/** Die tiefen Kopierer der Bean-Typen, nach konkreter Klasse. */
+		private final Map<Class<?>, BeanCopier<Object, Object>> copiers = new ConcurrentHashMap<>();
+
+		DeepCopy(final Class<?>... beanTypes) {
+			this.beanTypes = beanTypes.clone();
+		}
+
+		boolean isDeep(final Class<?> type) {
+			if (type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+				return true;
+			}
+			for (final Class<?> beanType : beanTypes) {
+				if (beanType.isAssignableFrom(type) || type.isAssignableFrom(beanType)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Object copy(final Object value) {
+			if (value == null) {
+				return null;
+			}
+
+			final Class<?> type = value.getClass();
+			if (type.isArray()) {
+				return copyArray(value);
+			}
+			if (value instanceof final EnumSet<?> set) {
+				return set.clone();
+			}
+			if (value instanceof final EnumMap<?, ?> map) {
+				// der Konstruktor übernimmt den Schlüsseltyp auch für leere Maps
+				final EnumMap result = new EnumMap(map);
+				for (final Map.Entry<?, ?> entry : map.entrySet()) {
+					result.put(entry.getKey(), copy(entry.getValue()));
+				}
+				return result;
+			}
+			if (value instanceof final Collection<?> collection) {
+				final Collection<Object> result = newCollection(collection);
+				for (final Object element : collection) {
+					result.add(copy(element));
+				}
+				return result;
+			}
+			if (value instanceof final Map<?, ?> map) {
+				final Map<Object, Object> result = newMap(map);
+				for (final Map.Entry<?, ?> entry : map.entrySet()) {
+					result.put(copy(entry.getKey()), copy(entry.getValue()));
+				}
+				return result;
+			}
+			for (final Class<?> beanType : beanTypes) {
+				if (beanType.isInstance(value)) {
+					return copiers.computeIfAbsent(type, t -> new BeanCopier<>(t, t, this)).copy(value);
+				}
+			}
+			return value;
+		}
+
+		private Object copyArray(final Object array) {
+			final Class<?> componentType = array.getClass().getComponentType();
+			final int length = Array.getLength(array);
+			if (componentType.isPrimitive()) {
+				final Object result = Array.newInstance(componentType, length);
+				System.arraycopy(array, 0, result, 0, length);
+				return result;
+			}
+
+			final Object[] result = ((Object[]) array).clone();
+			for (int i = 0; i < result.length; i++) {
+				result[i] = copy(result[i]);
+			}
+			return result;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Collection<Object> newCollection(final Collection<?> collection) {
+			final Comparator<Object> comparator = comparator(collection);
+			if (comparator != null) {
+				final Collection<Object> fallback;
+				if (collection instanceof PriorityBlockingQueue) {
+					fallback = new PriorityBlockingQueue<>(Math.max(collection.size(), 1), comparator);
+				} else if (collection instanceof Queue) {
+					fallback = new PriorityQueue<>(comparator);
+				} else {
+					fallback = new TreeSet<>(comparator);
+				}
+				return newSortedContainer(collection, comparator, fallback);
+			}
+			if (collection instanceof SortedSet) {
+				return newContainer(collection, new TreeSet<>());
+			}
+			if (collection instanceof Set) {
+				return newContainer(collection, new LinkedHashSet<>());
+			}
+			return newContainer(collection, new ArrayList<>());
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Map<Object, Object> newMap(final Map<?, ?> map) {
+			if (map instanceof final SortedMap<?, ?> sorted) {
+				final Comparator<Object> comparator = (Comparator<Object>) sorted.comparator();
+				if (comparator != null) {
+					return newSortedContainer(map, comparator, new TreeMap<>(comparator));
+				}
+				return newContainer(map, new TreeMap<>());
+			}
+			return newContainer(map, new LinkedHashMap<>());
+		}
+
+		/**
+		 * Gibt den Comparator einer sortierten Collection zurück.
+		 * 
+		 * @return der Comparator oder {@code null} bei natürlicher Ordnung oder
+		 *         unsortierten Collections.
+		 */
+		@SuppressWarnings("unchecked")
+		private static Comparator<Object> comparator(final Collection<?> collection) {
+			if (collection instanceof final SortedSet<?> set) {
+				return (Comparator<Object>) set.comparator();
+			}
+			if (collection instanceof final PriorityQueue<?> queue) {
+				return (Comparator<Object>) queue.comparator();
+			}
+			if (collection instanceof final PriorityBlockingQueue<?> queue) {
+				return (Comparator<Object>) queue.comparator();
+			}
+			return null;
+		}
+
+		/**
+		 * Legt einen leeren Container derselben Klasse mit demselben Comparator an,
+		 * falls sie einen passenden öffentlichen Konstruktor hat, sonst wird der
+		 * Ersatz verwendet.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <C> C newSortedContainer(final Object original, final Comparator<Object> comparator,
+				final C fallback) {
+			final MethodHandle constructor = SORTED_CONTAINER_CONSTRUCTORS.get(original.getClass());
+			if (constructor == null) {
+				return fallback;
+			}
+			try {
+				return (C) constructor.invokeExact(comparator);
+			} catch (final Error ex) {
+				throw ex;
+			} catch (final Throwable ex) {
+				return fallback;
+			}
+		}
+
+		/**
+		 * Legt einen leeren Container derselben Klasse an, falls sie einen
+		 * öffentlichen Standardkonstruktor hat, sonst wird der Ersatz verwendet.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <C> C newContainer(final Object original, final C fallback) {
+			final MethodHandle constructor = CONTAINER_CONSTRUCTORS.get(original.getClass());
+			if (constructor == null) {
+				return fallback;
+			}
+			try {
+				return (C) constructor.invokeExact();
+			} catch (final Error ex) {
+				throw ex;
+			} catch (final Throwable ex) {
+				return fallback;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Schneller Zugriff auf eine Property einer Java Bean. Getter und Setter werden
+ * einmalig als {@link MethodHandle} aufgelöst, so dass ein Zugriff nahezu so
+ * schnell ist wie ein direkter Methodenaufruf. Instanzen werden pro Klasse
+ * gecacht und sind threadsicher.
+ * 
+ * @author BitCtrl Systems GmbH
+ * @see BeanUtils#getBeanProperty(Class, String)
+ */
+public final class BeanProperty {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final String name;
+	private final Class<?> type;
+	private final Method readMethod;
+	private final Method writeMethod;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	BeanProperty(final PropertyDescriptor pd) {
+		name = pd.getName();
+		type = pd.getPropertyType();
+		readMethod = pd.getReadMethod();
+		writeMethod = pd.getWriteMethod();
+		getter = unreflect(readMethod, GETTER_TYPE);
+		setter = unreflect(writeMethod, SETTER_TYPE);
+	}
+
+	/**
+	 * Löst eine Methode als {@link MethodHandle} mit generischer Signatur auf.
+	 * Methoden, die über den öffentlichen Lookup nicht erreichbar sind, z.&nbsp;B.
+	 * weil sie in einer nicht öffentlichen Klasse deklariert sind, werden weiter
+	 * per Reflection aufgerufen.
+	 */
+	private static MethodHandle unreflect(final Method method, final MethodType type) {
+		if (method == null) {
+			return null;
+		}
+
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(type);
+		} catch (final IllegalAccessException | IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gibt den Namen der Property zurück.
+	 * 
+	 * @return der Propertyname.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gibt den Typ der Property zurück.
+	 * 
+	 * @return der Typ, kann {@code null} sein, wenn die Property nur indiziert
+	 *         zugreifbar ist.
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Gibt die Methode zum Lesen der Property zurück.
+	 * 
+	 * @return der Getter oder {@code null}.
+	 */
+	public Method getReadMethod() {
+		return readMethod;
+	}
+
+	/**
+	 * Gibt die Methode zum Schreiben der Property zurück.
+	 * 
+	 * @return der Setter oder {@code null}.
+	 */
+	public Method getWriteMethod() {
+		return writeMethod;
+	}
+
+	/**
+	 * Prüft, ob die Property gelesen werden kann.
+	 * 
+	 * @return {@code true}, wenn es einen Getter gibt.
+	 */
+	public boolean isReadable() {
+		return readMethod != null;
+	}
+
+	/**
+	 * Prüft, ob die Property geschrieben werden kann.
+	 * 
+	 * @return {@code true}, wenn es einen Setter gibt.
+	 */
+	public boolean isWritable() {
+		return writeMethod != null;
+	}
+
+	/**
+	 * Liest den Wert der Property.
+	 * 
+	 * @param bean eine Java Bean.
+	 * @return der Wert.
+	 * @throws IllegalArgumentException wenn die Property nicht gelesen werden kann
+	 *                                  oder der Getter eine Exception wirft.
+	 */
+	public Object get(final Object bean) {
+		if (getter == null) {
+			if (readMethod == null) {
+				throw new IllegalArgumentException("Property " + name + " is not readable.");
+			}
+			try {
+				return readMethod.invoke(bean);
+			} catch (final IllegalAccessException | InvocationTargetException ex) {
+				throw new IllegalArgumentException("Cannot read property data.", ex);
+			}
+		}
+
+		try {
+			return getter.invokeExact(bean);
+		} catch (final Error ex) {
+			throw ex;
+		} catch (final Throwable ex) {
+			throw new IllegalArgumentException("Cannot read property data.", ex);
+		}
+	}
+
+	/**
+	 * Setzt den Wert der Property.
+	 * 
+	 * @param bean  eine Java Bean.
+	 * @param value der neue Wert.
+	 * @throws IllegalArgumentException wenn die Property nicht geschrieben werden
+	 *                                  kann, der Wert nicht zum Typ passt oder der
+	 *                                  Setter eine Exception wirft.
+	 */
+	public void set(final Object bean, final Object value) {
+		if (setter == null) {
+			if (writeMethod == null) {
+				throw new IllegalArgumentException("Property " + name + " is not writable.");
+			}
+			try {
+				writeMethod.invoke(bean, value);
+			} catch (final IllegalAccessException | InvocationTargetException ex) {
+				throw new IllegalArgumentException("Cannot set property data.", ex);
+			}
+			return;
+		}
+
+		try {
+			setter.invokeExact(bean, value);
+		} catch (final Error ex) {
+			throw ex;
+		} catch (final Throwable ex) {
+			throw new IllegalArgumentException("Cannot set property data.", ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[name=" + name + ", type=" + (type != null ? type.getName() : null)
+				+ "]";
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Die zwischengespeicherten Zugriffe auf eine Bean-Klasse. Die Einträge hängen
+ * über einen {@link ClassValue} an der Klasse selbst, so dass sie zusammen mit
+ * ihrem Classloader entladen werden können.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class BeanType {
+
+	private static final ClassValue<BeanType> TYPES = new ClassValue<>() {
+
+		@Override
+		protected BeanType computeValue(final Class<?> type) {
+			return new BeanType(type);
+		}
+
+	};
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	/**
+	 * Gibt die Zugriffe auf eine Bean-Klasse zurück.
+	 * 
+	 * @param beanClass die Bean-Klasse.
+	 * @return die Zugriffe.
+	 */
+	static BeanType of(final Class<?> beanClass) {
+		return TYPES.get(beanClass);
+	}
+
+	private final Class<?> beanClass;
+	private final List<BeanProperty> properties;
+	private final Map<String, BeanProperty> propertiesByName;
+	private final List<BeanProperty> copyableProperties;
+	private final MethodHandle constructor;
+
+	private BeanType(final Class<?> beanClass) {
+		this.beanClass = beanClass;
+
+		final PropertyDescriptor[] descriptors = BeanUtils.getBeanInfo(beanClass).getPropertyDescriptors();
+		final List<BeanProperty> all = new ArrayList<>(descriptors.length);
+		final List<BeanProperty> copyable = new ArrayList<>(descriptors.length);
+		final Map<String, BeanProperty> byName = new HashMap<>();
+		for (final PropertyDescriptor pd : descriptors) {
+			final BeanProperty property = new BeanProperty(pd);
+			all.add(property);
+			// bei doppelten Namen gewinnt wie bisher der erste Descriptor
+			byName.putIfAbsent(property.getName(), property);
+			if (property.isReadable() && property.isWritable()) {
+				copyable.add(property);
+			}
+		}
+		properties = Collections.unmodifiableList(all);
+		propertiesByName = byName;
+		copyableProperties = Collections.unmodifiableList(copyable);
+		constructor = findConstructor(beanClass);
+	}
+
+	private static MethodHandle findConstructor(final Class<?> beanClass) {
+		if (beanClass.isInterface() || Modifier.isAbstract(beanClass.getModifiers())) {
+			return null;
+		}
+
+		try {
+			return MethodHandles.publicLookup().findConstructor(beanClass, MethodType.methodType(void.class))
+					.asType(CONSTRUCTOR_TYPE);
+		} catch (final NoSuchMethodException | IllegalAccessException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gibt alle Properties in der Reihenfolge der Bean Info zurück.
+	 * 
+	 * @return die Properties.
+	 */
+	List<BeanProperty> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Gibt die Properties zurück, die über Getter und Setter verfügen.
+	 * 
+	 * @return die kopierbaren Properties.
+	 */
+	List<BeanProperty> getCopyableProperties() {
+		return copyableProperties;
+	}
+
+	/**
+	 * Sucht eine Property anhand ihres Namens.
+	 * 
+	 * @param propertyName der Name der Property.
+	 * @return die Property.
+	 * @throws IllegalArgumentException wenn die Bean keine solche Property hat.
+	 */
+	BeanProperty getProperty(final String propertyName) {
+		final BeanProperty property = propertiesByName.get(propertyName);
+		if (property == null) {
+			throw new IllegalArgumentException(
+					"Bean " + beanClass.getName() + " has no property " + propertyName + ".");
+		}
+		return property;
+	}
+
+	/**
+	 * Erzeugt eine neue Instanz über den öffentlichen Standardkonstruktor.
+	 * 
+	 * @return die neue Instanz.
+	 * @throws InstantiationException wenn die Klasse abstrakt ist oder keinen
+	 *                                Standardkonstruktor hat.
+	 * @throws IllegalAccessException wenn der Konstruktor nicht öffentlich ist.
+	 */
+	@SuppressWarnings("deprecation")
+	Object newInstance() throws InstantiationException, IllegalAccessException {
+		if (constructor == null) {
+			// liefert dieselben Fehler wie bisher
+			return beanClass.newInstance();
+		}
+
+		try {
+			return constructor.invokeExact();
+		} catch (final RuntimeException | Error ex) {
+			throw ex;
+		} catch (final Throwable ex) {
+			// Class.newInstance() reicht auch geprüfte Exceptions durch
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -30,9 +30,9 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -51,45 +51,12 @@ public final class BeanUtils {
 	 * @param source die zu kopierende Bean.
 	 * @return die Kopie der Bean.
 	 * @throws IllegalArgumentException wenn die Bean nicht kopierbar ist.
+	 * @see BeanCopier
 	 */
 	public static Object copy(final Object source) {
-		final Class<?> clazz = source.getClass();
-
-		final BeanInfo info;
-		try {
-			info = Introspector.getBeanInfo(clazz);
-		} catch (final IntrospectionException ex) {
-			throw new IllegalArgumentException("Can not introspect bean: " + clazz, ex);
-		}
-
-		final Object target;
-		try {
-			target = clazz.newInstance();
-		} catch (final InstantiationException ex) {
-			throw new IllegalArgumentException("Can not copy interface or abstract class: " + clazz, ex);
-		} catch (final IllegalAccessException ex) {
-			throw new IllegalArgumentException("Bean must have a public default constructor: " + clazz, ex);
-		}
-
-		for (final PropertyDescriptor pd : info.getPropertyDescriptors()) {
-			final Method getter = pd.getReadMethod();
-			final Method setter = pd.getWriteMethod();
-			if (getter != null && setter != null) {
-				try {
-					setter.invoke(target, getter.invoke(source));
-				} catch (final IllegalArgumentException ex) {
-					throw new IllegalArgumentException("Getter and setter have different type: " + clazz + ", " + pd,
-							ex);
-				} catch (final IllegalAccessException ex) {
-					throw new IllegalArgumentException("Getter and setter must be public: " + clazz + ", " + pd, ex);
-				} catch (final InvocationTargetException ex) {
-					throw new IllegalArgumentException("Getter or setter throws an exception: " + clazz + ", " + pd,
-							ex);
-				}
-			}
-		}
-
-		return target;
+		@SuppressWarnings("unchecked")
+		final BeanCopier<Object, Object> copier = (BeanCopier<Object, Object>) BeanCopier.of(source.getClass());
+		return copier.copy(source);
 	}
 
 	/**
@@ -101,12 +68,37 @@ public final class BeanUtils {
 	 */
 	public static <T> T createInstance(final Class<T> beanClass) {
 		try {
-			return beanClass.newInstance();
+			return beanClass.cast(BeanType.of(beanClass).newInstance());
 		} catch (final InstantiationException | IllegalAccessException ex) {
 			throw new IllegalArgumentException("Cannot create new instance of bean type " + beanClass + ".", ex);
 		}
 	}
 
+	/**
+	 * Gibt den Zugriff auf eine Property einer Bean-Klasse zurück. Der Zugriff
+	 * wird pro Klasse gecacht; wer dieselbe Property sehr oft liest oder schreibt,
+	 * sollte ihn trotzdem einmal holen und wiederverwenden.
+	 * 
+	 * @param beanClass    die Klasse einer Java Bean.
+	 * @param propertyName der Name der Property.
+	 * @return der Zugriff auf die Property.
+	 * @throws IllegalArgumentException wenn die Bean keine solche Property hat.
+	 */
+	public static BeanProperty getBeanProperty(final Class<?> beanClass, final String propertyName) {
+		return BeanType.of(beanClass).getProperty(propertyName);
+	}
+
+	/**
+	 * Gibt die Zugriffe auf alle Properties einer Bean-Klasse in der Reihenfolge
+	 * ihrer {@link #getBeanInfo(Class) Bean Info} zurück.
+	 * 
+	 * @param beanClass die Klasse einer Java Bean.
+	 * @return die Zugriffe auf die Properties, nicht veränderbar.
+	 */
+	public static List<BeanProperty> getBeanProperties(final Class<?> beanClass) {
+		return BeanType.of(beanClass).getProperties();
+	}
+
 	/**
 	 * Liest den Wert der Property einer Java Bean.
 	 * 
@@ -115,21 +107,7 @@ public final class BeanUtils {
 	 * @return der Wert.
 	 */
 	public static Object getProperty(final Object target, final String propertyName) {
-		final BeanInfo beanInfo = getBeanInfo(target.getClass());
-
-		for (final PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
-			if (pd.getName().equals(propertyName)) {
-				try {
-					return pd.getReadMethod().invoke(target);
-				} catch (final IllegalAccessException | InvocationTargetException ex) {
-					throw new IllegalArgumentException("Cannot read property data.", ex);
-				}
-			}
-		}
-
-		throw new IllegalArgumentException(
-				"Bean " + target.getClass().getName() + " has no property " + propertyName + ".");
-
+		return getBeanProperty(target.getClass(), propertyName).get(target);
 	}
 
 	/**
@@ -140,22 +118,7 @@ public final class BeanUtils {
 	 * @param value        der neue Wert.
 	 */
 	public static void setProperty(final Object target, final String propertyName, final Object value) {
-		final BeanInfo beanInfo = getBeanInfo(target.getClass());
-
-		for (final PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
-			if (pd.getName().equals(propertyName)) {
-				try {
-					pd.getWriteMethod().invoke(target, value);
-				} catch (final IllegalAccessException | InvocationTargetException ex) {
-					throw new IllegalArgumentException("Cannot set property data.", ex);
-				}
-				return;
-			}
-		}
-
-		throw new IllegalArgumentException(
-				"Bean " + target.getClass().getName() + " has no property " + propertyName + ".");
-
+		getBeanProperty(target.getClass(), propertyName).set(target, value);
 	}
 
 	private static Map<Class<?>, BeanInfo> beanInfoCache = Collections
@@ -176,7 +139,9 @@ public final class BeanUtils {
 			return beanInfoCache.get(beanClass);
 		}
 
-		final ClassLoader loader = beanClass.getClassLoader();
+		// Klassen des Bootstrap-Classloaders haben keinen eigenen Classloader
+		final ClassLoader loader = beanClass.getClassLoader() != null ? beanClass.getClassLoader()
+				: ClassLoader.getSystemClassLoader();
 		Class<? extends BeanInfo> beanInfoClass;
 		BeanInfo info = null;
 		try {
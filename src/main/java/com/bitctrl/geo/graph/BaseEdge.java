@@ -50,6 +50,12 @@ public class BaseEdge implements Edge {
 	/** Gibt den nächsten Ausgangsbogen des Ausgangsknoten zurück. */
 	protected BaseEdge nextOut;
 
+	/**
+	 * Der Index der Kante in einem {@link IndexedGraph} oder -1, wenn die Kante
+	 * in keinem solchen Graphen enthalten ist.
+	 */
+	protected int index = -1;
+
 	/**
 	 * Standardkonstruktor.
 	 */
@@ -26,9 +26,9 @@
 
 package com.bitctrl.geo.graph;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Basisimplementierung eines Graphen.
@@ -99,59 +99,61 @@ public class BaseGraph<N extends Node, E extends Edge> implements Graph<N, E> {
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Die Kanten werden nicht kopiert, sondern bei der Iteration direkt aus der
+	 * Verkettung der Eingangsbögen gelesen.
+	 */
 	@Override
 	public Iterable<Edge> inEdges(final N node) {
-		final List<Edge> inEdges = new ArrayList<>();
-		BaseEdge edge;
-
-		// Alle Eingangsbögen
-		edge = ((BaseNode) node).firstIn;
-		inEdges.add(edge);
-		while (edge.nextIn != null) {
-			inEdges.add(edge.nextIn);
-			edge = edge.nextIn;
-		}
-
-		return inEdges;
+		return EdgeChains.inEdges((BaseNode) node);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Die Kanten werden nicht kopiert, sondern bei der Iteration direkt aus der
+	 * Verkettung der Ausgangsbögen gelesen.
+	 */
 	@Override
 	public Iterable<Edge> outEdges(final N node) {
-		final List<Edge> outEdges = new ArrayList<>();
-		BaseEdge edge;
-
-		// Alle Ausgangsbögen
-		edge = ((BaseNode) node).firstOut;
-		outEdges.add(edge);
-		while (edge.nextOut != null) {
-			outEdges.add(edge.nextOut);
-			edge = edge.nextOut;
-		}
-
-		return outEdges;
+		return EdgeChains.outEdges((BaseNode) node);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Die Kanten werden nicht kopiert, sondern bei der Iteration direkt aus der
+	 * Verkettung der Aus- und Eingangsbögen gelesen.
+	 */
 	@Override
 	public Iterable<Edge> incidentEdges(final N node) {
-		final List<Edge> incidentEdges = new ArrayList<>();
-		BaseEdge edge;
-
-		// Alle Ausgangsbögen
-		edge = ((BaseNode) node).firstOut;
-		incidentEdges.add(edge);
-		while (edge.nextOut != null) {
-			incidentEdges.add(edge.nextOut);
-			edge = edge.nextOut;
+		return EdgeChains.incidentEdges((BaseNode) node);
+	}
+
+	@Override
+	public void forEachOutEdge(final N node, final Consumer<? super Edge> action) {
+		for (BaseEdge edge = ((BaseNode) node).firstOut; edge != null;) {
+			final BaseEdge next = edge.nextOut;
+			action.accept(edge);
+			edge = next;
 		}
+	}
 
-		// Alle Eingangsbögen
-		edge = ((BaseNode) node).firstIn;
-		incidentEdges.add(edge);
-		while (edge.nextIn != null) {
-			incidentEdges.add(edge.nextIn);
-			edge = edge.nextIn;
+	@Override
+	public void forEachInEdge(final N node, final Consumer<? super Edge> action) {
+		for (BaseEdge edge = ((BaseNode) node).firstIn; edge != null;) {
+			final BaseEdge next = edge.nextIn;
+			action.accept(edge);
+			edge = next;
 		}
+	}
 
-		return incidentEdges;
+	@Override
+	public void forEachIncidentEdge(final N node, final Consumer<? super Edge> action) {
+		forEachOutEdge(node, action);
+		forEachInEdge(node, action);
 	}
+
 }
@@ -44,6 +44,12 @@ public class BaseNode implements Node {
 	/** Der erste Ausgangsbogen des Knoten. */
 	protected BaseEdge firstOut;
 
+	/**
+	 * Der Index des Knoten in einem {@link IndexedGraph} oder -1, wenn der Knoten
+	 * in keinem solchen Graphen enthalten ist.
+	 */
+	protected int index = -1;
+
 	/**
 	 * Initialisiert den Knoten mit seinem Namen.
 	 * 
@@ -80,7 +86,7 @@ public class BaseNode implements Node {
 
 	@Override
 	public int hashCode() {
-		throw new UnsupportedOperationException();
+		return getName().hashCode();
 	}
 
 	/**
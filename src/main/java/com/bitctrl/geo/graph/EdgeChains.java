@@ -0,0 +1,113 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.graph;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sichten auf die verketteten Ein- und Ausgangsbögen eines {@link BaseNode}.
+ * Die Sichten kopieren die Kanten nicht, sondern laufen bei der Iteration
+ * direkt über {@link BaseEdge#nextIn} bzw. {@link BaseEdge#nextOut}.
+ * <p>
+ * Der Nachfolger einer Kante wird bestimmt, bevor die Kante zurückgegeben wird.
+ * Die zuletzt gelieferte Kante darf deshalb während der Iteration aus dem
+ * Graphen entfernt werden.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class EdgeChains {
+
+	/**
+	 * Gibt eine Sicht auf die Ausgangsbögen eines Knoten zurück.
+	 * 
+	 * @param node ein Knoten.
+	 * @return die Ausgangsbögen.
+	 */
+	static Iterable<Edge> outEdges(final BaseNode node) {
+		return () -> new ChainIterator(node.firstOut, null);
+	}
+
+	/**
+	 * Gibt eine Sicht auf die Eingangsbögen eines Knoten zurück.
+	 * 
+	 * @param node ein Knoten.
+	 * @return die Eingangsbögen.
+	 */
+	static Iterable<Edge> inEdges(final BaseNode node) {
+		return () -> new ChainIterator(null, node.firstIn);
+	}
+
+	/**
+	 * Gibt eine Sicht auf alle inzidenten Kanten eines Knoten zurück. Es werden
+	 * erst die Ausgangsbögen und dann die Eingangsbögen geliefert, Schleifen also
+	 * zweimal.
+	 * 
+	 * @param node ein Knoten.
+	 * @return die inzidenten Kanten.
+	 */
+	static Iterable<Edge> incidentEdges(final BaseNode node) {
+		return () -> new ChainIterator(node.firstOut, node.firstIn);
+	}
+
+	private static final class ChainIterator implements Iterator<Edge> {
+
+		private BaseEdge nextOut;
+		private BaseEdge nextIn;
+
+		ChainIterator(final BaseEdge firstOut, final BaseEdge firstIn) {
+			nextOut = firstOut;
+			nextIn = firstIn;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextOut != null || nextIn != null;
+		}
+
+		@Override
+		public Edge next() {
+			final BaseEdge edge;
+			if (nextOut != null) {
+				edge = nextOut;
+				nextOut = edge.nextOut;
+			} else if (nextIn != null) {
+				edge = nextIn;
+				nextIn = edge.nextIn;
+			} else {
+				throw new NoSuchElementException();
+			}
+			return edge;
+		}
+
+	}
+
+	private EdgeChains() {
+		// nix
+	}
+
+}
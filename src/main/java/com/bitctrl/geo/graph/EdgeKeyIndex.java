@@ -0,0 +1,177 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.graph;
+
+import java.util.Arrays;
+
+/**
+ * Hashindex über Paare aus Start- und Endknotenindex, der die Anzahl der Kanten
+ * je Knotenpaar zählt. Die Schlüssel werden als {@code long} in einer offenen
+ * Hashtabelle mit linearer Sondierung abgelegt, so dass weder beim Einfügen
+ * noch beim Nachschlagen Objekte erzeugt werden.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class EdgeKeyIndex {
+
+	private static final long FREE = -1L;
+
+	private long[] keys;
+	private int[] counts;
+	private int size;
+
+	/**
+	 * Initialisiert einen leeren Index.
+	 * 
+	 * @param expectedSize die erwartete Anzahl verschiedener Knotenpaare.
+	 */
+	EdgeKeyIndex(final int expectedSize) {
+		int capacity = 16;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		counts = new int[capacity];
+		Arrays.fill(keys, FREE);
+	}
+
+	/**
+	 * Bildet den Schlüssel für ein Knotenpaar.
+	 * 
+	 * @param source der Index des Startknotens.
+	 * @param target der Index des Endknotens.
+	 * @return der Schlüssel.
+	 */
+	static long key(final int source, final int target) {
+		return (long) source << 32 | target & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Gibt die Anzahl der Kanten zu einem Schlüssel zurück.
+	 * 
+	 * @param key der Schlüssel.
+	 * @return die Anzahl der Kanten, 0 wenn es keine gibt.
+	 */
+	int get(final long key) {
+		final int mask = keys.length - 1;
+		for (int i = hash(key) & mask;; i = i + 1 & mask) {
+			final long k = keys[i];
+			if (k == key) {
+				return counts[i];
+			}
+			if (k == FREE) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Erhöht die Anzahl der Kanten zu einem Schlüssel um eins.
+	 * 
+	 * @param key der Schlüssel.
+	 */
+	void increment(final long key) {
+		if (2 * (size + 1) > keys.length) {
+			rehash(keys.length << 1);
+		}
+
+		final int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		while (keys[i] != FREE) {
+			if (keys[i] == key) {
+				counts[i]++;
+				return;
+			}
+			i = i + 1 & mask;
+		}
+		keys[i] = key;
+		counts[i] = 1;
+		size++;
+	}
+
+	/**
+	 * Verringert die Anzahl der Kanten zu einem Schlüssel um eins. Erreicht die
+	 * Anzahl 0, wird der Schlüssel entfernt.
+	 * 
+	 * @param key der Schlüssel.
+	 */
+	void decrement(final long key) {
+		final int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		while (keys[i] != key) {
+			if (keys[i] == FREE) {
+				return;
+			}
+			i = i + 1 & mask;
+		}
+
+		if (--counts[i] > 0) {
+			return;
+		}
+
+		// Nachfolgende Einträge der Sondierungskette nachrücken lassen
+		size--;
+		int gap = i;
+		for (int j = gap + 1 & mask; keys[j] != FREE; j = j + 1 & mask) {
+			final int home = hash(keys[j]) & mask;
+			if ((j - home & mask) >= (j - gap & mask)) {
+				keys[gap] = keys[j];
+				counts[gap] = counts[j];
+				gap = j;
+			}
+		}
+		keys[gap] = FREE;
+		counts[gap] = 0;
+	}
+
+	private void rehash(final int capacity) {
+		final long[] oldKeys = keys;
+		final int[] oldCounts = counts;
+
+		keys = new long[capacity];
+		counts = new int[capacity];
+		Arrays.fill(keys, FREE);
+
+		final int mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != FREE) {
+				int i = hash(oldKeys[j]) & mask;
+				while (keys[i] != FREE) {
+					i = i + 1 & mask;
+				}
+				keys[i] = oldKeys[j];
+				counts[i] = oldCounts[j];
+			}
+		}
+	}
+
+	private static int hash(final long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ h >>> 32);
+	}
+
+}
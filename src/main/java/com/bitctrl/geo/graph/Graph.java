@@ -26,6 +26,8 @@
 
 package com.bitctrl.geo.graph;
 
+import java.util.function.Consumer;
+
 /**
  * Repräsentiert einen Graphen.
  * 
@@ -127,4 +129,52 @@ public interface Graph<N extends Node, E extends Edge> {
 	 */
 	Iterable<Edge> incidentEdges(N node);
 
+	/**
+	 * Führt eine Aktion für alle Ausgangsbögen eines Knotens aus.
+	 * <p>
+	 * Die Standardimplementierung iteriert über {@link #outEdges(Node)}.
+	 * Implementierungen sollten die Methode überschreiben, wenn sie die Kanten
+	 * ohne Hilfsobjekte durchlaufen können.
+	 * 
+	 * @param node   ein Knoten im Graph.
+	 * @param action die Aktion, die für jeden Ausgangsbogen ausgeführt wird.
+	 */
+	default void forEachOutEdge(final N node, final Consumer<? super Edge> action) {
+		for (final Edge edge : outEdges(node)) {
+			action.accept(edge);
+		}
+	}
+
+	/**
+	 * Führt eine Aktion für alle Eingangsbögen eines Knotens aus.
+	 * <p>
+	 * Die Standardimplementierung iteriert über {@link #inEdges(Node)}.
+	 * Implementierungen sollten die Methode überschreiben, wenn sie die Kanten
+	 * ohne Hilfsobjekte durchlaufen können.
+	 * 
+	 * @param node   ein Knoten im Graph.
+	 * @param action die Aktion, die für jeden Eingangsbogen ausgeführt wird.
+	 */
+	default void forEachInEdge(final N node, final Consumer<? super Edge> action) {
+		for (final Edge edge : inEdges(node)) {
+			action.accept(edge);
+		}
+	}
+
+	/**
+	 * Führt eine Aktion für alle inzidenten Kanten eines Knotens aus.
+	 * <p>
+	 * Die Standardimplementierung iteriert über {@link #incidentEdges(Node)}.
+	 * Implementierungen sollten die Methode überschreiben, wenn sie die Kanten
+	 * ohne Hilfsobjekte durchlaufen können.
+	 * 
+	 * @param node   ein Knoten im Graph.
+	 * @param action die Aktion, die für jede inzidente Kante ausgeführt wird.
+	 */
+	default void forEachIncidentEdge(final N node, final Consumer<? super Edge> action) {
+		for (final Edge edge : incidentEdges(node)) {
+			action.accept(edge);
+		}
+	}
+
 }
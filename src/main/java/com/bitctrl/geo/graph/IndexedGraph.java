@@ -0,0 +1,459 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Graph mit indizierten Knoten- und Kantentabellen.
+ * <p>
+ * Jeder Knoten und jede Kante erhält beim Einfügen einen Index in einer
+ * Tabelle, so dass {@link #containsNode(BaseNode)} und
+ * {@link #containsEdge(BaseEdge)} in konstanter Zeit beantwortet werden. Die
+ * Ein- und Ausgangsbögen werden über die verketteten Listen in
+ * {@link BaseNode} und {@link BaseEdge} gepflegt, die Abfrage der inzidenten
+ * Kanten ist damit proportional zum Grad des Knoten und erzeugt keine Kopien
+ * der Kantenlisten. Für
+ * {@link #containsEdge(BaseNode, BaseNode)} wird zusätzlich ein Hashindex über
+ * die Knotenpaare geführt.
+ * <p>
+ * Knoten und Kanten werden über ihre Identität und nicht über
+ * {@link Object#equals(Object)} verwaltet. Ein Knoten oder eine Kante kann
+ * jeweils nur in einem {@code IndexedGraph} enthalten sein.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <N> der Typ der Knoten.
+ * @param <E> der Typ der Kanten.
+ */
+public class IndexedGraph<N extends BaseNode, E extends BaseEdge> implements Graph<N, E> {
+
+	private BaseNode[] nodeTable;
+	private int nodeCount;
+
+	private BaseEdge[] edgeTable;
+	private int edgeCount;
+
+	/** Zählen strukturelle Änderungen der Tabellen für {@link TableView}. */
+	private int nodeModCount;
+	private int edgeModCount;
+
+	private final EdgeKeyIndex edgeIndex;
+
+	private final List<Node> nodeView = new TableView<>(true);
+	private final List<Edge> edgeView = new TableView<>(false);
+
+	/**
+	 * Initialisiert einen leeren Graphen.
+	 */
+	public IndexedGraph() {
+		this(16, 16);
+	}
+
+	/**
+	 * Initialisiert einen leeren Graphen mit vorgegebener Anfangskapazität.
+	 * 
+	 * @param expectedNodes die erwartete Anzahl der Knoten.
+	 * @param expectedEdges die erwartete Anzahl der Kanten.
+	 */
+	public IndexedGraph(final int expectedNodes, final int expectedEdges) {
+		if (expectedNodes < 0) {
+			throw new IllegalArgumentException("Number of nodes must not be negative.");
+		}
+		if (expectedEdges < 0) {
+			throw new IllegalArgumentException("Number of edges must not be negative.");
+		}
+
+		nodeTable = new BaseNode[Math.max(expectedNodes, 1)];
+		edgeTable = new BaseEdge[Math.max(expectedEdges, 1)];
+		edgeIndex = new EdgeKeyIndex(expectedEdges);
+	}
+
+	/**
+	 * Gibt die Anzahl der Knoten im Graphen zurück.
+	 * 
+	 * @return die Knotenanzahl.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Gibt den Knoten mit einem bestimmten Index zurück.
+	 * 
+	 * @param index ein Index zwischen 0 (inklusive) und
+	 *              {@link #getNodeCount()} (exklusive).
+	 * @return der Knoten.
+	 */
+	@SuppressWarnings("unchecked")
+	public N getNode(final int index) {
+		if (index < 0 || index >= nodeCount) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + nodeCount);
+		}
+		return (N) nodeTable[index];
+	}
+
+	/**
+	 * Gibt die Anzahl der Kanten im Graphen zurück.
+	 * 
+	 * @return die Kantenanzahl.
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Gibt die Kante mit einem bestimmten Index zurück.
+	 * 
+	 * @param index ein Index zwischen 0 (inklusive) und
+	 *              {@link #getEdgeCount()} (exklusive).
+	 * @return die Kante.
+	 */
+	@SuppressWarnings("unchecked")
+	public E getEdge(final int index) {
+		if (index < 0 || index >= edgeCount) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + edgeCount);
+		}
+		return (E) edgeTable[index];
+	}
+
+	/**
+	 * Gibt die Anzahl der Kanten zwischen zwei Knoten zurück.
+	 * 
+	 * @param source der Startknoten der Kanten.
+	 * @param target der Endknoten der Kanten.
+	 * @return die Anzahl der Kanten von {@code source} nach {@code target}.
+	 */
+	public int countEdges(final N source, final N target) {
+		if (!containsNode(source) || !containsNode(target)) {
+			return 0;
+		}
+		return edgeIndex.get(EdgeKeyIndex.key(source.index, target.index));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Ist der Knoten bereits im Graph enthalten, passiert nichts.
+	 * 
+	 * @throws IllegalArgumentException wenn der Knoten bereits in einem anderen
+	 *                                  Graphen enthalten ist.
+	 */
+	@Override
+	public void addNode(final N node) {
+		if (containsNode(node)) {
+			return;
+		}
+		if (node.index >= 0) {
+			throw new IllegalArgumentException("Der Knoten ist bereits in einem anderen Graphen enthalten: " + node);
+		}
+
+		if (nodeCount == nodeTable.length) {
+			nodeTable = Arrays.copyOf(nodeTable, nodeCount << 1);
+		}
+		node.firstIn = null;
+		node.firstOut = null;
+		node.index = nodeCount;
+		nodeTable[nodeCount++] = node;
+		nodeModCount++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Alle inzidenten Kanten des Knoten werden ebenfalls entfernt.
+	 */
+	@Override
+	public void removeNode(final N node) {
+		if (!containsNode(node)) {
+			return;
+		}
+
+		while (node.firstOut != null) {
+			removeEdgeInternal(node.firstOut);
+		}
+		while (node.firstIn != null) {
+			removeEdgeInternal(node.firstIn);
+		}
+
+		final int index = node.index;
+		final BaseNode last = nodeTable[--nodeCount];
+		nodeTable[nodeCount] = null;
+		nodeModCount++;
+		node.index = -1;
+		if (last != node) {
+			// Der letzte Knoten rückt in die Lücke, seine Kanten müssen im Hashindex
+			// unter dem neuen Index geführt werden
+			unindexEdges(last);
+			last.index = index;
+			nodeTable[index] = last;
+			indexEdges(last);
+		}
+	}
+
+	@Override
+	public boolean containsNode(final N node) {
+		final int index = node.index;
+		return index >= 0 && index < nodeCount && nodeTable[index] == node;
+	}
+
+	@Override
+	public Iterable<Node> nodes() {
+		return nodeView;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws IllegalArgumentException wenn die Kante bereits in einem Graphen
+	 *                                  enthalten ist oder ihre Knoten nicht zu
+	 *                                  diesem Graphen gehören.
+	 */
+	@Override
+	public void insertEdge(final E edge) {
+		if (edge.index >= 0) {
+			throw new IllegalArgumentException("Die Kante ist bereits in einem Graphen enthalten: " + edge);
+		}
+		final BaseNode source = edge.source;
+		final BaseNode target = edge.target;
+		if (source == null || !containsBaseNode(source)) {
+			throw new IllegalArgumentException("Der Startknoten ist im Graph nicht vorhanden: " + source);
+		}
+		if (target == null || !containsBaseNode(target)) {
+			throw new IllegalArgumentException("Der Endknoten ist im Graph nicht vorhanden: " + target);
+		}
+
+		if (edgeCount == edgeTable.length) {
+			edgeTable = Arrays.copyOf(edgeTable, edgeCount << 1);
+		}
+		edge.index = edgeCount;
+		edgeTable[edgeCount++] = edge;
+		edgeModCount++;
+
+		edge.nextOut = source.firstOut;
+		source.firstOut = edge;
+		edge.nextIn = target.firstIn;
+		target.firstIn = edge;
+
+		edgeIndex.increment(EdgeKeyIndex.key(source.index, target.index));
+	}
+
+	@Override
+	public void removeEdge(final E edge) {
+		if (containsEdge(edge)) {
+			removeEdgeInternal(edge);
+		}
+	}
+
+	@Override
+	public Iterable<Edge> edges() {
+		return edgeView;
+	}
+
+	@Override
+	public boolean containsEdge(final E edge) {
+		final int index = edge.index;
+		return index >= 0 && index < edgeCount && edgeTable[index] == edge;
+	}
+
+	@Override
+	public boolean containsEdge(final N source, final N target) {
+		return countEdges(source, target) > 0;
+	}
+
+	@Override
+	public Iterable<Edge> outEdges(final N node) {
+		return EdgeChains.outEdges(node);
+	}
+
+	@Override
+	public Iterable<Edge> inEdges(final N node) {
+		return EdgeChains.inEdges(node);
+	}
+
+	@Override
+	public Iterable<Edge> incidentEdges(final N node) {
+		return EdgeChains.incidentEdges(node);
+	}
+
+	@Override
+	public void forEachOutEdge(final N node, final Consumer<? super Edge> action) {
+		for (BaseEdge edge = node.firstOut; edge != null;) {
+			final BaseEdge next = edge.nextOut;
+			action.accept(edge);
+			edge = next;
+		}
+	}
+
+	@Override
+	public void forEachInEdge(final N node, final Consumer<? super Edge> action) {
+		for (BaseEdge edge = node.firstIn; edge != null;) {
+			final BaseEdge next = edge.nextIn;
+			action.accept(edge);
+			edge = next;
+		}
+	}
+
+	@Override
+	public void forEachIncidentEdge(final N node, final Consumer<? super Edge> action) {
+		forEachOutEdge(node, action);
+		forEachInEdge(node, action);
+	}
+
+	private boolean containsBaseNode(final BaseNode node) {
+		final int index = node.index;
+		return index >= 0 && index < nodeCount && nodeTable[index] == node;
+	}
+
+	private void removeEdgeInternal(final BaseEdge edge) {
+		final BaseNode source = edge.source;
+		final BaseNode target = edge.target;
+
+		edgeIndex.decrement(EdgeKeyIndex.key(source.index, target.index));
+
+		if (source.firstOut == edge) {
+			source.firstOut = edge.nextOut;
+		} else {
+			BaseEdge prev = source.firstOut;
+			while (prev.nextOut != edge) {
+				prev = prev.nextOut;
+			}
+			prev.nextOut = edge.nextOut;
+		}
+		edge.nextOut = null;
+
+		if (target.firstIn == edge) {
+			target.firstIn = edge.nextIn;
+		} else {
+			BaseEdge prev = target.firstIn;
+			while (prev.nextIn != edge) {
+				prev = prev.nextIn;
+			}
+			prev.nextIn = edge.nextIn;
+		}
+		edge.nextIn = null;
+
+		final int index = edge.index;
+		final BaseEdge last = edgeTable[--edgeCount];
+		edgeTable[edgeCount] = null;
+		edgeModCount++;
+		edge.index = -1;
+		if (last != edge) {
+			last.index = index;
+			edgeTable[index] = last;
+		}
+	}
+
+	private void unindexEdges(final BaseNode node) {
+		for (BaseEdge edge = node.firstOut; edge != null; edge = edge.nextOut) {
+			edgeIndex.decrement(EdgeKeyIndex.key(edge.source.index, edge.target.index));
+		}
+		for (BaseEdge edge = node.firstIn; edge != null; edge = edge.nextIn) {
+			if (edge.source != node) {
+				// Schleifen wurden bereits bei den Ausgangsbögen berücksichtigt
+				edgeIndex.decrement(EdgeKeyIndex.key(edge.source.index, edge.target.index));
+			}
+		}
+	}
+
+	private void indexEdges(final BaseNode node) {
+		for (BaseEdge edge = node.firstOut; edge != null; edge = edge.nextOut) {
+			edgeIndex.increment(EdgeKeyIndex.key(edge.source.index, edge.target.index));
+		}
+		for (BaseEdge edge = node.firstIn; edge != null; edge = edge.nextIn) {
+			if (edge.source != node) {
+				edgeIndex.increment(EdgeKeyIndex.key(edge.source.index, edge.target.index));
+			}
+		}
+	}
+
+	/**
+	 * Unveränderliche Sicht auf die aktuelle Knoten- bzw. Kantentabelle. Die
+	 * Sicht folgt dem Graphen auch nach dem Vergrößern der Tabelle; ihre
+	 * Iteratoren werfen eine {@link ConcurrentModificationException}, wenn die
+	 * Tabelle während der Iteration strukturell verändert wird.
+	 */
+	private final class TableView<T> extends AbstractList<T> {
+
+		private final boolean nodes;
+
+		TableView(final boolean nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T get(final int index) {
+			Objects.checkIndex(index, size());
+			return (T) (nodes ? nodeTable[index] : edgeTable[index]);
+		}
+
+		@Override
+		public int size() {
+			return nodes ? nodeCount : edgeCount;
+		}
+
+		private int modCount() {
+			return nodes ? nodeModCount : edgeModCount;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return new Iterator<>() {
+
+				private final int expectedModCount = modCount();
+				private int cursor;
+
+				@Override
+				public boolean hasNext() {
+					return cursor < size();
+				}
+
+				@Override
+				public T next() {
+					if (modCount() != expectedModCount) {
+						throw new ConcurrentModificationException();
+					}
+					if (cursor >= size()) {
+						throw new NoSuchElementException();
+					}
+					return get(cursor++);
+				}
+
+			};
+		}
+
+	}
+
+}
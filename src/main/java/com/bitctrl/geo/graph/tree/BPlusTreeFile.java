@@ -0,0 +1,834 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.graph.tree;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persistenter B+-Baum mit {@code long}-Schlüsseln und Byte-Feldern als Werten,
+ * der in Seiten fester Größe in einer Datei abgelegt wird. Der Baum eignet sich
+ * als geordneter Index für zeitbezogene Daten, die nicht vollständig in den
+ * Hauptspeicher passen.
+ * <p>
+ * Die Blätter sind über Geschwisterverweise verkettet, so dass Bereichsabfragen
+ * nach dem Abstieg zum ersten Blatt nur noch sequentiell lesen. Zuletzt
+ * benutzte Seiten werden in einem LRU-Cache gehalten, geänderte Seiten werden
+ * beim Verdrängen, bei {@link #flush()} und bei {@link #close()} geschrieben.
+ * <p>
+ * Beim Entfernen von Einträgen werden Blätter nicht zusammengelegt. Für Daten,
+ * die überwiegend angehängt und selten gelöscht werden, ist das ausreichend;
+ * ein stark ausgedünnter Baum kann mit {@link #bulkLoad(Path, int, int,
+ * Iterator)} neu aufgebaut werden.
+ * <p>
+ * Alle öffentlichen Methoden sind synchronisiert.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public final class BPlusTreeFile implements Closeable {
+
+	/** Die Standardgröße einer Seite in Byte. */
+	public static final int DEFAULT_PAGE_SIZE = 4096;
+
+	/** Die Standardanzahl der Seiten im Cache. */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+
+	/**
+	 * Empfängt die Einträge einer Bereichsabfrage.
+	 */
+	@FunctionalInterface
+	public interface EntryVisitor {
+
+		/**
+		 * Wird für jeden Eintrag im abgefragten Bereich in aufsteigender
+		 * Schlüsselreihenfolge aufgerufen.
+		 * 
+		 * @param key   der Schlüssel.
+		 * @param value eine Kopie des Wertes.
+		 * @return {@code true}, wenn die Abfrage fortgesetzt werden soll.
+		 */
+		boolean visit(long key, byte[] value);
+
+	}
+
+	/**
+	 * Ein Eintrag für das Befüllen eines Baumes mit
+	 * {@link BPlusTreeFile#bulkLoad(Path, int, int, Iterator)}.
+	 */
+	public static final class Entry {
+
+		private final long key;
+		private final byte[] value;
+
+		/**
+		 * Initialisiert den Eintrag.
+		 * 
+		 * @param key   der Schlüssel.
+		 * @param value der Wert.
+		 */
+		public Entry(final long key, final byte[] value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		/**
+		 * Gibt den Schlüssel zurück.
+		 * 
+		 * @return der Schlüssel.
+		 */
+		public long getKey() {
+			return key;
+		}
+
+		/**
+		 * Gibt den Wert zurück.
+		 * 
+		 * @return der Wert.
+		 */
+		public byte[] getValue() {
+			return value;
+		}
+
+	}
+
+	/** Eine Seite im Cache. */
+	private static final class Page {
+
+		private final long number;
+		private final ByteBuffer data;
+		private boolean dirty;
+
+		Page(final long number, final ByteBuffer data) {
+			this.number = number;
+			this.data = data;
+		}
+
+	}
+
+	private static final int MAGIC = 0x42505446;
+	private static final int VERSION = 1;
+
+	private static final int NODE_HEADER_SIZE = 16;
+	private static final int KEY_SIZE = Long.BYTES;
+	private static final int POINTER_SIZE = Long.BYTES;
+	private static final int LENGTH_SIZE = Integer.BYTES;
+
+	private static final byte LEAF = 0;
+	private static final byte INNER = 1;
+
+	private static final int OFFSET_TYPE = 0;
+	private static final int OFFSET_COUNT = 1;
+	private static final int OFFSET_NEXT = 5;
+
+	private static final long NO_PAGE = -1;
+
+	private final FileChannel channel;
+	private final int pageSize;
+	private final int maxValueSize;
+	private final int leafCapacity;
+	private final int innerCapacity;
+	private final int cacheSize;
+	private final Map<Long, Page> cache;
+
+	private long root;
+	private int height;
+	private long pageCount;
+	private long size;
+	private boolean headerDirty;
+
+	private BPlusTreeFile(final FileChannel channel, final int pageSize, final int maxValueSize,
+			final int cacheSize) {
+		if (cacheSize < 4) {
+			throw new IllegalArgumentException("Cache size must be at least 4 pages.");
+		}
+
+		this.channel = channel;
+		this.pageSize = pageSize;
+		this.maxValueSize = maxValueSize;
+		leafCapacity = TreeUtil.leafCapacity(pageSize, NODE_HEADER_SIZE, KEY_SIZE, LENGTH_SIZE + maxValueSize);
+		innerCapacity = TreeUtil.innerCapacity(pageSize, NODE_HEADER_SIZE, KEY_SIZE, POINTER_SIZE);
+		if (leafCapacity < 2) {
+			throw new IllegalArgumentException("Page size " + pageSize + " is too small for values of "
+					+ maxValueSize + " bytes.");
+		}
+
+		this.cacheSize = cacheSize;
+		cache = new LinkedHashMap<>(cacheSize * 4 / 3 + 1, 0.75f, true);
+	}
+
+	/**
+	 * Legt eine neue, leere Baumdatei an. Eine vorhandene Datei wird
+	 * überschrieben.
+	 * 
+	 * @param file         die Datei.
+	 * @param pageSize     die Größe einer Seite in Byte.
+	 * @param maxValueSize die maximale Größe eines Wertes in Byte.
+	 * @return der geöffnete Baum.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public static BPlusTreeFile create(final Path file, final int pageSize, final int maxValueSize)
+			throws IOException {
+		final BPlusTreeFile tree = createEmpty(file, pageSize, maxValueSize);
+		tree.root = tree.allocate(LEAF).number;
+		tree.height = 1;
+		tree.flush();
+		return tree;
+	}
+
+	/**
+	 * Öffnet eine vorhandene Baumdatei mit der Standardgröße des Caches.
+	 * 
+	 * @param file die Datei.
+	 * @return der geöffnete Baum.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei oder wenn
+	 *                     die Datei keinen gültigen Baum enthält.
+	 */
+	public static BPlusTreeFile open(final Path file) throws IOException {
+		return open(file, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Öffnet eine vorhandene Baumdatei.
+	 * 
+	 * @param file      die Datei.
+	 * @param cacheSize die Anzahl der Seiten im Cache.
+	 * @return der geöffnete Baum.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei oder wenn
+	 *                     die Datei keinen gültigen Baum enthält.
+	 */
+	public static BPlusTreeFile open(final Path file, final int cacheSize) throws IOException {
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			final ByteBuffer header = ByteBuffer.allocate(44);
+			read(channel, header, 0);
+			header.flip();
+			if (header.getInt() != MAGIC) {
+				throw new IOException("Die Datei enthält keinen B+-Baum: " + file);
+			}
+			if (header.getInt() != VERSION) {
+				throw new IOException("Die Version der Datei wird nicht unterstützt: " + file);
+			}
+
+			final BPlusTreeFile tree = new BPlusTreeFile(channel, header.getInt(), header.getInt(), cacheSize);
+			tree.root = header.getLong();
+			tree.height = header.getInt();
+			tree.pageCount = header.getLong();
+			tree.size = header.getLong();
+			return tree;
+		} catch (final IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Legt eine neue Baumdatei an und befüllt sie mit aufsteigend sortierten
+	 * Einträgen. Die Blätter werden dabei vollständig gefüllt und sequentiell
+	 * geschrieben, was deutlich schneller ist als einzelnes Einfügen.
+	 * 
+	 * @param file          die Datei, eine vorhandene Datei wird überschrieben.
+	 * @param pageSize      die Größe einer Seite in Byte.
+	 * @param maxValueSize  die maximale Größe eines Wertes in Byte.
+	 * @param sortedEntries die Einträge, streng aufsteigend nach Schlüssel
+	 *                      sortiert.
+	 * @return der geöffnete Baum.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public static BPlusTreeFile bulkLoad(final Path file, final int pageSize, final int maxValueSize,
+			final Iterator<Entry> sortedEntries) throws IOException {
+		final BPlusTreeFile tree = createEmpty(file, pageSize, maxValueSize);
+		try {
+			tree.load(sortedEntries);
+			tree.flush();
+			return tree;
+		} catch (final IOException | RuntimeException ex) {
+			tree.close();
+			throw ex;
+		}
+	}
+
+	private static BPlusTreeFile createEmpty(final Path file, final int pageSize, final int maxValueSize)
+			throws IOException {
+		if (maxValueSize < 0) {
+			throw new IllegalArgumentException("Maximum value size must not be negative.");
+		}
+
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			final BPlusTreeFile tree = new BPlusTreeFile(channel, pageSize, maxValueSize, DEFAULT_CACHE_SIZE);
+			tree.pageCount = 1;
+			tree.headerDirty = true;
+			return tree;
+		} catch (final RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Gibt die Anzahl der Einträge im Baum zurück.
+	 * 
+	 * @return die Anzahl der Einträge.
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * Gibt die Höhe des Baumes zurück. Ein Baum, der nur aus einem Blatt besteht,
+	 * hat die Höhe 1.
+	 * 
+	 * @return die Baumhöhe.
+	 */
+	public synchronized int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gibt die maximale Größe eines Wertes zurück.
+	 * 
+	 * @return die maximale Wertgröße in Byte.
+	 */
+	public int getMaxValueSize() {
+		return maxValueSize;
+	}
+
+	/**
+	 * Sucht den Wert zu einem Schlüssel.
+	 * 
+	 * @param key der Schlüssel.
+	 * @return eine Kopie des Wertes oder {@code null}, wenn es keinen Eintrag gibt.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public synchronized byte[] get(final long key) throws IOException {
+		final Page leaf = findLeaf(key, null);
+		final int index = search(leaf.data, key);
+		final byte[] value = index >= 0 ? readValue(leaf.data, index) : null;
+		trim();
+		return value;
+	}
+
+	/**
+	 * Fügt einen Eintrag ein oder ersetzt den Wert eines vorhandenen Eintrags.
+	 * 
+	 * @param key   der Schlüssel.
+	 * @param value der Wert.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public synchronized void put(final long key, final byte[] value) throws IOException {
+		checkValue(value);
+		try {
+			insert(key, value);
+		} finally {
+			trim();
+		}
+	}
+
+	private void insert(final long key, final byte[] value) throws IOException {
+
+		final long[] path = new long[height];
+		final Page leaf = findLeaf(key, path);
+		final ByteBuffer data = leaf.data;
+		int index = search(data, key);
+		leaf.dirty = true;
+		if (index >= 0) {
+			writeValue(data, index, value);
+			return;
+		}
+
+		index = -index - 1;
+		final int count = count(data);
+		size++;
+		headerDirty = true;
+		if (count < leafCapacity) {
+			insertLeafEntry(data, count, index, key, value);
+			return;
+		}
+
+		// Blatt teilen, die obere Hälfte wandert in ein neues Blatt
+		final Page sibling = allocate(LEAF);
+		final int half = (count + 1) / 2;
+		final ByteBuffer right = sibling.data;
+		for (int i = half; i < count; i++) {
+			copyLeafEntry(data, i, right, i - half);
+		}
+		setCount(right, count - half);
+		setCount(data, half);
+		right.putLong(OFFSET_NEXT, data.getLong(OFFSET_NEXT));
+		data.putLong(OFFSET_NEXT, sibling.number);
+
+		if (index <= half) {
+			insertLeafEntry(data, half, index, key, value);
+		} else {
+			insertLeafEntry(right, count - half, index - half, key, value);
+		}
+
+		insertIntoParent(path, height - 2, leafKey(right, 0), sibling.number);
+	}
+
+	/**
+	 * Entfernt den Eintrag zu einem Schlüssel.
+	 * 
+	 * @param key der Schlüssel.
+	 * @return {@code true}, wenn es einen Eintrag gab.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public synchronized boolean remove(final long key) throws IOException {
+		final Page leaf = findLeaf(key, null);
+		final ByteBuffer data = leaf.data;
+		final int index = search(data, key);
+		if (index < 0) {
+			trim();
+			return false;
+		}
+
+		final int count = count(data);
+		for (int i = index + 1; i < count; i++) {
+			copyLeafEntry(data, i, data, i - 1);
+		}
+		setCount(data, count - 1);
+		leaf.dirty = true;
+		size--;
+		headerDirty = true;
+		trim();
+		return true;
+	}
+
+	/**
+	 * Liefert alle Einträge mit einem Schlüssel im angegebenen Bereich in
+	 * aufsteigender Reihenfolge.
+	 * 
+	 * @param from    der kleinste Schlüssel (inklusive).
+	 * @param to      der größte Schlüssel (inklusive).
+	 * @param visitor empfängt die Einträge.
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public synchronized void scan(final long from, final long to, final EntryVisitor visitor) throws IOException {
+		if (from > to) {
+			return;
+		}
+
+		Page leaf = findLeaf(from, null);
+		int index = search(leaf.data, from);
+		if (index < 0) {
+			index = -index - 1;
+		}
+
+		while (true) {
+			final ByteBuffer data = leaf.data;
+			final int count = count(data);
+			for (; index < count; index++) {
+				final long key = leafKey(data, index);
+				if (key > to || !visitor.visit(key, readValue(data, index))) {
+					return;
+				}
+			}
+
+			final long next = data.getLong(OFFSET_NEXT);
+			if (next == NO_PAGE) {
+				return;
+			}
+			trim();
+			leaf = page(next);
+			index = 0;
+		}
+	}
+
+	/**
+	 * Schreibt alle geänderten Seiten in die Datei.
+	 * 
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	public synchronized void flush() throws IOException {
+		for (final Page page : cache.values()) {
+			write(page);
+		}
+		if (headerDirty) {
+			final ByteBuffer header = ByteBuffer.allocate(44);
+			header.putInt(MAGIC).putInt(VERSION).putInt(pageSize).putInt(maxValueSize);
+			header.putLong(root).putInt(height).putLong(pageCount).putLong(size);
+			header.flip();
+			write(channel, header, 0);
+			headerDirty = false;
+		}
+		channel.force(false);
+	}
+
+	/**
+	 * Schreibt alle geänderten Seiten und schließt die Datei.
+	 * 
+	 * @throws IOException bei einem Fehler beim Zugriff auf die Datei.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!channel.isOpen()) {
+			return;
+		}
+		try {
+			flush();
+		} finally {
+			cache.clear();
+			channel.close();
+		}
+	}
+
+	private void load(final Iterator<Entry> entries) throws IOException {
+		// Blätter sequentiell füllen, Trennschlüssel und Seiten merken
+		long[] keys = new long[64];
+		long[] pages = new long[64];
+		int nodes = 0;
+
+		Page leaf = allocate(LEAF);
+		int count = 0;
+		long lastKey = 0;
+		while (entries.hasNext()) {
+			final Entry entry = entries.next();
+			checkValue(entry.value);
+			if (size > 0 && entry.key <= lastKey) {
+				throw new IllegalArgumentException("Die Einträge sind nicht streng aufsteigend sortiert: "
+						+ lastKey + " >= " + entry.key);
+			}
+			lastKey = entry.key;
+
+			if (count == leafCapacity) {
+				setCount(leaf.data, count);
+				final Page next = allocate(LEAF);
+				leaf.data.putLong(OFFSET_NEXT, next.number);
+				leaf = next;
+				count = 0;
+				trim();
+			}
+			if (count == 0) {
+				if (nodes == keys.length) {
+					keys = Arrays.copyOf(keys, nodes << 1);
+					pages = Arrays.copyOf(pages, nodes << 1);
+				}
+				keys[nodes] = entry.key;
+				pages[nodes++] = leaf.number;
+			}
+
+			leaf.data.putLong(leafKeyOffset(count), entry.key);
+			writeValue(leaf.data, count++, entry.value);
+			size++;
+		}
+		setCount(leaf.data, count);
+		if (nodes == 0) {
+			pages[nodes++] = leaf.number;
+		}
+
+		// Innere Ebenen aufbauen, bis nur noch die Wurzel übrig ist
+		height = TreeUtil.heightOfBPlusTree(leafCapacity, innerCapacity, size);
+		int level = 1;
+		while (nodes > 1) {
+			int parents = 0;
+			for (int first = 0; first < nodes; first += innerCapacity + 1) {
+				final int last = Math.min(first + innerCapacity + 1, nodes);
+				final Page inner = allocate(INNER);
+				final ByteBuffer data = inner.data;
+				data.putLong(childOffset(0), pages[first]);
+				for (int i = first + 1; i < last; i++) {
+					data.putLong(innerKeyOffset(i - first - 1), keys[i]);
+					data.putLong(childOffset(i - first), pages[i]);
+				}
+				setCount(data, last - first - 1);
+
+				keys[parents] = keys[first];
+				pages[parents++] = inner.number;
+				trim();
+			}
+			nodes = parents;
+			level++;
+		}
+		assert level == height;
+		root = pages[0];
+		headerDirty = true;
+	}
+
+	private void insertIntoParent(final long[] path, final int level, final long key, final long child)
+			throws IOException {
+		if (level < 0) {
+			// Die Wurzel wurde geteilt, eine neue Wurzel anlegen
+			final Page newRoot = allocate(INNER);
+			final ByteBuffer data = newRoot.data;
+			data.putLong(childOffset(0), root);
+			data.putLong(innerKeyOffset(0), key);
+			data.putLong(childOffset(1), child);
+			setCount(data, 1);
+			root = newRoot.number;
+			height++;
+			headerDirty = true;
+			return;
+		}
+
+		final Page parent = page(path[level]);
+		final ByteBuffer data = parent.data;
+		parent.dirty = true;
+		final int count = count(data);
+		final int index = upperBound(data, count, key);
+
+		if (count < innerCapacity) {
+			insertInnerEntry(data, count, index, key, child);
+			return;
+		}
+
+		// Inneren Knoten teilen, der mittlere Schlüssel wandert nach oben
+		final long[] allKeys = new long[count + 1];
+		final long[] allChildren = new long[count + 2];
+		for (int i = 0, j = 0; i <= count; i++) {
+			if (i == index) {
+				allKeys[i] = key;
+			} else {
+				allKeys[i] = data.getLong(innerKeyOffset(j++));
+			}
+		}
+		allChildren[0] = data.getLong(childOffset(0));
+		for (int i = 1, j = 1; i <= count + 1; i++) {
+			if (i == index + 1) {
+				allChildren[i] = child;
+			} else {
+				allChildren[i] = data.getLong(childOffset(j++));
+			}
+		}
+
+		final int mid = (count + 1) / 2;
+		final Page sibling = allocate(INNER);
+		final ByteBuffer right = sibling.data;
+
+		for (int i = 0; i < mid; i++) {
+			data.putLong(innerKeyOffset(i), allKeys[i]);
+			data.putLong(childOffset(i), allChildren[i]);
+		}
+		data.putLong(childOffset(mid), allChildren[mid]);
+		setCount(data, mid);
+
+		final int rightCount = count - mid;
+		for (int i = 0; i < rightCount; i++) {
+			right.putLong(innerKeyOffset(i), allKeys[mid + 1 + i]);
+			right.putLong(childOffset(i), allChildren[mid + 1 + i]);
+		}
+		right.putLong(childOffset(rightCount), allChildren[count + 1]);
+		setCount(right, rightCount);
+
+		insertIntoParent(path, level - 1, allKeys[mid], sibling.number);
+	}
+
+	private Page findLeaf(final long key, final long[] path) throws IOException {
+		Page page = page(root);
+		for (int level = 0; level < height - 1; level++) {
+			if (path != null) {
+				path[level] = page.number;
+			}
+			final ByteBuffer data = page.data;
+			final int index = upperBound(data, count(data), key);
+			page = page(data.getLong(childOffset(index)));
+		}
+		return page;
+	}
+
+	/** Gibt die Anzahl der Schlüssel eines inneren Knotens zurück, die kleiner oder gleich {@code key} sind. */
+	private static int upperBound(final ByteBuffer data, final int count, final long key) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			final int mid = low + high >>> 1;
+			if (data.getLong(innerKeyOffset(mid)) <= key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/** Binäre Suche in einem Blatt wie {@link Arrays#binarySearch(long[], long)}. */
+	private static int search(final ByteBuffer data, final long key) {
+		int low = 0;
+		int high = count(data) - 1;
+		while (low <= high) {
+			final int mid = low + high >>> 1;
+			final long k = data.getLong(leafKeyOffset(mid));
+			if (k < key) {
+				low = mid + 1;
+			} else if (k > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private void insertLeafEntry(final ByteBuffer data, final int count, final int index, final long key,
+			final byte[] value) {
+		for (int i = count - 1; i >= index; i--) {
+			copyLeafEntry(data, i, data, i + 1);
+		}
+		data.putLong(leafKeyOffset(index), key);
+		writeValue(data, index, value);
+		setCount(data, count + 1);
+	}
+
+	private void insertInnerEntry(final ByteBuffer data, final int count, final int index,
+			final long key, final long child) {
+		for (int i = count - 1; i >= index; i--) {
+			data.putLong(innerKeyOffset(i + 1), data.getLong(innerKeyOffset(i)));
+			data.putLong(childOffset(i + 2), data.getLong(childOffset(i + 1)));
+		}
+		data.putLong(innerKeyOffset(index), key);
+		data.putLong(childOffset(index + 1), child);
+		setCount(data, count + 1);
+	}
+
+	private void copyLeafEntry(final ByteBuffer from, final int i, final ByteBuffer to, final int j) {
+		to.putLong(leafKeyOffset(j), from.getLong(leafKeyOffset(i)));
+		final int length = from.getInt(valueOffset(i));
+		to.putInt(valueOffset(j), length);
+		to.put(valueOffset(j) + LENGTH_SIZE, from, valueOffset(i) + LENGTH_SIZE, length);
+	}
+
+	private byte[] readValue(final ByteBuffer data, final int index) {
+		final int offset = valueOffset(index);
+		final byte[] value = new byte[data.getInt(offset)];
+		data.get(offset + LENGTH_SIZE, value);
+		return value;
+	}
+
+	private void writeValue(final ByteBuffer data, final int index, final byte[] value) {
+		final int offset = valueOffset(index);
+		data.putInt(offset, value.length);
+		data.put(offset + LENGTH_SIZE, value);
+	}
+
+	private void checkValue(final byte[] value) {
+		if (value.length > maxValueSize) {
+			throw new IllegalArgumentException(
+					"Der Wert ist zu groß: " + value.length + " > " + maxValueSize + " Byte.");
+		}
+	}
+
+	private static int count(final ByteBuffer data) {
+		return data.getInt(OFFSET_COUNT);
+	}
+
+	private static void setCount(final ByteBuffer data, final int count) {
+		data.putInt(OFFSET_COUNT, count);
+	}
+
+	private static long leafKey(final ByteBuffer data, final int index) {
+		return data.getLong(leafKeyOffset(index));
+	}
+
+	private static int leafKeyOffset(final int index) {
+		return NODE_HEADER_SIZE + index * KEY_SIZE;
+	}
+
+	private int valueOffset(final int index) {
+		return NODE_HEADER_SIZE + leafCapacity * KEY_SIZE + index * (LENGTH_SIZE + maxValueSize);
+	}
+
+	private static int innerKeyOffset(final int index) {
+		return NODE_HEADER_SIZE + index * KEY_SIZE;
+	}
+
+	private int childOffset(final int index) {
+		return NODE_HEADER_SIZE + innerCapacity * KEY_SIZE + index * POINTER_SIZE;
+	}
+
+	/**
+	 * Verdrängt die am längsten nicht benutzten Seiten, bis der Cache wieder
+	 * seine Sollgröße hat. Wird nur zwischen den Schritten einer Operation
+	 * aufgerufen, so dass keine Seite verdrängt wird, die gerade bearbeitet wird.
+	 */
+	private void trim() throws IOException {
+		final Iterator<Page> pages = cache.values().iterator();
+		while (cache.size() > cacheSize && pages.hasNext()) {
+			write(pages.next());
+			pages.remove();
+		}
+	}
+
+	private Page allocate(final byte type) {
+		final Page page = new Page(pageCount++, ByteBuffer.allocate(pageSize));
+		page.data.put(OFFSET_TYPE, type);
+		page.data.putLong(OFFSET_NEXT, NO_PAGE);
+		page.dirty = true;
+		headerDirty = true;
+		cache.put(page.number, page);
+		return page;
+	}
+
+	private Page page(final long number) throws IOException {
+		Page page = cache.get(number);
+		if (page == null) {
+			if (number <= 0 || number >= pageCount) {
+				throw new IOException("Ungültige Seitennummer: " + number);
+			}
+			page = new Page(number, ByteBuffer.allocate(pageSize));
+			read(channel, page.data, number * pageSize);
+			cache.put(number, page);
+		}
+		return page;
+	}
+
+	private void write(final Page page) throws IOException {
+		if (page.dirty) {
+			write(channel, page.data.duplicate().clear(), page.number * pageSize);
+			page.dirty = false;
+		}
+	}
+
+	private static void read(final FileChannel channel, final ByteBuffer buffer, final long position)
+			throws IOException {
+		long pos = position;
+		while (buffer.hasRemaining()) {
+			final int n = channel.read(buffer, pos);
+			if (n < 0) {
+				throw new EOFException("Unerwartetes Dateiende an Position " + pos + ".");
+			}
+			pos += n;
+		}
+	}
+
+	private static void write(final FileChannel channel, final ByteBuffer buffer, final long position)
+			throws IOException {
+		long pos = position;
+		while (buffer.hasRemaining()) {
+			pos += channel.write(buffer, pos);
+		}
+	}
+
+}
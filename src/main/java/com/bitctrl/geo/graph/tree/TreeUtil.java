@@ -76,6 +76,83 @@ public final class TreeUtil {
 		return (long) (Math.pow(k + 1, height - 1) * k);
 	}
 
+	/**
+	 * Bestimmt die notwendige Höhe eines B+-Baumes, dessen Blätter und innere
+	 * Knoten unterschiedlich viele Einträge aufnehmen können. Ein Baum, der nur
+	 * aus einem Blatt besteht, hat die Höhe 1.
+	 * 
+	 * @param leafCapacity  die maximale Anzahl der Elemente pro Blatt.
+	 * @param innerCapacity die maximale Anzahl der Schlüssel pro innerem Knoten.
+	 * @param n             Anzahl der unterzubringenden Elemente.
+	 * @return die notwendige Baumhöhe.
+	 */
+	public static int heightOfBPlusTree(final int leafCapacity, final int innerCapacity, final long n) {
+		if (leafCapacity <= 0) {
+			throw new IllegalArgumentException("Number of leaf elements must be greater than 0.");
+		}
+		if (innerCapacity <= 0) {
+			throw new IllegalArgumentException("Number of inner keys must be greater than 0.");
+		}
+		if (n < 0) {
+			throw new IllegalArgumentException("Number of elements must not be negative.");
+		}
+
+		int height = 1;
+		long nodes = Math.max(1, (n + leafCapacity - 1) / leafCapacity);
+		while (nodes > 1) {
+			nodes = (nodes + innerCapacity) / (innerCapacity + 1);
+			height++;
+		}
+		return height;
+	}
+
+	/**
+	 * Bestimmt die Anzahl der Elemente, die in einem Blatt eines seitenbasierten
+	 * B+-Baumes Platz finden.
+	 * 
+	 * @param pageSize   die Größe einer Seite in Byte.
+	 * @param headerSize die Größe des Seitenkopfes in Byte.
+	 * @param keySize    die Größe eines Schlüssels in Byte.
+	 * @param valueSize  die Größe eines Wertes in Byte.
+	 * @return die maximale Anzahl der Elemente pro Blatt.
+	 */
+	public static int leafCapacity(final int pageSize, final int headerSize, final int keySize,
+			final int valueSize) {
+		if (headerSize < 0 || keySize <= 0 || valueSize < 0) {
+			throw new IllegalArgumentException("Sizes must not be negative.");
+		}
+
+		final int capacity = (pageSize - headerSize) / (keySize + valueSize);
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Page size " + pageSize + " is too small for the leaf entries.");
+		}
+		return capacity;
+	}
+
+	/**
+	 * Bestimmt die Anzahl der Schlüssel, die in einem inneren Knoten eines
+	 * seitenbasierten B+-Baumes Platz finden. Ein innerer Knoten mit {@code k}
+	 * Schlüsseln besitzt {@code k + 1} Verweise auf Kindknoten.
+	 * 
+	 * @param pageSize    die Größe einer Seite in Byte.
+	 * @param headerSize  die Größe des Seitenkopfes in Byte.
+	 * @param keySize     die Größe eines Schlüssels in Byte.
+	 * @param pointerSize die Größe eines Verweises auf einen Kindknoten in Byte.
+	 * @return die maximale Anzahl der Schlüssel pro innerem Knoten.
+	 */
+	public static int innerCapacity(final int pageSize, final int headerSize, final int keySize,
+			final int pointerSize) {
+		if (headerSize < 0 || keySize <= 0 || pointerSize <= 0) {
+			throw new IllegalArgumentException("Sizes must be greater than 0.");
+		}
+
+		final int capacity = (pageSize - headerSize - pointerSize) / (keySize + pointerSize);
+		if (capacity < 2) {
+			throw new IllegalArgumentException("Page size " + pageSize + " is too small for the inner entries.");
+		}
+		return capacity;
+	}
+
 	private TreeUtil() {
 		// nix
 	}
@@ -0,0 +1,115 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.index;
+
+import java.util.Arrays;
+
+/**
+ * Binärer Min-Heap für die Suche nach den nächsten Elementen. Jeder Eintrag
+ * besteht aus einem Abstand als Schlüssel und wahlweise einer numerischen
+ * Referenz oder einem Objekt.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class DistanceHeap {
+
+	private double[] keys = new double[32];
+	private long[] refs = new long[32];
+	private Object[] objects = new Object[32];
+	private int size;
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	double peekKey() {
+		return keys[0];
+	}
+
+	long peekRef() {
+		return refs[0];
+	}
+
+	Object peekObject() {
+		return objects[0];
+	}
+
+	void add(final double key, final long ref, final Object object) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size << 1);
+			refs = Arrays.copyOf(refs, size << 1);
+			objects = Arrays.copyOf(objects, size << 1);
+		}
+
+		int i = size++;
+		while (i > 0) {
+			final int parent = i - 1 >>> 1;
+			if (keys[parent] <= key) {
+				break;
+			}
+			move(parent, i);
+			i = parent;
+		}
+		keys[i] = key;
+		refs[i] = ref;
+		objects[i] = object;
+	}
+
+	void remove() {
+		final int last = --size;
+		final double key = keys[last];
+		final long ref = refs[last];
+		final Object object = objects[last];
+		objects[last] = null;
+
+		int i = 0;
+		final int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && keys[child + 1] < keys[child]) {
+				child++;
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			move(child, i);
+			i = child;
+		}
+		if (size > 0) {
+			keys[i] = key;
+			refs[i] = ref;
+			objects[i] = object;
+		}
+	}
+
+	private void move(final int from, final int to) {
+		keys[to] = keys[from];
+		refs[to] = refs[from];
+		objects[to] = objects[from];
+	}
+
+}
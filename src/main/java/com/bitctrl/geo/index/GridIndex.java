@@ -0,0 +1,355 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Dynamischer räumlicher Index auf Basis eines regelmäßigen Gitters. Elemente
+ * können jederzeit eingefügt und entfernt werden, z.&nbsp;B. für Netze, die
+ * während der Laufzeit bearbeitet werden.
+ * <p>
+ * Das Gitter überdeckt ein festes Rechteck. Elemente außerhalb des Rechtecks
+ * werden den Randzellen zugeordnet und trotzdem korrekt gefunden. Elemente mit
+ * einer Ausdehnung werden in allen Zellen geführt, die ihr umschließendes
+ * Rechteck schneidet.
+ * <p>
+ * Die Klasse ist nicht synchronisiert. Lesende Zugriffe dürfen parallel
+ * erfolgen, solange der Index dabei nicht verändert wird.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <T> der Typ der Elemente.
+ */
+public final class GridIndex<T> implements SpatialIndex<T> {
+
+	/** Ein Element mit seinem zwischengespeicherten Rechteck. */
+	private static final class Entry {
+
+		private final Object element;
+		private final double minX;
+		private final double minY;
+		private final double maxX;
+		private final double maxY;
+		private final boolean spansCells;
+
+		Entry(final Object element, final double minX, final double minY, final double maxX, final double maxY,
+				final boolean spansCells) {
+			this.element = element;
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.spansCells = spansCells;
+		}
+
+	}
+
+	private static final Entry[] EMPTY_CELL = {};
+
+	private final SpatialExtent<? super T> extent;
+	private final double originX;
+	private final double originY;
+	private final double cellSize;
+	private final int columns;
+	private final int rows;
+	private final Entry[][] cells;
+	private final int[] cellSizes;
+	private final Map<Object, Entry> entries = new IdentityHashMap<>();
+
+	/**
+	 * Initialisiert einen leeren Index.
+	 * 
+	 * @param minX     die minimale x-Koordinate des überdeckten Bereichs.
+	 * @param minY     die minimale y-Koordinate des überdeckten Bereichs.
+	 * @param maxX     die maximale x-Koordinate des überdeckten Bereichs.
+	 * @param maxY     die maximale y-Koordinate des überdeckten Bereichs.
+	 * @param cellSize die Kantenlänge einer Gitterzelle. Ein guter Wert liegt in
+	 *                 der Größenordnung des typischen Suchradius.
+	 * @param extent   bestimmt die Ausdehnung der Elemente.
+	 */
+	public GridIndex(final double minX, final double minY, final double maxX, final double maxY,
+			final double cellSize, final SpatialExtent<? super T> extent) {
+		if (!(cellSize > 0)) {
+			throw new IllegalArgumentException("Cell size must be greater than 0.");
+		}
+		if (!(maxX >= minX) || !(maxY >= minY)) {
+			throw new IllegalArgumentException("Invalid bounds.");
+		}
+
+		final long c = (long) Math.floor((maxX - minX) / cellSize) + 1;
+		final long r = (long) Math.floor((maxY - minY) / cellSize) + 1;
+		if (c * r > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Cell size is too small for the bounds.");
+		}
+
+		this.extent = extent;
+		originX = minX;
+		originY = minY;
+		this.cellSize = cellSize;
+		columns = (int) c;
+		rows = (int) r;
+		cells = new Entry[columns * rows][];
+		Arrays.fill(cells, EMPTY_CELL);
+		cellSizes = new int[columns * rows];
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Prüft ob ein Element im Index enthalten ist.
+	 * 
+	 * @param element ein Element.
+	 * @return {@code true}, wenn das Element enthalten ist.
+	 */
+	public boolean contains(final T element) {
+		return entries.containsKey(element);
+	}
+
+	/**
+	 * Fügt ein Element in den Index ein. Ist das Element bereits enthalten,
+	 * passiert nichts.
+	 * 
+	 * @param element das neue Element.
+	 * @return {@code true}, wenn das Element eingefügt wurde.
+	 */
+	public boolean insert(final T element) {
+		if (entries.containsKey(element)) {
+			return false;
+		}
+
+		final double minX = extent.getMinX(element);
+		final double minY = extent.getMinY(element);
+		final double maxX = extent.getMaxX(element);
+		final double maxY = extent.getMaxY(element);
+		final int c0 = column(minX);
+		final int c1 = column(maxX);
+		final int r0 = row(minY);
+		final int r1 = row(maxY);
+
+		final Entry entry = new Entry(element, minX, minY, maxX, maxY, c0 != c1 || r0 != r1);
+		entries.put(element, entry);
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				final int cell = r * columns + c;
+				if (cellSizes[cell] == cells[cell].length) {
+					cells[cell] = Arrays.copyOf(cells[cell], Math.max(4, cellSizes[cell] << 1));
+				}
+				cells[cell][cellSizes[cell]++] = entry;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Entfernt ein Element aus dem Index.
+	 * 
+	 * @param element das zu entfernende Element.
+	 * @return {@code true}, wenn das Element enthalten war.
+	 */
+	public boolean remove(final T element) {
+		final Entry entry = entries.remove(element);
+		if (entry == null) {
+			return false;
+		}
+
+		final int c1 = column(entry.maxX);
+		final int r1 = row(entry.maxY);
+		for (int r = row(entry.minY); r <= r1; r++) {
+			for (int c = column(entry.minX); c <= c1; c++) {
+				final int cell = r * columns + c;
+				final Entry[] content = cells[cell];
+				final int last = --cellSizes[cell];
+				for (int i = 0; i <= last; i++) {
+					if (content[i] == entry) {
+						content[i] = content[last];
+						content[last] = null;
+						break;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Aktualisiert die Position eines Elements, nachdem sich seine Ausdehnung
+	 * geändert hat.
+	 * 
+	 * @param element das geänderte Element.
+	 */
+	public void update(final T element) {
+		remove(element);
+		insert(element);
+	}
+
+	/**
+	 * Entfernt alle Elemente aus dem Index.
+	 */
+	public void clear() {
+		entries.clear();
+		Arrays.fill(cells, EMPTY_CELL);
+		Arrays.fill(cellSizes, 0);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void search(final double minX, final double minY, final double maxX, final double maxY,
+			final Consumer<? super T> action) {
+		final int c0 = column(minX);
+		final int c1 = column(maxX);
+		final int r0 = row(minY);
+		final int r1 = row(maxY);
+
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				final int cell = r * columns + c;
+				final Entry[] content = cells[cell];
+				final int count = cellSizes[cell];
+				for (int i = 0; i < count; i++) {
+					final Entry e = content[i];
+					if (e.minX > maxX || e.maxX < minX || e.minY > maxY || e.maxY < minY) {
+						continue;
+					}
+					// Elemente über mehrere Zellen nur in der Zelle liefern, die die
+					// linke untere Ecke der Schnittmenge enthält
+					if (e.spansCells && (column(Math.max(minX, e.minX)) != c || row(Math.max(minY, e.minY)) != r)) {
+						continue;
+					}
+					action.accept((T) e.element);
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Die Suche durchläuft die Zellen ringförmig um den Punkt und bricht ab,
+	 * sobald kein noch nicht untersuchtes Element näher liegen kann als die
+	 * bereits gefundenen.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<T> nearest(final double x, final double y, final int k, final double maxDistance) {
+		if (k <= 0 || entries.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		final double maxDistanceSq = maxDistance * maxDistance;
+		final List<T> result = new ArrayList<>(Math.min(k, entries.size()));
+		final DistanceHeap heap = new DistanceHeap();
+		final int qc = column(x);
+		final int qr = row(y);
+		Set<Entry> seen = null;
+
+		for (int ring = 0;; ring++) {
+			final int c0 = qc - ring;
+			final int c1 = qc + ring;
+			final int r0 = qr - ring;
+			final int r1 = qr + ring;
+
+			for (int r = Math.max(r0, 0); r <= Math.min(r1, rows - 1); r++) {
+				final boolean edgeRow = r == r0 || r == r1;
+				for (int c = Math.max(c0, 0); c <= Math.min(c1, columns - 1); c++) {
+					if (!edgeRow && c != c0 && c != c1) {
+						// Das Innere des Rings wurde bereits untersucht
+						c = c1 - 1;
+						continue;
+					}
+					final int cell = r * columns + c;
+					final Entry[] content = cells[cell];
+					final int count = cellSizes[cell];
+					for (int i = 0; i < count; i++) {
+						final Entry e = content[i];
+						if (e.spansCells) {
+							if (seen == null) {
+								seen = Collections.newSetFromMap(new IdentityHashMap<>());
+							}
+							if (!seen.add(e)) {
+								continue;
+							}
+						}
+						final double d = extent.distanceSq((T) e.element, x, y);
+						if (d <= maxDistanceSq) {
+							heap.add(d, 0, e.element);
+						}
+					}
+				}
+			}
+
+			// Untere Schranke für den Abstand aller noch nicht untersuchten Zellen
+			double bound = Double.POSITIVE_INFINITY;
+			if (c0 > 0) {
+				bound = Math.min(bound, x - (originX + c0 * cellSize));
+			}
+			if (c1 < columns - 1) {
+				bound = Math.min(bound, originX + (c1 + 1) * cellSize - x);
+			}
+			if (r0 > 0) {
+				bound = Math.min(bound, y - (originY + r0 * cellSize));
+			}
+			if (r1 < rows - 1) {
+				bound = Math.min(bound, originY + (r1 + 1) * cellSize - y);
+			}
+			final double boundSq = bound * bound;
+			final boolean finished = bound == Double.POSITIVE_INFINITY || boundSq > maxDistanceSq;
+
+			while (!heap.isEmpty() && (finished || heap.peekKey() <= boundSq)) {
+				result.add((T) heap.peekObject());
+				heap.remove();
+				if (result.size() == k) {
+					return result;
+				}
+			}
+			if (finished) {
+				return result;
+			}
+		}
+	}
+
+	private int column(final double x) {
+		final double c = Math.floor((x - originX) / cellSize);
+		return c <= 0 ? 0 : c >= columns - 1 ? columns - 1 : (int) c;
+	}
+
+	private int row(final double y) {
+		final double r = Math.floor((y - originY) / cellSize);
+		return r <= 0 ? 0 : r >= rows - 1 ? rows - 1 : (int) r;
+	}
+
+}
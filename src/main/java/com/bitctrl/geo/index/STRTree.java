@@ -0,0 +1,399 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Statischer R-Baum, der einmalig mit dem Sort-Tile-Recursive-Verfahren (STR)
+ * aus einer festen Menge von Elementen gepackt wird. Der Baum eignet sich für
+ * Netze, die sich nach dem Laden nicht mehr ändern.
+ * <p>
+ * Die Rechtecke aller Ebenen werden in primitiven Feldern abgelegt, die Kinder
+ * eines Eintrags liegen jeweils zusammenhängend in der darunterliegenden Ebene.
+ * Der Baum ist nach der Erzeugung unveränderlich und kann von beliebig vielen
+ * Threads gleichzeitig abgefragt werden.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <T> der Typ der Elemente.
+ */
+public final class STRTree<T> implements SpatialIndex<T> {
+
+	/** Die Standardanzahl der Einträge je Baumknoten. */
+	public static final int DEFAULT_NODE_CAPACITY = 16;
+
+	/** Eine Ebene des Baumes. */
+	private static final class Level {
+
+		private final double[] minX;
+		private final double[] minY;
+		private final double[] maxX;
+		private final double[] maxY;
+		private final int[] start;
+		private final int[] end;
+
+		Level(final int size) {
+			minX = new double[size];
+			minY = new double[size];
+			maxX = new double[size];
+			maxY = new double[size];
+			start = new int[size];
+			end = new int[size];
+		}
+
+		int size() {
+			return start.length;
+		}
+
+	}
+
+	private final SpatialExtent<? super T> extent;
+	private final Object[] items;
+	private final double[] itemMinX;
+	private final double[] itemMinY;
+	private final double[] itemMaxX;
+	private final double[] itemMaxY;
+
+	/** Die Ebenen über den Elementen, die letzte Ebene enthält die Wurzel. */
+	private final Level[] levels;
+
+	/**
+	 * Erzeugt den Baum mit der Standardanzahl an Einträgen je Baumknoten.
+	 * 
+	 * @param elements die Elemente des Baumes.
+	 * @param extent   bestimmt die Ausdehnung der Elemente.
+	 */
+	public STRTree(final Collection<? extends T> elements, final SpatialExtent<? super T> extent) {
+		this(elements, extent, DEFAULT_NODE_CAPACITY);
+	}
+
+	/**
+	 * Erzeugt den Baum.
+	 * 
+	 * @param elements     die Elemente des Baumes.
+	 * @param extent       bestimmt die Ausdehnung der Elemente.
+	 * @param nodeCapacity die maximale Anzahl der Einträge je Baumknoten.
+	 */
+	public STRTree(final Collection<? extends T> elements, final SpatialExtent<? super T> extent,
+			final int nodeCapacity) {
+		if (nodeCapacity < 2) {
+			throw new IllegalArgumentException("Node capacity must be greater than 1.");
+		}
+		this.extent = extent;
+
+		final Object[] source = elements.toArray();
+		final int n = source.length;
+		final double[] minX = new double[n];
+		final double[] minY = new double[n];
+		final double[] maxX = new double[n];
+		final double[] maxY = new double[n];
+		for (int i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			final T element = (T) source[i];
+			minX[i] = extent.getMinX(element);
+			minY[i] = extent.getMinY(element);
+			maxX[i] = extent.getMaxX(element);
+			maxY[i] = extent.getMaxY(element);
+		}
+
+		// Elemente in STR-Reihenfolge bringen
+		final int[] groups = new int[n / nodeCapacity + (int) Math.sqrt(n) + 2];
+		int[] order = new int[n];
+		int groupCount = pack(minX, minY, maxX, maxY, n, nodeCapacity, order, groups);
+		items = new Object[n];
+		itemMinX = new double[n];
+		itemMinY = new double[n];
+		itemMaxX = new double[n];
+		itemMaxY = new double[n];
+		for (int i = 0; i < n; i++) {
+			final int j = order[i];
+			items[i] = source[j];
+			itemMinX[i] = minX[j];
+			itemMinY[i] = minY[j];
+			itemMaxX[i] = maxX[j];
+			itemMaxY[i] = maxY[j];
+		}
+
+		// Ebenen von unten nach oben aufbauen
+		final List<Level> result = new ArrayList<>();
+		Level level = n > 0 ? group(itemMinX, itemMinY, itemMaxX, itemMaxY, null, null, groups, groupCount, n) : null;
+		while (level != null) {
+			result.add(level);
+			if (level.size() == 1) {
+				break;
+			}
+
+			final int m = level.size();
+			order = new int[m];
+			groupCount = pack(level.minX, level.minY, level.maxX, level.maxY, m, nodeCapacity, order, groups);
+			final Level sorted = new Level(m);
+			for (int i = 0; i < m; i++) {
+				final int j = order[i];
+				sorted.minX[i] = level.minX[j];
+				sorted.minY[i] = level.minY[j];
+				sorted.maxX[i] = level.maxX[j];
+				sorted.maxY[i] = level.maxY[j];
+				sorted.start[i] = level.start[j];
+				sorted.end[i] = level.end[j];
+			}
+			result.set(result.size() - 1, sorted);
+			level = group(sorted.minX, sorted.minY, sorted.maxX, sorted.maxY, sorted.start, sorted.end, groups,
+					groupCount, m);
+		}
+		levels = result.toArray(new Level[result.size()]);
+	}
+
+	@Override
+	public int size() {
+		return items.length;
+	}
+
+	@Override
+	public void search(final double minX, final double minY, final double maxX, final double maxY,
+			final Consumer<? super T> action) {
+		if (levels.length == 0) {
+			return;
+		}
+
+		final int top = levels.length - 1;
+		final Level root = levels[top];
+		if (intersects(root.minX[0], root.minY[0], root.maxX[0], root.maxY[0], minX, minY, maxX, maxY)) {
+			search(top, 0, minX, minY, maxX, maxY, action);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void search(final int levelIndex, final int entry, final double minX, final double minY,
+			final double maxX, final double maxY, final Consumer<? super T> action) {
+		final Level level = levels[levelIndex];
+		final int end = level.end[entry];
+
+		if (levelIndex == 0) {
+			for (int i = level.start[entry]; i < end; i++) {
+				if (intersects(itemMinX[i], itemMinY[i], itemMaxX[i], itemMaxY[i], minX, minY, maxX, maxY)) {
+					action.accept((T) items[i]);
+				}
+			}
+		} else {
+			final Level child = levels[levelIndex - 1];
+			for (int i = level.start[entry]; i < end; i++) {
+				if (intersects(child.minX[i], child.minY[i], child.maxX[i], child.maxY[i], minX, minY, maxX,
+						maxY)) {
+					search(levelIndex - 1, i, minX, minY, maxX, maxY, action);
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Die Suche arbeitet nach dem Best-First-Verfahren. Es werden nur die
+	 * Teilbäume untersucht, deren umschließendes Rechteck näher am Punkt liegt
+	 * als das {@code k}-nächste bisher gefundene Element.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<T> nearest(final double x, final double y, final int k, final double maxDistance) {
+		if (k <= 0 || levels.length == 0) {
+			return Collections.emptyList();
+		}
+
+		final double maxDistanceSq = maxDistance * maxDistance;
+		final List<T> result = new ArrayList<>(Math.min(k, items.length));
+		final DistanceHeap heap = new DistanceHeap();
+
+		// Die Referenz kodiert Ebene + 1 und Index, Ebene 0 sind die Elemente
+		final int top = levels.length - 1;
+		final Level root = levels[top];
+		heap.add(SpatialExtent.distanceSq(root.minX[0], root.minY[0], root.maxX[0], root.maxY[0], x, y),
+				(long) (top + 1) << 32, null);
+
+		while (!heap.isEmpty() && result.size() < k) {
+			final double distanceSq = heap.peekKey();
+			final long ref = heap.peekRef();
+			heap.remove();
+			if (distanceSq > maxDistanceSq) {
+				break;
+			}
+
+			final int layer = (int) (ref >>> 32);
+			final int entry = (int) ref;
+			if (layer == 0) {
+				result.add((T) items[entry]);
+				continue;
+			}
+
+			final Level level = levels[layer - 1];
+			final int end = level.end[entry];
+			if (layer == 1) {
+				for (int i = level.start[entry]; i < end; i++) {
+					final double d = extent.distanceSq((T) items[i], x, y);
+					if (d <= maxDistanceSq) {
+						heap.add(d, i, null);
+					}
+				}
+			} else {
+				final Level child = levels[layer - 2];
+				for (int i = level.start[entry]; i < end; i++) {
+					final double d = SpatialExtent.distanceSq(child.minX[i], child.minY[i], child.maxX[i],
+							child.maxY[i], x, y);
+					if (d <= maxDistanceSq) {
+						heap.add(d, (long) (layer - 1) << 32 | i, null);
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static boolean intersects(final double aMinX, final double aMinY, final double aMaxX,
+			final double aMaxY, final double bMinX, final double bMinY, final double bMaxX, final double bMaxY) {
+		return aMinX <= bMaxX && aMaxX >= bMinX && aMinY <= bMaxY && aMaxY >= bMinY;
+	}
+
+	/**
+	 * Bestimmt die STR-Reihenfolge von Rechtecken. Die Rechtecke werden nach der
+	 * x-Koordinate ihres Mittelpunkts in senkrechte Streifen und innerhalb der
+	 * Streifen nach der y-Koordinate in Gruppen zu je {@code capacity} Einträgen
+	 * aufgeteilt.
+	 * 
+	 * @return die Anzahl der Gruppen, deren Anfangsindizes in {@code groups}
+	 *         stehen.
+	 */
+	private static int pack(final double[] minX, final double[] minY, final double[] maxX, final double[] maxY,
+			final int n, final int capacity, final int[] order, final int[] groups) {
+		final double[] centerX = new double[n];
+		final double[] centerY = new double[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+			centerX[i] = (minX[i] + maxX[i]) / 2;
+			centerY[i] = (minY[i] + maxY[i]) / 2;
+		}
+
+		final int nodeCount = (n + capacity - 1) / capacity;
+		final int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+		final int sliceSize = sliceCount * capacity;
+
+		sort(order, 0, n, centerX);
+		int groupCount = 0;
+		for (int slice = 0; slice < n; slice += sliceSize) {
+			final int sliceEnd = Math.min(slice + sliceSize, n);
+			sort(order, slice, sliceEnd, centerY);
+			for (int i = slice; i < sliceEnd; i += capacity) {
+				groups[groupCount++] = i;
+			}
+		}
+		return groupCount;
+	}
+
+	/**
+	 * Fasst die Gruppen einer Ebene zu den Einträgen der nächsthöheren Ebene
+	 * zusammen.
+	 */
+	private static Level group(final double[] minX, final double[] minY, final double[] maxX,
+			final double[] maxY, final int[] start, final int[] end, final int[] groups, final int groupCount,
+			final int n) {
+		final Level level = new Level(groupCount);
+		for (int g = 0; g < groupCount; g++) {
+			final int from = groups[g];
+			final int to = g + 1 < groupCount ? groups[g + 1] : n;
+			double gMinX = Double.POSITIVE_INFINITY;
+			double gMinY = Double.POSITIVE_INFINITY;
+			double gMaxX = Double.NEGATIVE_INFINITY;
+			double gMaxY = Double.NEGATIVE_INFINITY;
+			for (int i = from; i < to; i++) {
+				gMinX = Math.min(gMinX, minX[i]);
+				gMinY = Math.min(gMinY, minY[i]);
+				gMaxX = Math.max(gMaxX, maxX[i]);
+				gMaxY = Math.max(gMaxY, maxY[i]);
+			}
+			level.minX[g] = gMinX;
+			level.minY[g] = gMinY;
+			level.maxX[g] = gMaxX;
+			level.maxY[g] = gMaxY;
+			level.start[g] = from;
+			level.end[g] = to;
+		}
+		return level;
+	}
+
+	/** Sortiert einen Abschnitt von Indizes nach einem Schlüssel. */
+	private static void sort(final int[] order, final int from, final int to, final double[] key) {
+		int lo = from;
+		int hi = to - 1;
+		while (hi - lo > 16) {
+			final double a = key[order[lo]];
+			final double b = key[order[lo + hi >>> 1]];
+			final double c = key[order[hi]];
+			final double pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (key[order[i]] < pivot) {
+					i++;
+				}
+				while (key[order[j]] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					final int tmp = order[i];
+					order[i++] = order[j];
+					order[j--] = tmp;
+				}
+			}
+
+			// Den kleineren Teil rekursiv, den größeren iterativ sortieren
+			if (j - lo < hi - i) {
+				sort(order, lo, j + 1, key);
+				lo = i;
+			} else {
+				sort(order, i, hi + 1, key);
+				hi = j;
+			}
+		}
+
+		for (int i = lo + 1; i <= hi; i++) {
+			final int value = order[i];
+			final double k = key[value];
+			int j = i - 1;
+			while (j >= lo && key[order[j]] > k) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = value;
+		}
+	}
+
+}
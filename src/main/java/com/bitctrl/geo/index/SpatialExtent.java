@@ -0,0 +1,206 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.index;
+
+import java.util.function.ToDoubleFunction;
+
+import com.bitctrl.geo.graph.Edge;
+import com.bitctrl.geo.graph.Node;
+
+/**
+ * Bestimmt die räumliche Ausdehnung der Elemente eines {@link SpatialIndex}.
+ * Die Ausdehnung wird durch das achsenparallele umschließende Rechteck
+ * beschrieben.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <T> der Typ der Elemente.
+ */
+public interface SpatialExtent<T> {
+
+	/**
+	 * Gibt die kleinste x-Koordinate des Elements zurück.
+	 * 
+	 * @param element ein Element.
+	 * @return die minimale x-Koordinate.
+	 */
+	double getMinX(T element);
+
+	/**
+	 * Gibt die kleinste y-Koordinate des Elements zurück.
+	 * 
+	 * @param element ein Element.
+	 * @return die minimale y-Koordinate.
+	 */
+	double getMinY(T element);
+
+	/**
+	 * Gibt die größte x-Koordinate des Elements zurück.
+	 * 
+	 * @param element ein Element.
+	 * @return die maximale x-Koordinate.
+	 */
+	double getMaxX(T element);
+
+	/**
+	 * Gibt die größte y-Koordinate des Elements zurück.
+	 * 
+	 * @param element ein Element.
+	 * @return die maximale y-Koordinate.
+	 */
+	double getMaxY(T element);
+
+	/**
+	 * Bestimmt das Quadrat des Abstands eines Punktes zum Element. Die
+	 * Standardimplementierung liefert den Abstand zum umschließenden Rechteck.
+	 * Implementierungen dürfen einen genaueren Abstand liefern, er darf aber nie
+	 * kleiner als der Abstand zum umschließenden Rechteck sein.
+	 * 
+	 * @param element ein Element.
+	 * @param x       die x-Koordinate des Punktes.
+	 * @param y       die y-Koordinate des Punktes.
+	 * @return das Quadrat des Abstands.
+	 */
+	default double distanceSq(final T element, final double x, final double y) {
+		return distanceSq(getMinX(element), getMinY(element), getMaxX(element), getMaxY(element), x, y);
+	}
+
+	/**
+	 * Bestimmt das Quadrat des Abstands eines Punktes zu einem Rechteck.
+	 * 
+	 * @param minX die minimale x-Koordinate des Rechtecks.
+	 * @param minY die minimale y-Koordinate des Rechtecks.
+	 * @param maxX die maximale x-Koordinate des Rechtecks.
+	 * @param maxY die maximale y-Koordinate des Rechtecks.
+	 * @param x    die x-Koordinate des Punktes.
+	 * @param y    die y-Koordinate des Punktes.
+	 * @return das Quadrat des Abstands, 0 wenn der Punkt im Rechteck liegt.
+	 */
+	static double distanceSq(final double minX, final double minY, final double maxX, final double maxY,
+			final double x, final double y) {
+		final double dx = x < minX ? minX - x : x > maxX ? x - maxX : 0;
+		final double dy = y < minY ? minY - y : y > maxY ? y - maxY : 0;
+		return dx * dx + dy * dy;
+	}
+
+	/**
+	 * Erzeugt die Ausdehnung für punktförmige Elemente, z.&nbsp;B. Knoten.
+	 * 
+	 * @param <T> der Typ der Elemente.
+	 * @param x   bestimmt die x-Koordinate eines Elements.
+	 * @param y   bestimmt die y-Koordinate eines Elements.
+	 * @return die Ausdehnung.
+	 */
+	static <T> SpatialExtent<T> point(final ToDoubleFunction<? super T> x, final ToDoubleFunction<? super T> y) {
+		return new SpatialExtent<>() {
+
+			@Override
+			public double getMinX(final T element) {
+				return x.applyAsDouble(element);
+			}
+
+			@Override
+			public double getMinY(final T element) {
+				return y.applyAsDouble(element);
+			}
+
+			@Override
+			public double getMaxX(final T element) {
+				return x.applyAsDouble(element);
+			}
+
+			@Override
+			public double getMaxY(final T element) {
+				return y.applyAsDouble(element);
+			}
+
+			@Override
+			public double distanceSq(final T element, final double px, final double py) {
+				final double dx = x.applyAsDouble(element) - px;
+				final double dy = y.applyAsDouble(element) - py;
+				return dx * dx + dy * dy;
+			}
+
+		};
+	}
+
+	/**
+	 * Erzeugt die Ausdehnung für Kanten, die als Strecke zwischen Start- und
+	 * Endknoten aufgefasst werden. Der Abstand wird zur Strecke und nicht nur zum
+	 * umschließenden Rechteck bestimmt.
+	 * 
+	 * @param <E> der Typ der Kanten.
+	 * @param x   bestimmt die x-Koordinate eines Knoten.
+	 * @param y   bestimmt die y-Koordinate eines Knoten.
+	 * @return die Ausdehnung.
+	 */
+	static <E extends Edge> SpatialExtent<E> segment(final ToDoubleFunction<? super Node> x,
+			final ToDoubleFunction<? super Node> y) {
+		return new SpatialExtent<>() {
+
+			@Override
+			public double getMinX(final E edge) {
+				return Math.min(x.applyAsDouble(edge.getSource()), x.applyAsDouble(edge.getTarget()));
+			}
+
+			@Override
+			public double getMinY(final E edge) {
+				return Math.min(y.applyAsDouble(edge.getSource()), y.applyAsDouble(edge.getTarget()));
+			}
+
+			@Override
+			public double getMaxX(final E edge) {
+				return Math.max(x.applyAsDouble(edge.getSource()), x.applyAsDouble(edge.getTarget()));
+			}
+
+			@Override
+			public double getMaxY(final E edge) {
+				return Math.max(y.applyAsDouble(edge.getSource()), y.applyAsDouble(edge.getTarget()));
+			}
+
+			@Override
+			public double distanceSq(final E edge, final double px, final double py) {
+				final double x1 = x.applyAsDouble(edge.getSource());
+				final double y1 = y.applyAsDouble(edge.getSource());
+				final double dx = x.applyAsDouble(edge.getTarget()) - x1;
+				final double dy = y.applyAsDouble(edge.getTarget()) - y1;
+				final double lengthSq = dx * dx + dy * dy;
+
+				double t = 0;
+				if (lengthSq > 0) {
+					t = ((px - x1) * dx + (py - y1) * dy) / lengthSq;
+					t = Math.max(0, Math.min(1, t));
+				}
+				final double ex = x1 + t * dx - px;
+				final double ey = y1 + t * dy - py;
+				return ex * ex + ey * ey;
+			}
+
+		};
+	}
+
+}
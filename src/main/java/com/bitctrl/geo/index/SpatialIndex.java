@@ -0,0 +1,115 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.geo.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Räumlicher Index über Elemente mit einer Ausdehnung in der Ebene, z.&nbsp;B.
+ * die Knoten und Kanten eines Graphen.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <T> der Typ der Elemente.
+ */
+public interface SpatialIndex<T> {
+
+	/**
+	 * Gibt die Anzahl der Elemente im Index zurück.
+	 * 
+	 * @return die Elementanzahl.
+	 */
+	int size();
+
+	/**
+	 * Führt eine Aktion für alle Elemente aus, deren umschließendes Rechteck das
+	 * angegebene Rechteck schneidet. Jedes Element wird genau einmal geliefert.
+	 * 
+	 * @param minX   die minimale x-Koordinate des Suchbereichs.
+	 * @param minY   die minimale y-Koordinate des Suchbereichs.
+	 * @param maxX   die maximale x-Koordinate des Suchbereichs.
+	 * @param maxY   die maximale y-Koordinate des Suchbereichs.
+	 * @param action die Aktion, die für jedes gefundene Element ausgeführt wird.
+	 */
+	void search(double minX, double minY, double maxX, double maxY, Consumer<? super T> action);
+
+	/**
+	 * Gibt alle Elemente zurück, deren umschließendes Rechteck das angegebene
+	 * Rechteck schneidet.
+	 * 
+	 * @param minX die minimale x-Koordinate des Suchbereichs.
+	 * @param minY die minimale y-Koordinate des Suchbereichs.
+	 * @param maxX die maximale x-Koordinate des Suchbereichs.
+	 * @param maxY die maximale y-Koordinate des Suchbereichs.
+	 * @return die gefundenen Elemente in keiner bestimmten Reihenfolge.
+	 */
+	default List<T> search(final double minX, final double minY, final double maxX, final double maxY) {
+		final List<T> result = new ArrayList<>();
+		search(minX, minY, maxX, maxY, result::add);
+		return result;
+	}
+
+	/**
+	 * Bestimmt die {@code k} nächsten Elemente zu einem Punkt, die höchstens
+	 * einen bestimmten Abstand haben. Der Abstand wird mit
+	 * {@link SpatialExtent#distanceSq(Object, double, double)} bestimmt.
+	 * 
+	 * @param x           die x-Koordinate des Punktes.
+	 * @param y           die y-Koordinate des Punktes.
+	 * @param k           die maximale Anzahl der gesuchten Elemente.
+	 * @param maxDistance der maximale Abstand der gesuchten Elemente.
+	 * @return die gefundenen Elemente, aufsteigend nach ihrem Abstand sortiert.
+	 */
+	List<T> nearest(double x, double y, int k, double maxDistance);
+
+	/**
+	 * Bestimmt die {@code k} nächsten Elemente zu einem Punkt.
+	 * 
+	 * @param x die x-Koordinate des Punktes.
+	 * @param y die y-Koordinate des Punktes.
+	 * @param k die maximale Anzahl der gesuchten Elemente.
+	 * @return die gefundenen Elemente, aufsteigend nach ihrem Abstand sortiert.
+	 */
+	default List<T> nearest(final double x, final double y, final int k) {
+		return nearest(x, y, k, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Bestimmt das nächste Element zu einem Punkt.
+	 * 
+	 * @param x die x-Koordinate des Punktes.
+	 * @param y die y-Koordinate des Punktes.
+	 * @return das nächste Element oder {@code null}, wenn der Index leer ist.
+	 */
+	default T nearest(final double x, final double y) {
+		final List<T> result = nearest(x, y, 1, Double.POSITIVE_INFINITY);
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+/**
+ * Räumliche Indizes für Knoten und Kanten von Graphen und andere Elemente mit
+ * einer Ausdehnung in der Ebene.
+ * <p>
+ * Die Indizes arbeiten mit ebenen, kartesischen Koordinaten. Geographische
+ * Koordinaten sollten vorher in ein metrisches Koordinatensystem (z.&nbsp;B.
+ * UTM) projiziert werden, damit Abstände und Umgebungsanfragen sinnvolle
+ * Ergebnisse liefern.
+ */
+package com.bitctrl.geo.index;
@@ -1,9 +1,15 @@
 package com.bitctrl.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
@@ -102,22 +108,162 @@ public final class GraphAlgorithm {
 	 *         oder <code>null</code>, wenn es keinen Pfad gibt.
 	 */
 	public static List<Bogen> getPfadVonWurzel(final Knoten zielKnoten) {
-		if (zielKnoten.getStuetzBogen() != null) {
-			return getPfadVonWurzel(zielKnoten, new ArrayList<>());
+		final int laenge = getPfadLaenge(zielKnoten);
+		if (laenge < 0) {
+			return null;
 		}
 
-		return null;
+		final Bogen[] pfad = new Bogen[laenge];
+		fuellePfad(zielKnoten, pfad, laenge);
+		return new ArrayList<>(Arrays.asList(pfad));
 	}
 
-	private static List<Bogen> getPfadVonWurzel(final Knoten zielKnoten, final ArrayList<Bogen> pfad) {
-		final Bogen stuetzBogen = zielKnoten.getStuetzBogen();
+	/**
+	 * Bestimmt den Pfad von der Wurzel zu einem bestimmten Knoten und schreibt ihn
+	 * in einen vom Aufrufer bereitgestellten Puffer. Der erste Bogen des Pfads
+	 * steht im Puffer an Index 0, der letzte an Index <code>laenge - 1</code>.
+	 * 
+	 * <p>
+	 * Setzt voraus, das z.&nbsp;B. mit der Breitensuche ein entsprechendes Gerüst
+	 * erzeugt wurde. Der Puffer kann für mehrere Aufrufe wiederverwendet werden;
+	 * die erforderliche Größe liefert {@link #getPfadLaenge(Knoten)}.
+	 * 
+	 * @param zielKnoten der Zielknoten
+	 * @param puffer     der Puffer, in den der Pfad geschrieben wird.
+	 * @return die Anzahl der Bögen im Pfad, 0 wenn der Zielknoten der
+	 *         Wurzelknoten ist oder -1, wenn es keinen Pfad gibt.
+	 * @throws IllegalArgumentException wenn der Puffer für den Pfad zu klein ist.
+	 */
+	public static int getPfadVonWurzel(final Knoten zielKnoten, final Bogen[] puffer) {
+		final int laenge = getPfadLaenge(zielKnoten);
+		if (laenge < 0) {
+			return -1;
+		}
+		if (laenge > puffer.length) {
+			throw new IllegalArgumentException(
+					"Der Puffer ist zu klein für den Pfad: " + puffer.length + " < " + laenge);
+		}
+
+		fuellePfad(zielKnoten, puffer, laenge);
+		return laenge;
+	}
+
+	/**
+	 * Bestimmt die Pfade von der Wurzel zu mehreren Zielknoten. Für jeden beim
+	 * Rückwärtslaufen besuchten Knoten wird vermerkt, wo sein Pfad von der Wurzel
+	 * als Anfangsstück eines bereits bestimmten Pfads liegt. Gemeinsame
+	 * Anfangsstücke werden so nur einmal im Gerüst verfolgt und für weitere
+	 * Zielknoten blockweise übernommen, auch wenn sie an einem Zwischenknoten
+	 * abzweigen.
+	 * 
+	 * <p>
+	 * Setzt voraus, das z.&nbsp;B. mit der Breitensuche ein entsprechendes Gerüst
+	 * erzeugt wurde.
+	 * 
+	 * @param zielKnoten die Zielknoten.
+	 * @return die Pfade je Zielknoten. Ein Pfad ist leer, wenn der Zielknoten der
+	 *         Wurzelknoten ist oder <code>null</code>, wenn es keinen Pfad gibt.
+	 *         Die Pfade selbst sind nicht veränderbar.
+	 */
+	public static Map<Knoten, List<Bogen>> getPfadeVonWurzel(final Collection<? extends Knoten> zielKnoten) {
+		final Map<Knoten, Praefix> bekanntePraefixe = new HashMap<>();
+		final Map<Knoten, List<Bogen>> result = new LinkedHashMap<>();
+
+		for (final Knoten ziel : zielKnoten) {
+			if (result.containsKey(ziel)) {
+				continue;
+			}
+
+			// Aufwärts laufen, bis die Wurzel oder ein bereits bekannter Knoten erreicht
+			// ist
+			int suffix = 0;
+			Praefix praefix = null;
+			Knoten knoten = ziel;
+			Bogen stuetzBogen = knoten.getStuetzBogen();
+			while (stuetzBogen != null && stuetzBogen != Knoten.WURZEL_BOGEN) {
+				praefix = bekanntePraefixe.get(knoten);
+				if (praefix != null) {
+					break;
+				}
+				suffix++;
+				knoten = stuetzBogen.getAnfangsKnoten();
+				stuetzBogen = knoten.getStuetzBogen();
+			}
+
+			if (stuetzBogen == null) {
+				result.put(ziel, null);
+				continue;
+			}
+
+			final int praefixLaenge = praefix != null ? praefix.laenge : 0;
+			final Bogen[] pfad = new Bogen[praefixLaenge + suffix];
+			if (praefix != null) {
+				System.arraycopy(praefix.pfad, 0, pfad, 0, praefixLaenge);
+			}
+			knoten = ziel;
+			for (int i = pfad.length - 1; i >= praefixLaenge; i--) {
+				stuetzBogen = knoten.getStuetzBogen();
+				pfad[i] = stuetzBogen;
+				knoten = stuetzBogen.getAnfangsKnoten();
+			}
+
+			// Der Pfad jedes neu besuchten Knotens ist ein Anfangsstück dieses Pfads
+			bekanntePraefixe.put(ziel, new Praefix(pfad, pfad.length));
+			for (int i = praefixLaenge; i < pfad.length; i++) {
+				bekanntePraefixe.putIfAbsent(pfad[i].getAnfangsKnoten(), new Praefix(pfad, i));
+			}
+			result.put(ziel, Collections.unmodifiableList(Arrays.asList(pfad)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Verweist auf das Anfangsstück eines bereits bestimmten Pfads, das den Pfad
+	 * von der Wurzel zu einem Knoten bildet.
+	 */
+	private static final class Praefix {
 
-		if (stuetzBogen == Knoten.WURZEL_BOGEN) {
-			return pfad;
+		private final Bogen[] pfad;
+		private final int laenge;
+
+		Praefix(final Bogen[] pfad, final int laenge) {
+			this.pfad = pfad;
+			this.laenge = laenge;
 		}
 
-		pfad.add(0, stuetzBogen);
-		return getPfadVonWurzel(stuetzBogen.getAnfangsKnoten(), pfad);
+	}
+
+	/**
+	 * Bestimmt die Anzahl der Bögen auf dem Pfad von der Wurzel zu einem
+	 * bestimmten Knoten.
+	 * 
+	 * <p>
+	 * Setzt voraus, das z.&nbsp;B. mit der Breitensuche ein entsprechendes Gerüst
+	 * erzeugt wurde.
+	 * 
+	 * @param zielKnoten der Zielknoten
+	 * @return die Anzahl der Bögen im Pfad, 0 wenn der Zielknoten der
+	 *         Wurzelknoten ist oder -1, wenn es keinen Pfad gibt.
+	 */
+	public static int getPfadLaenge(final Knoten zielKnoten) {
+		int laenge = 0;
+		Bogen stuetzBogen = zielKnoten.getStuetzBogen();
+		while (stuetzBogen != null && stuetzBogen != Knoten.WURZEL_BOGEN) {
+			laenge++;
+			stuetzBogen = stuetzBogen.getAnfangsKnoten().getStuetzBogen();
+		}
+
+		return stuetzBogen == null ? -1 : laenge;
+	}
+
+	private static void fuellePfad(final Knoten zielKnoten, final Bogen[] pfad, final int laenge) {
+		Knoten knoten = zielKnoten;
+		for (int i = laenge - 1; i >= 0; i--) {
+			final Bogen stuetzBogen = knoten.getStuetzBogen();
+			pfad[i] = stuetzBogen;
+			knoten = stuetzBogen.getAnfangsKnoten();
+		}
 	}
 
 	/**
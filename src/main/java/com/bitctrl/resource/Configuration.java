@@ -31,10 +31,24 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import javax.swing.event.EventListenerList;
+
 import com.bitctrl.util.TreeProperties;
 
 /**
@@ -114,6 +128,7 @@ public final class Configuration implements ReadOnlyConfiguration {
 					singleton.log.fine(txt);
 					System.err.println(txt);
 				}
+				singleton.publishSnapshot();
 			} catch (final Exception ex) {
 				final String txt;
 
@@ -148,8 +163,10 @@ public final class Configuration implements ReadOnlyConfiguration {
 			}
 			if (param.length == 2) {
 				singleton.configuration.setProperty(param[0], param[1]);
+				singleton.argumentOverrides.put(param[0], param[1]);
 			}
 		}
+		singleton.publishSnapshot();
 
 		return singleton;
 	}
@@ -167,22 +184,219 @@ public final class Configuration implements ReadOnlyConfiguration {
 
 		try {
 			singleton.configuration.load(url.openStream());
+			singleton.urlOverrides.add(url);
 		} catch (final FileNotFoundException ex) {
 			throw new IllegalArgumentException("Das Konfigurationsfile " + url + " existiert nicht.", ex);
 		} catch (final IOException ex) {
 			throw new IllegalArgumentException("Fehler beim Lesen aus dem Konfigurationsfile " + url + " .", ex);
 		}
+		singleton.publishSnapshot();
 
 		return singleton;
 	}
 
+	/** Wartezeit nach einer Dateiänderung, bevor neu geladen wird. */
+	private static final long RELOAD_DELAY_MILLIS = 200;
+
 	private final Logger log = Logger.getLogger(getClass().getName());
 	private TreeProperties configuration;
+	private volatile ConfigurationSnapshot snapshot;
+
+	private final List<URL> urlOverrides = new ArrayList<>();
+	private final Map<String, String> argumentOverrides = new LinkedHashMap<>();
+	private final EventListenerList listeners = new EventListenerList();
+	private final Object reloadLock = new Object();
+	private WatchService watchService;
 
 	private Configuration() {
 		// Konstruktor verstecken
 	}
 
+	/**
+	 * Gibt den aktuellen, unveränderlichen Stand der Konfiguration zurück. Der
+	 * Zugriff ist ohne Sperren möglich und unabhängig vom Gruppen- und
+	 * Feldzustand dieser Konfiguration. Bei jedem Neuladen wird ein neuer Stand
+	 * veröffentlicht, ein einmal abgefragter Stand ändert sich nicht mehr.
+	 * 
+	 * @return der aktuelle Konfigurationsstand.
+	 */
+	public ConfigurationSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	private void publishSnapshot() {
+		snapshot = configuration.snapshot();
+	}
+
+	/**
+	 * Registriert einen Listener, der nach dem Neuladen über geänderte Schlüssel
+	 * informiert wird.
+	 * 
+	 * @param l der Listener.
+	 */
+	public void addConfigurationChangeListener(final ConfigurationChangeListener l) {
+		listeners.add(ConfigurationChangeListener.class, l);
+	}
+
+	/**
+	 * Meldet einen Listener wieder ab.
+	 * 
+	 * @param l der Listener.
+	 */
+	public void removeConfigurationChangeListener(final ConfigurationChangeListener l) {
+		listeners.remove(ConfigurationChangeListener.class, l);
+	}
+
+	/**
+	 * Lädt das externe Konfigurationsfile {@link #CONFIG_FILE} neu. Die Datei wird
+	 * vollständig in neue Properties gelesen, bevor die Konfiguration ersetzt
+	 * wird. Zuvor über {@link #getConfiguration(URL)} und
+	 * {@link #getConfiguration(String[])} angegebene Ergänzungen werden danach
+	 * erneut angewendet, Kommandozeilenargumente zuletzt.
+	 * <p>
+	 * Der neue Stand wird atomar als {@link #getSnapshot()} veröffentlicht. Leser
+	 * des Konfigurationsstands werden dabei nicht blockiert. Gab es Änderungen,
+	 * werden die registrierten {@link ConfigurationChangeListener} informiert.
+	 * <p>
+	 * Die Properties der klassischen Zugriffsmethoden werden nicht geleert,
+	 * sondern schlüsselweise angeglichen: neue und geänderte Werte werden gesetzt,
+	 * danach entfallene Schlüssel entfernt. Leser sehen so für jeden Schlüssel
+	 * entweder den alten oder den neuen Wert, unveränderte Schlüssel fehlen nie.
+	 * Der Gruppen- und Feldzustand bleibt erhalten.
+	 * 
+	 * @throws IOException wenn die Konfiguration nicht gelesen werden konnte. Die
+	 *                     bisherige Konfiguration bleibt dann unverändert.
+	 */
+	public void reload() throws IOException {
+		final ConfigurationChangeEvent event;
+
+		synchronized (reloadLock) {
+			final TreeProperties fresh = new TreeProperties();
+			final Path file = Path.of(CONFIG_FILE);
+			if (Files.isRegularFile(file)) {
+				try (InputStream in = Files.newInputStream(file)) {
+					fresh.load(in);
+				}
+			}
+
+			final List<URL> urls;
+			final Map<String, String> arguments;
+			synchronized (Configuration.class) {
+				urls = new ArrayList<>(urlOverrides);
+				arguments = new LinkedHashMap<>(argumentOverrides);
+			}
+			for (final URL url : urls) {
+				try (InputStream in = url.openStream()) {
+					fresh.load(in);
+				}
+			}
+			for (final Map.Entry<String, String> e : arguments.entrySet()) {
+				fresh.setProperty(e.getKey(), e.getValue());
+			}
+
+			synchronized (configuration) {
+				for (final Map.Entry<Object, Object> e : fresh.entrySet()) {
+					if (!e.getValue().equals(configuration.get(e.getKey()))) {
+						configuration.put(e.getKey(), e.getValue());
+					}
+				}
+				for (final Object key : new ArrayList<>(configuration.keySet())) {
+					if (!fresh.containsKey(key)) {
+						configuration.remove(key, configuration.get(key));
+					}
+				}
+			}
+
+			final ConfigurationSnapshot oldSnapshot = snapshot;
+			publishSnapshot();
+			event = new ConfigurationChangeEvent(this, oldSnapshot, snapshot);
+		}
+
+		if (event.hasChanges()) {
+			final Set<String> changedKeys = event.getChangedKeys();
+			log.info("Konfiguration neu geladen, " + changedKeys.size() + " Schlüssel geändert.");
+			log.fine(() -> "Geänderte Schlüssel: " + changedKeys);
+			for (final ConfigurationChangeListener l : listeners.getListeners(ConfigurationChangeListener.class)) {
+				l.configurationChanged(event);
+			}
+		}
+	}
+
+	/**
+	 * Überwacht das externe Konfigurationsfile {@link #CONFIG_FILE} und lädt es
+	 * bei jeder Änderung mit {@link #reload()} neu. Die Überwachung läuft in einem
+	 * eigenen Daemon-Thread. Ist die Überwachung bereits aktiv, passiert nichts.
+	 * 
+	 * @throws IOException wenn das Verzeichnis der Datei nicht überwacht werden
+	 *                     kann.
+	 */
+	public synchronized void startWatching() throws IOException {
+		if (watchService != null) {
+			return;
+		}
+
+		final Path file = Path.of(CONFIG_FILE).toAbsolutePath();
+		final WatchService watcher = file.getFileSystem().newWatchService();
+		try {
+			file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (final IOException | RuntimeException ex) {
+			watcher.close();
+			throw ex;
+		}
+		watchService = watcher;
+
+		final Thread thread = new Thread(() -> watch(watcher, file.getFileName()), "Configuration-Watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Beendet die Überwachung des externen Konfigurationsfiles.
+	 */
+	public synchronized void stopWatching() {
+		if (watchService == null) {
+			return;
+		}
+
+		try {
+			watchService.close();
+		} catch (final IOException ex) {
+			log.warning("Die Überwachung der Konfiguration konnte nicht beendet werden: " + ex);
+		}
+		watchService = null;
+	}
+
+	private void watch(final WatchService watcher, final Path fileName) {
+		try {
+			while (true) {
+				WatchKey key = watcher.take();
+				boolean changed = false;
+				do {
+					for (final WatchEvent<?> event : key.pollEvents()) {
+						changed |= fileName.equals(event.context());
+					}
+					key.reset();
+
+					// Weitere Ereignisse abwarten, falls die Datei noch geschrieben wird
+					key = watcher.poll(RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+				} while (key != null);
+
+				if (changed) {
+					try {
+						reload();
+					} catch (final IOException | RuntimeException ex) {
+						log.warning("Die Konfiguration konnte nicht neu geladen werden: " + ex);
+					}
+				}
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (final ClosedWatchServiceException ex) {
+			// Überwachung wurde beendet
+		}
+	}
+
 	@Override
 	public void beginGroup(final String name) {
 		configuration.beginGroup(name);
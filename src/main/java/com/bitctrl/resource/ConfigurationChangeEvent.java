@@ -0,0 +1,152 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.resource;
+
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Das Event beschreibt die Unterschiede zwischen zwei Ständen einer
+ * Konfiguration.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public class ConfigurationChangeEvent extends EventObject {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient ConfigurationSnapshot oldSnapshot;
+	private final transient ConfigurationSnapshot newSnapshot;
+	private final Set<String> added;
+	private final Set<String> removed;
+	private final Set<String> modified;
+
+	/**
+	 * Initialisierung. Die Unterschiede der beiden Stände werden dabei bestimmt.
+	 * 
+	 * @param source      die Quelle des Events.
+	 * @param oldSnapshot der bisherige Stand.
+	 * @param newSnapshot der neue Stand.
+	 */
+	public ConfigurationChangeEvent(final Object source, final ConfigurationSnapshot oldSnapshot,
+			final ConfigurationSnapshot newSnapshot) {
+		super(source);
+		this.oldSnapshot = oldSnapshot;
+		this.newSnapshot = newSnapshot;
+
+		final Set<String> a = new HashSet<>();
+		final Set<String> m = new HashSet<>();
+		for (final String key : newSnapshot.keySet()) {
+			final String oldValue = oldSnapshot.get(key);
+			if (oldValue == null) {
+				a.add(key);
+			} else if (!Objects.equals(oldValue, newSnapshot.get(key))) {
+				m.add(key);
+			}
+		}
+		final Set<String> r = new HashSet<>();
+		for (final String key : oldSnapshot.keySet()) {
+			if (newSnapshot.get(key) == null) {
+				r.add(key);
+			}
+		}
+
+		added = Collections.unmodifiableSet(a);
+		removed = Collections.unmodifiableSet(r);
+		modified = Collections.unmodifiableSet(m);
+	}
+
+	/**
+	 * Gibt den bisherigen Stand der Konfiguration zurück.
+	 * 
+	 * @return der bisherige Stand.
+	 */
+	public ConfigurationSnapshot getOldSnapshot() {
+		return oldSnapshot;
+	}
+
+	/**
+	 * Gibt den neuen Stand der Konfiguration zurück.
+	 * 
+	 * @return der neue Stand.
+	 */
+	public ConfigurationSnapshot getNewSnapshot() {
+		return newSnapshot;
+	}
+
+	/**
+	 * Gibt die hinzugekommenen Schlüssel zurück.
+	 * 
+	 * @return die neuen Schlüssel.
+	 */
+	public Set<String> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Gibt die entfernten Schlüssel zurück.
+	 * 
+	 * @return die entfernten Schlüssel.
+	 */
+	public Set<String> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Gibt die Schlüssel zurück, deren Wert sich geändert hat.
+	 * 
+	 * @return die geänderten Schlüssel.
+	 */
+	public Set<String> getModified() {
+		return modified;
+	}
+
+	/**
+	 * Gibt alle hinzugekommenen, entfernten und geänderten Schlüssel zurück.
+	 * 
+	 * @return alle betroffenen Schlüssel.
+	 */
+	public Set<String> getChangedKeys() {
+		final Set<String> keys = new HashSet<>(added);
+		keys.addAll(removed);
+		keys.addAll(modified);
+		return keys;
+	}
+
+	/**
+	 * Prüft ob es überhaupt Unterschiede gibt.
+	 * 
+	 * @return {@code true}, wenn sich mindestens ein Schlüssel geändert hat.
+	 */
+	public boolean hasChanges() {
+		return !added.isEmpty() || !removed.isEmpty() || !modified.isEmpty();
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.resource;
+
+import java.util.EventListener;
+
+/**
+ * Ein Listener, der auf das Neuladen einer {@link Configuration} reagiert.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public interface ConfigurationChangeListener extends EventListener {
+
+	/**
+	 * Wird aufgerufen, nachdem ein neuer Konfigurationsstand veröffentlicht wurde,
+	 * der sich vom vorherigen unterscheidet.
+	 * 
+	 * @param e das Event mit den geänderten Schlüsseln.
+	 */
+	void configurationChanged(ConfigurationChangeEvent e);
+
+}
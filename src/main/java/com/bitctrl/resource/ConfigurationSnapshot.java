@@ -0,0 +1,343 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.resource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.bitctrl.util.TreeProperties;
+
+/**
+ * Unveränderlicher Stand einer Konfiguration. Alle Schlüssel werden als
+ * absolute Schlüssel in einer flachen Tabelle gehalten, Zahlen und
+ * Wahrheitswerte werden beim Erzeugen einmalig geparst.
+ * <p>
+ * Im Gegensatz zu {@link ReadOnlyConfiguration} gibt es keinen gemeinsamen
+ * Navigationszustand. Gruppen und Felder werden über unveränderliche
+ * {@link Cursor} adressiert, so dass beliebig viele Threads ohne Sperren und
+ * ohne gegenseitige Beeinflussung lesen können.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public final class ConfigurationSnapshot {
+
+	private static final ConfigurationValue MISSING = new ConfigurationValue(null);
+
+	/**
+	 * Unveränderlicher Verweis auf eine Gruppe oder ein Feldelement in einem
+	 * {@link ConfigurationSnapshot}. Relative Schlüssel werden wie bei
+	 * {@link TreeProperties} normalisiert und an den Pfad des Cursors angehängt.
+	 * Die aufgelösten Werte werden je Cursor zwischengespeichert, langlebige
+	 * Cursor sind deshalb besonders günstig.
+	 */
+	public static final class Cursor {
+
+		private final ConfigurationSnapshot snapshot;
+		private final String path;
+		private final Map<String, ConfigurationValue> resolved = new ConcurrentHashMap<>();
+
+		private Cursor(final ConfigurationSnapshot snapshot, final String path) {
+			this.snapshot = snapshot;
+			this.path = path;
+		}
+
+		/**
+		 * Gibt den Pfad des Cursors zurück.
+		 * 
+		 * @return der Pfad, ein leerer String für die Wurzel, sonst mit einem Punkt
+		 *         am Ende.
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * Gibt den Konfigurationsstand zurück, auf den sich der Cursor bezieht.
+		 * 
+		 * @return der Konfigurationsstand.
+		 */
+		public ConfigurationSnapshot getSnapshot() {
+			return snapshot;
+		}
+
+		/**
+		 * Gibt einen Cursor auf eine Untergruppe zurück.
+		 * 
+		 * @param name der Name der Gruppe.
+		 * @return der Cursor für die Gruppe.
+		 */
+		public Cursor group(final String name) {
+			return new Cursor(snapshot, path + TreeProperties.normalizeKey(name) + '.');
+		}
+
+		/**
+		 * Gibt die Länge eines Feldes zurück.
+		 * 
+		 * @param name der Name des Feldes.
+		 * @return die Länge des Feldes oder 0, wenn die Länge unbekannt ist.
+		 * @see ReadOnlyConfiguration#beginReadArray(String)
+		 */
+		public int getArraySize(final String name) {
+			return getInt(name + ".size", 0);
+		}
+
+		/**
+		 * Gibt einen Cursor auf ein Element eines Feldes zurück.
+		 * 
+		 * @param name  der Name des Feldes.
+		 * @param index der Index des Elements, beginnend bei 0.
+		 * @return der Cursor für das Feldelement.
+		 * @see ReadOnlyConfiguration#setArrayIndex(int)
+		 */
+		public Cursor element(final String name, final int index) {
+			return new Cursor(snapshot,
+					path + TreeProperties.normalizeKey(name) + '.' + (Math.max(index, 0) + 1) + '.');
+		}
+
+		/**
+		 * Prüft ob ein Schlüssel vorhanden ist.
+		 * 
+		 * @param key ein relativer Schlüssel.
+		 * @return {@code true}, wenn unter dem Schlüssel ein Wert hinterlegt ist.
+		 */
+		public boolean containsKey(final String key) {
+			return value(key) != MISSING;
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als String zurück.
+		 * 
+		 * @param key ein relativer Schlüssel.
+		 * @return der Wert oder {@link ReadOnlyConfiguration#DEFAULT_STRING}.
+		 */
+		public String getString(final String key) {
+			return getString(key, ReadOnlyConfiguration.DEFAULT_STRING);
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als String zurück.
+		 * 
+		 * @param key          ein relativer Schlüssel.
+		 * @param defaultValue der Standardwert.
+		 * @return der Wert oder der Standardwert, wenn es keinen Wert gibt.
+		 */
+		public String getString(final String key, final String defaultValue) {
+			final ConfigurationValue value = value(key);
+			return value != MISSING ? value.getText() : defaultValue;
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als booleschen Wert zurück.
+		 * 
+		 * @param key ein relativer Schlüssel.
+		 * @return der Wert oder {@link ReadOnlyConfiguration#DEFAULT_BOOLEAN}.
+		 */
+		public boolean getBoolean(final String key) {
+			return getBoolean(key, ReadOnlyConfiguration.DEFAULT_BOOLEAN);
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als booleschen Wert zurück.
+		 * 
+		 * @param key          ein relativer Schlüssel.
+		 * @param defaultValue der Standardwert.
+		 * @return der Wert oder der Standardwert, wenn es keinen Wert gibt.
+		 */
+		public boolean getBoolean(final String key, final boolean defaultValue) {
+			final ConfigurationValue value = value(key);
+			return value != MISSING ? value.booleanValue() : defaultValue;
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als Ganzzahl zurück.
+		 * 
+		 * @param key ein relativer Schlüssel.
+		 * @return der Wert oder {@link ReadOnlyConfiguration#DEFAULT_INT}.
+		 * @throws NumberFormatException wenn der Wert keine Ganzzahl ist.
+		 */
+		public int getInt(final String key) {
+			return getInt(key, ReadOnlyConfiguration.DEFAULT_INT);
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als Ganzzahl zurück.
+		 * 
+		 * @param key          ein relativer Schlüssel.
+		 * @param defaultValue der Standardwert.
+		 * @return der Wert oder der Standardwert, wenn es keinen Wert gibt.
+		 * @throws NumberFormatException wenn der Wert keine Ganzzahl ist.
+		 */
+		public int getInt(final String key, final int defaultValue) {
+			final ConfigurationValue value = value(key);
+			return value != MISSING ? value.intValue() : defaultValue;
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als Ganzzahl zurück.
+		 * 
+		 * @param key ein relativer Schlüssel.
+		 * @return der Wert oder {@link ReadOnlyConfiguration#DEFAULT_LONG}.
+		 * @throws NumberFormatException wenn der Wert keine Ganzzahl ist.
+		 */
+		public long getLong(final String key) {
+			return getLong(key, ReadOnlyConfiguration.DEFAULT_LONG);
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als Ganzzahl zurück.
+		 * 
+		 * @param key          ein relativer Schlüssel.
+		 * @param defaultValue der Standardwert.
+		 * @return der Wert oder der Standardwert, wenn es keinen Wert gibt.
+		 * @throws NumberFormatException wenn der Wert keine Ganzzahl ist.
+		 */
+		public long getLong(final String key, final long defaultValue) {
+			final ConfigurationValue value = value(key);
+			return value != MISSING ? value.longValue() : defaultValue;
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als Gleitkommazahl zurück.
+		 * 
+		 * @param key ein relativer Schlüssel.
+		 * @return der Wert oder {@link ReadOnlyConfiguration#DEFAULT_DOUBLE}.
+		 * @throws NumberFormatException wenn der Wert keine Zahl ist.
+		 */
+		public double getDouble(final String key) {
+			return getDouble(key, ReadOnlyConfiguration.DEFAULT_DOUBLE);
+		}
+
+		/**
+		 * Gibt den Wert unter einem Schlüssel als Gleitkommazahl zurück.
+		 * 
+		 * @param key          ein relativer Schlüssel.
+		 * @param defaultValue der Standardwert.
+		 * @return der Wert oder der Standardwert, wenn es keinen Wert gibt.
+		 * @throws NumberFormatException wenn der Wert keine Zahl ist.
+		 */
+		public double getDouble(final String key, final double defaultValue) {
+			final ConfigurationValue value = value(key);
+			return value != MISSING ? value.doubleValue() : defaultValue;
+		}
+
+		private ConfigurationValue value(final String key) {
+			ConfigurationValue value = resolved.get(key);
+			if (value == null) {
+				value = snapshot.values.getOrDefault(path + TreeProperties.normalizeKey(key), MISSING);
+				if (resolved.size() < RESOLVED_LIMIT) {
+					resolved.put(key, value);
+				}
+			}
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[" + path + "]";
+		}
+
+	}
+
+	private static final int RESOLVED_LIMIT = 4096;
+
+	private final Map<String, ConfigurationValue> values;
+	private final Cursor root;
+
+	/**
+	 * Erzeugt einen Konfigurationsstand aus einer Tabelle absoluter Schlüssel.
+	 * Die Tabelle wird kopiert.
+	 * 
+	 * @param properties die Werte der Konfiguration.
+	 */
+	public ConfigurationSnapshot(final Map<String, String> properties) {
+		final Map<String, ConfigurationValue> map = new HashMap<>(properties.size() * 4 / 3 + 1);
+		for (final Map.Entry<String, String> e : properties.entrySet()) {
+			if (e.getKey() != null && e.getValue() != null) {
+				map.put(e.getKey(), new ConfigurationValue(e.getValue()));
+			}
+		}
+		values = Collections.unmodifiableMap(map);
+		root = new Cursor(this, "");
+	}
+
+	/**
+	 * Gibt den Cursor auf die oberste Ebene zurück.
+	 * 
+	 * @return der Wurzelcursor.
+	 */
+	public Cursor getRoot() {
+		return root;
+	}
+
+	/**
+	 * Gibt einen Cursor auf eine Gruppe der obersten Ebene zurück.
+	 * 
+	 * @param name der Name der Gruppe.
+	 * @return der Cursor für die Gruppe.
+	 */
+	public Cursor group(final String name) {
+		return root.group(name);
+	}
+
+	/**
+	 * Gibt die Anzahl der Schlüssel zurück.
+	 * 
+	 * @return die Schlüsselanzahl.
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Gibt die absoluten Schlüssel zurück.
+	 * 
+	 * @return die nicht veränderbare Schlüsselmenge.
+	 */
+	public Set<String> keySet() {
+		return values.keySet();
+	}
+
+	/**
+	 * Gibt den Wert zu einem absoluten Schlüssel zurück.
+	 * 
+	 * @param key ein absoluter Schlüssel.
+	 * @return der Wert oder {@code null}, wenn es keinen Wert gibt.
+	 */
+	public String get(final String key) {
+		final ConfigurationValue value = values.get(key);
+		return value != null ? value.getText() : null;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + values.size() + " keys]";
+	}
+
+}
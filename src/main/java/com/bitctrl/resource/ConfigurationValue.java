@@ -0,0 +1,175 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.resource;
+
+/**
+ * Ein Wert einer Konfiguration mit seinen vorab geparsten Darstellungen. Ganze
+ * Zahlen, Gleitkommazahlen und Wahrheitswerte werden beim Erzeugen einmalig
+ * bestimmt, die Zugriffsmethoden kosten danach nur noch einen Feldzugriff.
+ * <p>
+ * Lässt sich der Text nicht als Zahl lesen, wird beim Zugriff wie bei
+ * {@link Integer#parseInt(String)}, {@link Long#parseLong(String)} und
+ * {@link Double#parseDouble(String)} eine {@link NumberFormatException}
+ * geworfen.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public final class ConfigurationValue {
+
+	private final String text;
+	private final boolean booleanValue;
+	private final boolean isLong;
+	private final long longValue;
+	private final boolean isDouble;
+	private final double doubleValue;
+
+	/**
+	 * Parst den Text eines Konfigurationswerts.
+	 * 
+	 * @param text der Text, darf {@code null} sein.
+	 */
+	public ConfigurationValue(final String text) {
+		this.text = text;
+		booleanValue = Boolean.parseBoolean(text);
+
+		long l = 0;
+		boolean parsedLong = false;
+		if (text != null && looksLikeLong(text)) {
+			try {
+				l = Long.parseLong(text);
+				parsedLong = true;
+			} catch (final NumberFormatException ex) {
+				// Überlauf, wird beim Zugriff erneut gemeldet
+			}
+		}
+		isLong = parsedLong;
+		longValue = l;
+
+		double d = 0;
+		boolean parsedDouble = false;
+		if (parsedLong) {
+			d = Double.parseDouble(text);
+			parsedDouble = true;
+		} else if (text != null && looksLikeDouble(text)) {
+			try {
+				d = Double.parseDouble(text);
+				parsedDouble = true;
+			} catch (final NumberFormatException ex) {
+				// kein Zahlwert, wird beim Zugriff erneut gemeldet
+			}
+		}
+		isDouble = parsedDouble;
+		doubleValue = d;
+	}
+
+	/**
+	 * Gibt den ursprünglichen Text zurück.
+	 * 
+	 * @return der Text.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Gibt den Wert als Wahrheitswert zurück.
+	 * 
+	 * @return {@code true}, wenn der Text ohne Beachtung der Groß- und
+	 *         Kleinschreibung {@code "true"} ist.
+	 */
+	public boolean booleanValue() {
+		return booleanValue;
+	}
+
+	/**
+	 * Gibt den Wert als ganze Zahl zurück.
+	 * 
+	 * @return der Wert.
+	 * @throws NumberFormatException wenn der Text keine ganze Zahl im
+	 *                               Wertebereich von {@code int} ist.
+	 */
+	public int intValue() {
+		if (isLong && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+			return (int) longValue;
+		}
+		return Integer.parseInt(text);
+	}
+
+	/**
+	 * Gibt den Wert als lange ganze Zahl zurück.
+	 * 
+	 * @return der Wert.
+	 * @throws NumberFormatException wenn der Text keine ganze Zahl im
+	 *                               Wertebereich von {@code long} ist.
+	 */
+	public long longValue() {
+		return isLong ? longValue : Long.parseLong(text);
+	}
+
+	/**
+	 * Gibt den Wert als Gleitkommazahl zurück.
+	 * 
+	 * @return der Wert.
+	 * @throws NumberFormatException wenn der Text keine Zahl ist.
+	 */
+	public double doubleValue() {
+		return isDouble ? doubleValue : Double.parseDouble(text);
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+	private static boolean looksLikeLong(final String text) {
+		final int length = text.length();
+		int i = 0;
+		if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+			i++;
+		}
+		if (i == length || length - i > 19) {
+			return false;
+		}
+		for (; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean looksLikeDouble(final String text) {
+		final String trimmed = text.trim();
+		if (trimmed.isEmpty()) {
+			return false;
+		}
+		final char c = trimmed.charAt(0);
+		return c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'N' || c == 'I';
+	}
+
+}
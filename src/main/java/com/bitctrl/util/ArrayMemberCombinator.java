@@ -1,7 +1,11 @@
 package com.bitctrl.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Ermöglicht die Abbildung einer Menge von n Elementen des Typs I auf eine
@@ -53,13 +57,122 @@ public abstract class ArrayMemberCombinator<I, O> implements Runnable {
 		synchronized (inputs) {
 			int loop;
 			for (loop = 1; loop < inputs.length; ++loop) {
-				final int index1 = alwaysFirst ? 0 : loop - 1;
-				outputs.add(loop - 1, combine(inputs[index1], inputs[loop]));
+				outputs.add(loop - 1, combineAt(loop));
 			}
 		}
 
 	}
 
+	/**
+	 * Berechnet die Ergebnisse wie {@link #run()}, reicht sie aber einzeln an
+	 * einen Consumer weiter, statt sie zu sammeln. Die Ergebnisse werden in der
+	 * Reihenfolge ihres Index geliefert.
+	 * 
+	 * @param consumer erhält jedes Ergebnis mit seinem Index in
+	 *                 {@link #getOutputs()}
+	 */
+	public void run(final ObjIntConsumer<? super O> consumer) {
+		synchronized (inputs) {
+			for (int loop = 1; loop < inputs.length; ++loop) {
+				consumer.accept(combineAt(loop), loop - 1);
+			}
+		}
+	}
+
+	/**
+	 * Berechnet die Ergebnisse wie {@link #run()}, verteilt die Aufrufe von
+	 * {@link #combine(Object, Object)} aber auf den
+	 * {@link ForkJoinPool#commonPool()}. Die Ergebnisse werden in ein Feld der
+	 * passenden Größe geschrieben und danach wie bei {@link #run()} an den Anfang
+	 * der Ergebnisliste eingefügt. Die Übernahme erfolgt unter derselben Sperre
+	 * wie die Berechnung.
+	 * <p>
+	 * {@link #combine(Object, Object)} muss dafür threadsicher sein.
+	 */
+	public void runParallel() {
+		synchronized (inputs) {
+			@SuppressWarnings("unchecked")
+			final O[] results = (O[]) new Object[inputs.length - 1];
+			runParallel((output, index) -> results[index] = output);
+
+			outputs.addAll(0, Arrays.asList(results));
+		}
+	}
+
+	/**
+	 * Berechnet die Ergebnisse parallel im {@link ForkJoinPool#commonPool()} und
+	 * reicht jedes Ergebnis an einen Consumer weiter, sobald es vorliegt. Die
+	 * Ergebnisse werden nicht gesammelt.
+	 * 
+	 * @param consumer erhält jedes Ergebnis mit seinem Index in
+	 *                 {@link #getOutputs()}; muss threadsicher sein, da die
+	 *                 Ergebnisse in beliebiger Reihenfolge aus verschiedenen
+	 *                 Threads geliefert werden
+	 * @see #runParallel(ForkJoinPool, ObjIntConsumer)
+	 */
+	public void runParallel(final ObjIntConsumer<? super O> consumer) {
+		runParallel(ForkJoinPool.commonPool(), consumer);
+	}
+
+	/**
+	 * Berechnet die Ergebnisse parallel in einem Fork/Join-Pool. Die Indexbereiche
+	 * werden rekursiv halbiert, bis auf jeden Thread einige Teilbereiche
+	 * entfallen. Die Methode kehrt erst zurück, wenn alle Ergebnisse geliefert
+	 * wurden.
+	 * 
+	 * @param pool     der Pool, in dem gerechnet wird
+	 * @param consumer erhält jedes Ergebnis mit seinem Index in
+	 *                 {@link #getOutputs()}; muss threadsicher sein
+	 */
+	public void runParallel(final ForkJoinPool pool, final ObjIntConsumer<? super O> consumer) {
+		synchronized (inputs) {
+			final int count = inputs.length - 1;
+			final int threshold = Math.max(1, count / (pool.getParallelism() * 8));
+			pool.invoke(new CombineTask(1, inputs.length, threshold, consumer));
+		}
+	}
+
+	private O combineAt(final int loop) {
+		final int index1 = alwaysFirst ? 0 : loop - 1;
+		return combine(inputs[index1], inputs[loop]);
+	}
+
+	/**
+	 * Kombiniert die Eingabeobjekte eines Indexbereichs, große Bereiche werden
+	 * geteilt.
+	 */
+	private final class CombineTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int threshold;
+		private final ObjIntConsumer<? super O> consumer;
+
+		CombineTask(final int from, final int to, final int threshold, final ObjIntConsumer<? super O> consumer) {
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				for (int loop = from; loop < to; ++loop) {
+					consumer.accept(combineAt(loop), loop - 1);
+				}
+				return;
+			}
+
+			final int mid = (from + to) >>> 1;
+			invokeAll(new CombineTask(from, mid, threshold, consumer),
+					new CombineTask(mid, to, threshold, consumer));
+		}
+
+	}
+
 	/**
 	 * Liefert die Ergebnisdaten
 	 * 
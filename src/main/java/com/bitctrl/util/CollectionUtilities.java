@@ -27,9 +27,14 @@
 package com.bitctrl.util;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
 /**
  * Allgemeine Hilfsmethoden für den Umgang mit dem Java-Collection-Framework.
@@ -38,6 +43,16 @@ import java.util.Set;
  */
 public final class CollectionUtilities {
 
+	/**
+	 * Ab dieser Listengröße werden die Listenoperationen parallel ausgeführt.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	/** Die Operationen der Merge-Varianten für sortierte Listen. */
+	private enum MergeOperation {
+		INTERSECTION, DIFFERENCE, UNION, SUM, COMPLEMENT
+	}
+
 	/**
 	 * Bestimmt die Schnittmenge zweier Listen.
 	 * <p>
@@ -45,21 +60,21 @@ public final class CollectionUtilities {
 	 * der Verwendung dieser Methode keine Annahmen über die Reihenfolgen der
 	 * Elemente im Ergebnis getroffen werden.
 	 * 
+	 * <p>
+	 * Das Ergebnis enthält die Elemente der ersten Liste, die auch in der zweiten
+	 * Liste vorkommen. Die zweite Liste wird dafür in einer Hash-Menge indiziert,
+	 * der Aufwand ist linear. Große Listen werden parallel gefiltert.
+	 * 
 	 * @param <T>   der Typ der Listen.
 	 * @param list1 die erste Liste.
 	 * @param list2 die zweite Liste.
 	 * @return die Schnittliste.
 	 */
 	public static <T> List<T> intersection(final List<T> list1, final List<T> list2) {
-		final List<T> result = new ArrayList<>();
-
-		for (final T e : list1) {
-			if (list2.contains(e)) {
-				result.add(e);
-			}
+		if (list1.isEmpty() || list2.isEmpty()) {
+			return new ArrayList<>();
 		}
-
-		return result;
+		return filter(list1, new HashSet<>(list2), true);
 	}
 
 	/**
@@ -69,16 +84,35 @@ public final class CollectionUtilities {
 	 * der Verwendung dieser Methode keine Annahmen über die Reihenfolgen der
 	 * Elemente im Ergebnis getroffen werden.
 	 * 
+	 * <p>
+	 * Für jedes Element der zweiten Liste wird ein gleiches Element der ersten
+	 * Liste entfernt, und zwar das erste noch nicht entfernte. Dazu werden die
+	 * Elemente der zweiten Liste in einer Hash-Tabelle gezählt, der Aufwand ist
+	 * linear.
+	 * 
 	 * @param <T>   der Typ der Listen.
 	 * @param list1 die Liste von der abgezogen wird.
 	 * @param list2 die Elemente dieser Liste werden abgezogen.
 	 * @return die Listendifferenz.
 	 */
 	public static <T> List<T> difference(final List<T> list1, final List<T> list2) {
-		final List<T> result = new ArrayList<>(list1);
+		if (list1.isEmpty() || list2.isEmpty()) {
+			return new ArrayList<>(list1);
+		}
 
+		final Map<T, int[]> counts = new HashMap<>();
 		for (final T e : list2) {
-			result.remove(e);
+			counts.computeIfAbsent(e, k -> new int[1])[0]++;
+		}
+
+		final List<T> result = new ArrayList<>(list1.size());
+		for (final T e : list1) {
+			final int[] count = counts.get(e);
+			if (count != null && count[0] > 0) {
+				count[0]--;
+			} else {
+				result.add(e);
+			}
 		}
 
 		return result;
@@ -98,7 +132,7 @@ public final class CollectionUtilities {
 	 * @return die Listenvereinigung.
 	 */
 	public static <T> List<T> union(final List<T> list1, final List<T> list2) {
-		final List<T> result = new ArrayList<>();
+		final List<T> result = new ArrayList<>(list1.size() + list2.size());
 		result.addAll(list1);
 		result.addAll(list2);
 
@@ -119,7 +153,12 @@ public final class CollectionUtilities {
 	 * @return die Listenvereinigung.
 	 */
 	public static <T> List<T> sum(final List<T> list1, final List<T> list2) {
-		return difference(union(list1, list2), intersection(list1, list2));
+		// entspricht difference(union(list1, list2), intersection(list1, list2)):
+		// entfernt werden genau die Elemente der ersten Liste, die auch in der
+		// zweiten vorkommen
+		final List<T> result = list2.isEmpty() ? new ArrayList<>(list1) : filter(list1, new HashSet<>(list2), false);
+		result.addAll(list2);
+		return result;
 	}
 
 	/**
@@ -135,7 +174,175 @@ public final class CollectionUtilities {
 	 * @return die Komplementärliste.
 	 */
 	public static <T> List<T> complement(final List<T> list1, final List<T> list2) {
-		return union(difference(list1, list2), difference(list2, list1));
+		if (list1.size() + list2.size() < PARALLEL_THRESHOLD) {
+			return union(difference(list1, list2), difference(list2, list1));
+		}
+
+		final ForkJoinTask<List<T>> second = ForkJoinTask.adapt(() -> difference(list2, list1)).fork();
+		final List<T> first = difference(list1, list2);
+		return union(first, second.join());
+	}
+
+	/**
+	 * Bestimmt die Schnittmenge zweier sortierter Listen. Das Ergebnis entspricht
+	 * dem von {@link #intersection(List, List)}, ist aber ebenfalls sortiert. Die
+	 * Listen werden in einem Durchlauf zusammengeführt, gleich sind Elemente, die
+	 * der Comparator als gleich ansieht.
+	 * 
+	 * @param <T>        der Typ der Listen.
+	 * @param list1      die erste Liste.
+	 * @param list2      die zweite Liste.
+	 * @param comparator der Comparator, nach dem beide Listen sortiert sind.
+	 * @return die sortierte Schnittliste.
+	 */
+	public static <T> List<T> intersectionSorted(final List<T> list1, final List<T> list2,
+			final Comparator<? super T> comparator) {
+		return merge(list1, list2, comparator, MergeOperation.INTERSECTION);
+	}
+
+	/**
+	 * Bestimmt die Differenz zweier sortierter Listen. Das Ergebnis entspricht dem
+	 * von {@link #difference(List, List)}, ist aber ebenfalls sortiert.
+	 * 
+	 * @param <T>        der Typ der Listen.
+	 * @param list1      die Liste von der abgezogen wird.
+	 * @param list2      die Elemente dieser Liste werden abgezogen.
+	 * @param comparator der Comparator, nach dem beide Listen sortiert sind.
+	 * @return die sortierte Listendifferenz.
+	 */
+	public static <T> List<T> differenceSorted(final List<T> list1, final List<T> list2,
+			final Comparator<? super T> comparator) {
+		return merge(list1, list2, comparator, MergeOperation.DIFFERENCE);
+	}
+
+	/**
+	 * Bestimmt die Vereinigung zweier sortierter Listen. Das Ergebnis entspricht
+	 * dem von {@link #union(List, List)}, ist aber ebenfalls sortiert.
+	 * 
+	 * @param <T>        der Typ der Listen.
+	 * @param list1      die erste Liste.
+	 * @param list2      die zweite Liste.
+	 * @param comparator der Comparator, nach dem beide Listen sortiert sind.
+	 * @return die sortierte Listenvereinigung.
+	 */
+	public static <T> List<T> unionSorted(final List<T> list1, final List<T> list2,
+			final Comparator<? super T> comparator) {
+		return merge(list1, list2, comparator, MergeOperation.UNION);
+	}
+
+	/**
+	 * Bestimmt die Summe zweier sortierter Listen. Das Ergebnis entspricht dem von
+	 * {@link #sum(List, List)}, ist aber ebenfalls sortiert.
+	 * 
+	 * @param <T>        der Typ der Listen.
+	 * @param list1      die erste Liste.
+	 * @param list2      die zweite Liste.
+	 * @param comparator der Comparator, nach dem beide Listen sortiert sind.
+	 * @return die sortierte Listenvereinigung.
+	 */
+	public static <T> List<T> sumSorted(final List<T> list1, final List<T> list2,
+			final Comparator<? super T> comparator) {
+		return merge(list1, list2, comparator, MergeOperation.SUM);
+	}
+
+	/**
+	 * Bestimmt das Komplement zweier sortierter Listen. Das Ergebnis entspricht
+	 * dem von {@link #complement(List, List)}, ist aber ebenfalls sortiert.
+	 * 
+	 * @param <T>        der Typ der Listen.
+	 * @param list1      die erste Liste.
+	 * @param list2      die zweite Liste.
+	 * @param comparator der Comparator, nach dem beide Listen sortiert sind.
+	 * @return die sortierte Komplementärliste.
+	 */
+	public static <T> List<T> complementSorted(final List<T> list1, final List<T> list2,
+			final Comparator<? super T> comparator) {
+		return merge(list1, list2, comparator, MergeOperation.COMPLEMENT);
+	}
+
+	private static <T> List<T> filter(final List<T> list, final Set<T> index, final boolean contained) {
+		if (list.size() >= PARALLEL_THRESHOLD) {
+			return list.parallelStream().filter(e -> index.contains(e) == contained)
+					.collect(Collectors.toCollection(ArrayList::new));
+		}
+
+		final List<T> result = new ArrayList<>();
+		for (final T e : list) {
+			if (index.contains(e) == contained) {
+				result.add(e);
+			}
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> merge(final List<T> list1, final List<T> list2,
+			final Comparator<? super T> comparator, final MergeOperation operation) {
+		final Object[] a = list1.toArray();
+		final Object[] b = list2.toArray();
+		final List<T> result = new ArrayList<>(operation == MergeOperation.INTERSECTION ? 0 : a.length + b.length);
+
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			// das kleinste Element beider Listen bestimmt den nächsten Lauf gleicher
+			// Elemente
+			final T key;
+			if (j == b.length || i < a.length && comparator.compare((T) a[i], (T) b[j]) <= 0) {
+				key = (T) a[i];
+			} else {
+				key = (T) b[j];
+			}
+
+			int i2 = i;
+			while (i2 < a.length && comparator.compare((T) a[i2], key) == 0) {
+				i2++;
+			}
+			int j2 = j;
+			while (j2 < b.length && comparator.compare((T) b[j2], key) == 0) {
+				j2++;
+			}
+
+			final int common = Math.min(i2 - i, j2 - j);
+			switch (operation) {
+			case INTERSECTION:
+				if (j2 > j) {
+					addRange(result, a, i, i2);
+				}
+				break;
+			case DIFFERENCE:
+				addRange(result, a, i + common, i2);
+				break;
+			case UNION:
+				addRange(result, a, i, i2);
+				addRange(result, b, j, j2);
+				break;
+			case SUM:
+				if (j2 == j) {
+					addRange(result, a, i, i2);
+				}
+				addRange(result, b, j, j2);
+				break;
+			case COMPLEMENT:
+				addRange(result, a, i + common, i2);
+				addRange(result, b, j + common, j2);
+				break;
+			default:
+				throw new IllegalStateException(operation.toString());
+			}
+
+			i = i2;
+			j = j2;
+		}
+
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void addRange(final List<T> result, final Object[] elements, final int from, final int to) {
+		for (int k = from; k < to; k++) {
+			result.add((T) elements[k]);
+		}
 	}
 
 	/**
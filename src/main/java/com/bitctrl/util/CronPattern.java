@@ -50,11 +50,11 @@ import java.util.Calendar;
 public class CronPattern implements ValueMatcher<Long> {
 
 	private final String pattern;
-	private final ValueSetMatcher<Integer> minuteMatcher = new ValueSetMatcher<>();
-	private final ValueSetMatcher<Integer> hourMatcher = new ValueSetMatcher<>();
-	private final ValueSetMatcher<Integer> dayOfMonthMatcher = new ValueSetMatcher<>();
-	private final ValueSetMatcher<Integer> monthMatcher = new ValueSetMatcher<>();
-	private final ValueSetMatcher<Integer> dayOfWeekMatcher = new ValueSetMatcher<>();
+	private final IntMatcher minuteMatcher;
+	private final IntMatcher hourMatcher;
+	private final IntMatcher dayOfMonthMatcher;
+	private final IntMatcher monthMatcher;
+	private final IntMatcher dayOfWeekMatcher;
 
 	/**
 	 * Erzeugt ein neues Objekt anhand eines String.
@@ -62,8 +62,20 @@ public class CronPattern implements ValueMatcher<Long> {
 	 * @param pattern ein String in Cron-Syntax.
 	 */
 	public CronPattern(final String pattern) {
+		String[] parts;
+
+		parts = pattern.split(" |\t");
+		if (parts.length != 5) {
+			throw new IllegalArgumentException("Das Pattern entspricht nicht der unterstützten Cron-Syntax.");
+		}
+
 		this.pattern = pattern;
-		setPattern(pattern);
+		minuteMatcher = parseField(parts[0]);
+		hourMatcher = parseField(parts[1]);
+		dayOfMonthMatcher = parseField(parts[2]);
+		// Java-Monate gehen bei 0 los
+		monthMatcher = parseField(parts[3]);
+		dayOfWeekMatcher = parseDayOfWeek(parts[4]);
 	}
 
 	/**
@@ -75,53 +87,32 @@ public class CronPattern implements ValueMatcher<Long> {
 		return pattern;
 	}
 
-	private void setPattern(final String pattern) {
-		String[] parts;
+	private static IntMatcher parseField(final String part) {
+		if ("*".equals(part)) {
+			return IntMatcher.always();
+		}
+		return IntMatcher.in(parseNumber(part));
+	}
 
-		parts = pattern.split(" |\t");
-		if (parts.length != 5) {
-			throw new IllegalArgumentException("Das Pattern entspricht nicht der unterstützten Cron-Syntax.");
+	private static IntMatcher parseDayOfWeek(final String part) {
+		if ("*".equals(part)) {
+			return IntMatcher.always();
 		}
-		try {
-			if ("*".equals(parts[0])) {
-				minuteMatcher.add(new ValueMatcher.AlwaysMatcher<>());
-			} else {
-				minuteMatcher.add(new ValueMatcher.CollectionValueMatcher<>(Integer.valueOf(parts[0])));
-			}
-
-			if ("*".equals(parts[1])) {
-				hourMatcher.add(new ValueMatcher.AlwaysMatcher<>());
-			} else {
-				hourMatcher.add(new ValueMatcher.CollectionValueMatcher<>(Integer.valueOf(parts[1])));
-			}
-
-			if ("*".equals(parts[2])) {
-				dayOfMonthMatcher.add(new ValueMatcher.AlwaysMatcher<>());
-			} else {
-				dayOfMonthMatcher.add(new ValueMatcher.CollectionValueMatcher<>(Integer.valueOf(parts[2])));
-			}
-
-			if ("*".equals(parts[3])) {
-				monthMatcher.add(new ValueMatcher.AlwaysMatcher<>());
-			} else {
-				// Java-Monate gehen bei 0 los
-				monthMatcher.add(new ValueMatcher.CollectionValueMatcher<>(Integer.valueOf(parts[3])));
-			}
-
-			if ("*".equals(parts[4])) {
-				dayOfWeekMatcher.add(new ValueMatcher.AlwaysMatcher<>());
-			} else {
-				// Java-Wochentage gehen bei 1 mit Sonntag los
-				int day;
-
-				day = Integer.parseInt(parts[4]);
-				if (day == 7) {
-					// Sonntag ist intern nur 0, nicht mehr auch 7
-					day = 0;
-				}
-				dayOfWeekMatcher.add(new ValueMatcher.CollectionValueMatcher<>(day));
-			}
 
+		// Java-Wochentage gehen bei 1 mit Sonntag los
+		int day;
+
+		day = parseNumber(part);
+		if (day == 7) {
+			// Sonntag ist intern nur 0, nicht mehr auch 7
+			day = 0;
+		}
+		return IntMatcher.in(day);
+	}
+
+	private static int parseNumber(final String part) {
+		try {
+			return Integer.parseInt(part);
 		} catch (final NumberFormatException ex) {
 			throw new UnsupportedOperationException(
 					"Das Pattern entspricht nicht der unterstützten Cron-Syntax. Listen, Intervalle und Schrittweiten werden noch nicht untertsützt.");
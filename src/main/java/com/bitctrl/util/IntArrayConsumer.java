@@ -0,0 +1,47 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.util;
+
+/**
+ * Verarbeitet ein Feld von Integerwerten. Das Feld gehört dem Aufrufer und wird
+ * in der Regel für den nächsten Aufruf wiederverwendet; es darf deshalb weder
+ * verändert noch über den Aufruf hinaus gehalten werden. Wer die Werte
+ * aufheben möchte, muss sie kopieren.
+ * 
+ * @author BitCtrl Systems GmbH
+ * @see Shifter#forEach(IntArrayConsumer)
+ */
+@FunctionalInterface
+public interface IntArrayConsumer {
+
+	/**
+	 * Verarbeitet die Werte.
+	 * 
+	 * @param values die Werte, nur während des Aufrufs gültig.
+	 */
+	void accept(int[] values);
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Variante von {@link ValueMatcher} für {@code int}-Werte, die ohne Boxing
+ * auskommt. Die Kombinatoren entsprechen denen der generischen Schnittstelle,
+ * über {@link #boxed()} und {@link #of(ValueMatcher)} lassen sich beide Welten
+ * verbinden.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+@FunctionalInterface
+public interface IntMatcher {
+
+	/**
+	 * Gibt einen Matcher zurück, für den alle Werte matchen. Das ist zugleich das
+	 * Gegenstück zu {@link ValueMatcher.NotNullMatcher}, da ein {@code int} nie
+	 * {@code null} ist.
+	 * 
+	 * @return der Matcher.
+	 */
+	static IntMatcher always() {
+		return value -> true;
+	}
+
+	/**
+	 * Gibt einen Matcher zurück, für den kein Wert matcht.
+	 * 
+	 * @return der Matcher.
+	 */
+	static IntMatcher never() {
+		return value -> false;
+	}
+
+	/**
+	 * Gibt einen Matcher für ein Intervall zurück. Die Intervallgrenzen gehören
+	 * wie bei {@link ValueMatcher.RangeMatcher} mit zu dem Intervall.
+	 * 
+	 * @param min das Minimum des Intervalls.
+	 * @param max das Maximum des Intervalls.
+	 * @return der Matcher.
+	 */
+	static IntMatcher range(final int min, final int max) {
+		return value -> min <= value && value <= max;
+	}
+
+	/**
+	 * Gibt einen Matcher für eine Menge von Werten zurück. Kleine, nicht-negative
+	 * Werte werden in einer Bitmenge, alle anderen in einem sortierten Feld
+	 * gehalten.
+	 * 
+	 * @param values die Werte, die matchen sollen.
+	 * @return der Matcher.
+	 */
+	static IntMatcher in(final int... values) {
+		if (values.length == 0) {
+			return never();
+		}
+		if (values.length == 1) {
+			final int single = values[0];
+			return value -> value == single;
+		}
+
+		final int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		if (sorted[0] >= 0 && sorted[sorted.length - 1] < 1 << 16) {
+			final BitSet bits = new BitSet(sorted[sorted.length - 1] + 1);
+			for (final int value : sorted) {
+				bits.set(value);
+			}
+			return value -> value >= 0 && bits.get(value);
+		}
+		return value -> Arrays.binarySearch(sorted, value) >= 0;
+	}
+
+	/**
+	 * Verknüpft mehrere Matcher mit Und. Die Prüfung bricht beim ersten Matcher
+	 * ab, der nicht matcht.
+	 * 
+	 * @param matchers die Matcher.
+	 * @return der Matcher, für einen leeren Aufruf {@link #always()}.
+	 */
+	static IntMatcher allOf(final IntMatcher... matchers) {
+		final IntMatcher[] all = matchers.clone();
+		return value -> {
+			for (final IntMatcher matcher : all) {
+				if (!matcher.match(value)) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * Verknüpft mehrere Matcher mit Oder. Die Prüfung bricht beim ersten Matcher
+	 * ab, der matcht.
+	 * 
+	 * @param matchers die Matcher.
+	 * @return der Matcher, für einen leeren Aufruf {@link #never()}.
+	 */
+	static IntMatcher anyOf(final IntMatcher... matchers) {
+		final IntMatcher[] any = matchers.clone();
+		return value -> {
+			for (final IntMatcher matcher : any) {
+				if (matcher.match(value)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	/**
+	 * Passt einen generischen Matcher an. Jeder Wert wird dabei geboxt.
+	 * 
+	 * @param matcher der generische Matcher.
+	 * @return der angepasste Matcher.
+	 */
+	static IntMatcher of(final ValueMatcher<? super Integer> matcher) {
+		return matcher::match;
+	}
+
+	/**
+	 * Gibt {@code true} zurück, wenn der übergebene Wert matcht und {@code
+	 * false}, wenn er nicht matcht.
+	 * 
+	 * @param value ein beliebiger Wert.
+	 * @return ob der Wert matcht.
+	 */
+	boolean match(int value);
+
+	/**
+	 * Verknüpft diesen Matcher mit einem anderen mit Und.
+	 * 
+	 * @param other der andere Matcher.
+	 * @return der verknüpfte Matcher.
+	 */
+	default IntMatcher and(final IntMatcher other) {
+		return value -> match(value) && other.match(value);
+	}
+
+	/**
+	 * Verknüpft diesen Matcher mit einem anderen mit Oder.
+	 * 
+	 * @param other der andere Matcher.
+	 * @return der verknüpfte Matcher.
+	 */
+	default IntMatcher or(final IntMatcher other) {
+		return value -> match(value) || other.match(value);
+	}
+
+	/**
+	 * Gibt einen Matcher zurück, der genau dann matcht, wenn dieser nicht matcht.
+	 * 
+	 * @return der negierte Matcher.
+	 */
+	default IntMatcher negate() {
+		return value -> !match(value);
+	}
+
+	/**
+	 * Passt diesen Matcher an die generische Schnittstelle an. Für {@code null}
+	 * wird {@code false} zurückgegeben.
+	 * 
+	 * @return der generische Matcher.
+	 */
+	default ValueMatcher<Integer> boxed() {
+		return value -> value != null && match(value);
+	}
+
+}
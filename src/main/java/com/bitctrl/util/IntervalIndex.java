@@ -0,0 +1,208 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Unveränderlicher Index über eine feste Menge von {@link Interval}en. Die
+ * Intervalle werden einmal nach Start und Ende sortiert, darüber liegt ein
+ * impliziter, balancierter Suchbaum, dessen Knoten das größte Ende ihres
+ * Teilbaums kennen. Punkt- und Überlappungsabfragen kosten damit
+ * O(log&nbsp;n&nbsp;+&nbsp;k) für k Treffer, ohne dass Baumknoten angelegt
+ * werden.
+ * <p>
+ * Die Intervalle gelten wie bei {@link Interval#contains(long)} als
+ * abgeschlossen, zwei Intervalle überlappen sich also auch, wenn sie nur eine
+ * Grenze gemeinsam haben. Als Liste enthält der Index die Intervalle nach Start
+ * und Ende sortiert.
+ * 
+ * @author BitCtrl Systems GmbH
+ * @param <T> der Typ der Intervalle.
+ * @see IntervalTree
+ */
+public class IntervalIndex<T extends Interval> extends AbstractList<T> implements RandomAccess {
+
+	/** Sortierung nach Start und bei gleichem Start nach Ende. */
+	private static final Comparator<Interval> ORDER = Comparator.comparingLong(Interval::getStart)
+			.thenComparingLong(Interval::getEnd);
+
+	private final Interval[] intervals;
+	private final long[] starts;
+	private final long[] ends;
+
+	/** Das größte Ende im Teilbaum, dessen Wurzel der Index ist. */
+	private final long[] maxEnds;
+
+	/**
+	 * Erzeugt den Index für eine Menge von Intervallen.
+	 * 
+	 * @param intervals die Intervalle, die Sammlung wird nicht weiter referenziert.
+	 */
+	public IntervalIndex(final Collection<? extends T> intervals) {
+		this.intervals = intervals.toArray(new Interval[intervals.size()]);
+		Arrays.sort(this.intervals, ORDER);
+
+		final int n = this.intervals.length;
+		starts = new long[n];
+		ends = new long[n];
+		for (int i = 0; i < n; i++) {
+			starts[i] = this.intervals[i].getStart();
+			ends[i] = this.intervals[i].getEnd();
+		}
+		maxEnds = new long[n];
+		buildMaxEnds(0, n);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(final int index) {
+		return (T) intervals[index];
+	}
+
+	@Override
+	public int size() {
+		return intervals.length;
+	}
+
+	/**
+	 * Übergibt alle Intervalle, die einen Wert enthalten, nach Start sortiert an
+	 * eine Aktion.
+	 * 
+	 * @param value  der gesuchte Wert.
+	 * @param action die Aktion für jeden Treffer.
+	 */
+	public void stab(final long value, final Consumer<? super T> action) {
+		overlapping(value, value, action);
+	}
+
+	/**
+	 * Gibt alle Intervalle zurück, die einen Wert enthalten.
+	 * 
+	 * @param value der gesuchte Wert.
+	 * @return die Treffer nach Start sortiert.
+	 */
+	public List<T> stab(final long value) {
+		final List<T> result = new ArrayList<>();
+		stab(value, result::add);
+		return result;
+	}
+
+	/**
+	 * Übergibt alle Intervalle, die mindestens einen Punkt mit dem Bereich
+	 * gemeinsam haben, nach Start sortiert an eine Aktion.
+	 * 
+	 * @param start  der Start des Bereichs.
+	 * @param end    das Ende des Bereichs.
+	 * @param action die Aktion für jeden Treffer.
+	 */
+	public void overlapping(final long start, final long end, final Consumer<? super T> action) {
+		if (start > end) {
+			throw new IllegalArgumentException("Das Ende des Bereichs liegt vor dessen Start.");
+		}
+		overlapping(0, intervals.length, start, end, action);
+	}
+
+	/**
+	 * Gibt alle Intervalle zurück, die mindestens einen Punkt mit dem Fenster
+	 * gemeinsam haben.
+	 * 
+	 * @param window das Fenster.
+	 * @return die Treffer nach Start sortiert.
+	 */
+	public List<T> overlapping(final Interval window) {
+		final List<T> result = new ArrayList<>();
+		overlapping(window.getStart(), window.getEnd(), result::add);
+		return result;
+	}
+
+	/**
+	 * Fasst alle sich überlappenden oder berührenden Intervalle zusammen.
+	 * 
+	 * @return die zusammengefassten, disjunkten Intervalle nach Start sortiert.
+	 */
+	public List<Interval> merged() {
+		final Intervals.Merger merger = new Intervals.Merger();
+		for (final Interval interval : intervals) {
+			merger.add(interval);
+		}
+		return merger.result();
+	}
+
+	/**
+	 * Bestimmt die Lücken in einem Fenster, die von keinem Intervall abgedeckt
+	 * werden.
+	 * 
+	 * @param window das Fenster.
+	 * @return die Lücken nach Start sortiert. Die Grenzen einer Lücke sind die
+	 *         Grenzen der angrenzenden Intervalle bzw. des Fensters.
+	 */
+	public List<Interval> gaps(final Interval window) {
+		final Intervals.GapFinder finder = new Intervals.GapFinder(window);
+		overlapping(window.getStart(), window.getEnd(), finder::add);
+		return finder.result();
+	}
+
+	private long buildMaxEnds(final int lo, final int hi) {
+		if (lo >= hi) {
+			return Long.MIN_VALUE;
+		}
+		final int mid = lo + hi >>> 1;
+		final long max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+		maxEnds[mid] = max;
+		return max;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void overlapping(final int lo, final int hi, final long start, final long end,
+			final Consumer<? super T> action) {
+		if (lo >= hi) {
+			return;
+		}
+		final int mid = lo + hi >>> 1;
+		if (maxEnds[mid] < start) {
+			return;
+		}
+		overlapping(lo, mid, start, end, action);
+		if (starts[mid] > end) {
+			// alle weiteren Intervalle beginnen erst nach dem Bereich
+			return;
+		}
+		if (ends[mid] >= start) {
+			action.accept((T) intervals[mid]);
+		}
+		overlapping(mid + 1, hi, start, end, action);
+	}
+
+}
@@ -0,0 +1,576 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kompakte Menge von Zeitbereichen, zum Beispiel die Abdeckung einer Zeitachse
+ * mit Daten. Die Bereiche werden sortiert und disjunkt als Paare aus Start und
+ * Ende in einem einzigen {@code long[]} gehalten, ein Bereich kostet also nur
+ * 16&nbsp;Byte.
+ * <p>
+ * Die Bereiche werden wie Abschnitte einer Zeitachse behandelt: Die Länge eines
+ * Bereichs ist wie bei {@link Interval#getLength()} die Differenz von Ende und
+ * Start, Bereiche der Länge 0 decken nichts ab und werden ignoriert. Bereiche,
+ * die sich überlappen oder berühren, werden zu einem Bereich verschmolzen. Die
+ * Differenz zweier Mengen liefert dagegen Bereiche, die an den Grenzen des
+ * entfernten Bereichs enden bzw. beginnen.
+ * <p>
+ * Die Position beim Einfügen und Entfernen wird binär gesucht. Das Verschieben
+ * der folgenden Bereiche entfällt, wenn wie üblich in zeitlicher Reihenfolge
+ * angehängt wird. Vereinigung, Schnitt und Differenz zweier Mengen arbeiten in
+ * linearer Zeit.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public class IntervalSet {
+
+	private static final long[] EMPTY = {};
+
+	/** Start und Ende der Bereiche im Wechsel. */
+	private long[] data;
+
+	/** Anzahl der Bereiche. */
+	private int size;
+
+	/**
+	 * Erzeugt eine leere Menge.
+	 */
+	public IntervalSet() {
+		data = EMPTY;
+	}
+
+	/**
+	 * Erzeugt eine leere Menge mit Platz für die angegebene Anzahl Bereiche.
+	 * 
+	 * @param capacity die erwartete Anzahl disjunkter Bereiche.
+	 */
+	public IntervalSet(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Die Kapazität darf nicht negativ sein: " + capacity);
+		}
+		data = capacity == 0 ? EMPTY : new long[2 * capacity];
+	}
+
+	/**
+	 * Erzeugt eine Kopie einer Menge.
+	 * 
+	 * @param other die zu kopierende Menge.
+	 */
+	public IntervalSet(final IntervalSet other) {
+		data = Arrays.copyOf(other.data, 2 * other.size);
+		size = other.size;
+	}
+
+	/**
+	 * Erzeugt eine Menge aus beliebig vielen, auch unsortierten Intervallen.
+	 * 
+	 * @param intervals die Intervalle.
+	 */
+	public IntervalSet(final Iterable<? extends Interval> intervals) {
+		this();
+		for (final Interval interval : intervals) {
+			add(interval);
+		}
+	}
+
+	/**
+	 * Nimmt ein Intervall in die Menge auf.
+	 * 
+	 * @param interval das Intervall.
+	 * @see #add(long, long)
+	 */
+	public void add(final Interval interval) {
+		add(interval.getStart(), interval.getEnd());
+	}
+
+	/**
+	 * Nimmt einen Bereich in die Menge auf. Überlappende und berührende Bereiche
+	 * werden mit ihm verschmolzen.
+	 * 
+	 * @param start der Start des Bereichs.
+	 * @param end   das Ende des Bereichs.
+	 * @throws IllegalArgumentException wenn das Ende vor dem Start liegt.
+	 */
+	public void add(final long start, final long end) {
+		check(start, end);
+		if (start == end) {
+			return;
+		}
+
+		if (size == 0 || start > data[2 * size - 1]) {
+			// häufigster Fall, Anhängen in zeitlicher Reihenfolge
+			ensureCapacity(size + 1);
+			data[2 * size] = start;
+			data[2 * size + 1] = end;
+			size++;
+			return;
+		}
+
+		final int first = firstEndAtLeast(start);
+		final int last = firstStartAfter(end);
+		if (first == last) {
+			replace(first, last, start, end);
+		} else {
+			replace(first, last, Math.min(start, data[2 * first]), Math.max(end, data[2 * last - 1]));
+		}
+	}
+
+	/**
+	 * Nimmt alle Bereiche einer anderen Menge in diese Menge auf.
+	 * 
+	 * @param other die andere Menge.
+	 */
+	public void addAll(final IntervalSet other) {
+		final IntervalSet union = union(other);
+		data = union.data;
+		size = union.size;
+	}
+
+	/**
+	 * Entfernt einen Bereich aus der Menge. Bereiche, die ihn teilweise
+	 * überlappen, werden an seinen Grenzen abgeschnitten.
+	 * 
+	 * @param start der Start des Bereichs.
+	 * @param end   das Ende des Bereichs.
+	 * @throws IllegalArgumentException wenn das Ende vor dem Start liegt.
+	 */
+	public void remove(final long start, final long end) {
+		check(start, end);
+		if (start == end || size == 0) {
+			return;
+		}
+
+		final int first = firstEndAfter(start);
+		final int last = firstStartAtLeast(end);
+		if (first >= last) {
+			return;
+		}
+
+		final long leftStart = data[2 * first];
+		final long rightEnd = data[2 * last - 1];
+		final boolean left = leftStart < start;
+		final boolean right = rightEnd > end;
+		if (left && right) {
+			replace(first, last, leftStart, start);
+			replace(first + 1, first + 1, end, rightEnd);
+		} else if (left) {
+			replace(first, last, leftStart, start);
+		} else if (right) {
+			replace(first, last, end, rightEnd);
+		} else {
+			replace(first, last);
+		}
+	}
+
+	/**
+	 * Entfernt alle Bereiche.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Prüft, ob ein Zeitpunkt abgedeckt ist. Der Start eines Bereichs gehört dazu,
+	 * das Ende nicht.
+	 * 
+	 * @param value der Zeitpunkt.
+	 * @return {@code true}, wenn der Zeitpunkt in einem Bereich liegt.
+	 */
+	public boolean contains(final long value) {
+		final int i = firstEndAfter(value);
+		return i < size && data[2 * i] <= value;
+	}
+
+	/**
+	 * Prüft, ob ein Bereich vollständig abgedeckt ist.
+	 * 
+	 * @param start der Start des Bereichs.
+	 * @param end   das Ende des Bereichs.
+	 * @return {@code true}, wenn der Bereich in einem Bereich der Menge liegt.
+	 */
+	public boolean covers(final long start, final long end) {
+		check(start, end);
+		if (start == end) {
+			return contains(start);
+		}
+		final int i = firstEndAtLeast(end);
+		return i < size && data[2 * i] <= start;
+	}
+
+	/**
+	 * Gibt die Anzahl der disjunkten Bereiche zurück.
+	 * 
+	 * @return die Anzahl.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Fragt, ob die Menge leer ist.
+	 * 
+	 * @return {@code true}, wenn kein Bereich abgedeckt ist.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gibt den Start eines Bereichs zurück.
+	 * 
+	 * @param index der Index des Bereichs, die Bereiche sind aufsteigend sortiert.
+	 * @return der Start.
+	 */
+	public long getStart(final int index) {
+		checkIndex(index);
+		return data[2 * index];
+	}
+
+	/**
+	 * Gibt das Ende eines Bereichs zurück.
+	 * 
+	 * @param index der Index des Bereichs, die Bereiche sind aufsteigend sortiert.
+	 * @return das Ende.
+	 */
+	public long getEnd(final int index) {
+		checkIndex(index);
+		return data[2 * index + 1];
+	}
+
+	/**
+	 * Bestimmt die insgesamt abgedeckte Länge.
+	 * 
+	 * @return die Summe der Längen aller Bereiche.
+	 */
+	public long length() {
+		long length = 0;
+		for (int i = 0; i < 2 * size; i += 2) {
+			length += data[i + 1] - data[i];
+		}
+		return length;
+	}
+
+	/**
+	 * Bestimmt die abgedeckte Länge innerhalb eines Fensters.
+	 * 
+	 * @param start der Start des Fensters.
+	 * @param end   das Ende des Fensters.
+	 * @return die Summe der Längen aller Bereiche im Fenster.
+	 */
+	public long length(final long start, final long end) {
+		check(start, end);
+		long length = 0;
+		for (int i = firstEndAfter(start); i < size && data[2 * i] < end; i++) {
+			length += Math.min(end, data[2 * i + 1]) - Math.max(start, data[2 * i]);
+		}
+		return length;
+	}
+
+	/**
+	 * Bildet die Vereinigung mit einer anderen Menge.
+	 * 
+	 * @param other die andere Menge.
+	 * @return eine neue Menge.
+	 */
+	public IntervalSet union(final IntervalSet other) {
+		final IntervalSet result = new IntervalSet(size + other.size);
+		final long[] a = data;
+		final long[] b = other.data;
+		final int na = 2 * size;
+		final int nb = 2 * other.size;
+		int i = 0;
+		int j = 0;
+		while (i < na || j < nb) {
+			final long s;
+			final long e;
+			if (j >= nb || i < na && a[i] <= b[j]) {
+				s = a[i];
+				e = a[i + 1];
+				i += 2;
+			} else {
+				s = b[j];
+				e = b[j + 1];
+				j += 2;
+			}
+
+			final int n = result.size;
+			if (n > 0 && s <= result.data[2 * n - 1]) {
+				result.data[2 * n - 1] = Math.max(result.data[2 * n - 1], e);
+			} else {
+				result.data[2 * n] = s;
+				result.data[2 * n + 1] = e;
+				result.size++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Bildet den Schnitt mit einer anderen Menge.
+	 * 
+	 * @param other die andere Menge.
+	 * @return eine neue Menge.
+	 */
+	public IntervalSet intersection(final IntervalSet other) {
+		final IntervalSet result = new IntervalSet(size + other.size);
+		final long[] a = data;
+		final long[] b = other.data;
+		final int na = 2 * size;
+		final int nb = 2 * other.size;
+		int i = 0;
+		int j = 0;
+		while (i < na && j < nb) {
+			final long s = Math.max(a[i], b[j]);
+			final long e = Math.min(a[i + 1], b[j + 1]);
+			if (s < e) {
+				result.data[2 * result.size] = s;
+				result.data[2 * result.size + 1] = e;
+				result.size++;
+			}
+			if (a[i + 1] < b[j + 1]) {
+				i += 2;
+			} else {
+				j += 2;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Bildet die Differenz mit einer anderen Menge.
+	 * 
+	 * @param other die abzuziehende Menge.
+	 * @return eine neue Menge mit allen Bereichen dieser Menge, die nicht von der
+	 *         anderen Menge abgedeckt werden.
+	 */
+	public IntervalSet difference(final IntervalSet other) {
+		final IntervalSet result = new IntervalSet(size + other.size);
+		final long[] a = data;
+		final long[] b = other.data;
+		final int na = 2 * size;
+		final int nb = 2 * other.size;
+		int j = 0;
+		for (int i = 0; i < na; i += 2) {
+			long s = a[i];
+			final long e = a[i + 1];
+			while (j < nb && b[j + 1] <= s) {
+				j += 2;
+			}
+			int k = j;
+			while (k < nb && b[k] < e) {
+				if (b[k] > s) {
+					result.data[2 * result.size] = s;
+					result.data[2 * result.size + 1] = b[k];
+					result.size++;
+				}
+				s = Math.max(s, b[k + 1]);
+				if (b[k + 1] >= e) {
+					break;
+				}
+				k += 2;
+			}
+			if (s < e) {
+				result.data[2 * result.size] = s;
+				result.data[2 * result.size + 1] = e;
+				result.size++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Bestimmt die nicht abgedeckten Lücken in einem Fenster.
+	 * 
+	 * @param start der Start des Fensters.
+	 * @param end   das Ende des Fensters.
+	 * @return eine neue Menge mit den Lücken.
+	 */
+	public IntervalSet gaps(final long start, final long end) {
+		final IntervalSet window = new IntervalSet(1);
+		window.add(start, end);
+		return window.difference(this);
+	}
+
+	/**
+	 * Gibt die Bereiche als Intervalle zurück.
+	 * 
+	 * @param timestamp Flag, ob es sich um Zeitintervalle handelt.
+	 * @return die Intervalle aufsteigend sortiert.
+	 */
+	public List<Interval> toIntervals(final boolean timestamp) {
+		final List<Interval> result = new ArrayList<>(size);
+		for (int i = 0; i < 2 * size; i += 2) {
+			result.add(new Interval(data[i], data[i + 1], timestamp));
+		}
+		return result;
+	}
+
+	/**
+	 * Gibt nicht benötigten Speicher frei.
+	 */
+	public void trimToSize() {
+		if (data.length > 2 * size) {
+			data = size == 0 ? EMPTY : Arrays.copyOf(data, 2 * size);
+		}
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (obj instanceof final IntervalSet other) {
+			return Arrays.equals(data, 0, 2 * size, other.data, 0, 2 * other.size);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < 2 * size; i++) {
+			hash = 31 * hash + Long.hashCode(data[i]);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder s = new StringBuilder("{");
+		for (int i = 0; i < 2 * size; i += 2) {
+			if (i > 0) {
+				s.append(", ");
+			}
+			s.append('[').append(data[i]).append(", ").append(data[i + 1]).append(']');
+		}
+		return s.append('}').toString();
+	}
+
+	private static void check(final long start, final long end) {
+		if (start > end) {
+			throw new IllegalArgumentException(
+					"Das Ende des Bereichs darf nicht vor dessen Start liegen (start=" + start + ", ende=" + end + ").");
+		}
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Anzahl: " + size);
+		}
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (2 * capacity > data.length) {
+			data = Arrays.copyOf(data, Math.max(2 * capacity, Math.max(8, data.length + (data.length >> 1))));
+		}
+	}
+
+	/** Ersetzt die Bereiche {@code [from, to)} durch einen Bereich. */
+	private void replace(final int from, final int to, final long start, final long end) {
+		final int delta = 1 - (to - from);
+		if (delta > 0) {
+			ensureCapacity(size + delta);
+		}
+		if (delta != 0) {
+			System.arraycopy(data, 2 * to, data, 2 * (from + 1), 2 * (size - to));
+			size += delta;
+		}
+		data[2 * from] = start;
+		data[2 * from + 1] = end;
+	}
+
+	/** Entfernt die Bereiche {@code [from, to)}. */
+	private void replace(final int from, final int to) {
+		System.arraycopy(data, 2 * to, data, 2 * from, 2 * (size - to));
+		size -= to - from;
+	}
+
+	/** Index des ersten Bereichs mit {@code Ende >= value}. */
+	private int firstEndAtLeast(final long value) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			final int mid = lo + hi >>> 1;
+			if (data[2 * mid + 1] < value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/** Index des ersten Bereichs mit {@code Ende > value}. */
+	private int firstEndAfter(final long value) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			final int mid = lo + hi >>> 1;
+			if (data[2 * mid + 1] <= value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/** Index des ersten Bereichs mit {@code Start > value}. */
+	private int firstStartAfter(final long value) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			final int mid = lo + hi >>> 1;
+			if (data[2 * mid] <= value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/** Index des ersten Bereichs mit {@code Start >= value}. */
+	private int firstStartAtLeast(final long value) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			final int mid = lo + hi >>> 1;
+			if (data[2 * mid] < value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+}
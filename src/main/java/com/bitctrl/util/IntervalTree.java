@@ -0,0 +1,461 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Veränderliche Sammlung von {@link Interval}en als erweiterter AVL-Baum. Jeder
+ * Knoten kennt das größte Ende seines Teilbaums, so dass Punkt- und
+ * Überlappungsabfragen nur die Teilbäume besuchen, die Treffer enthalten
+ * können. Einfügen und Entfernen kosten O(log&nbsp;n).
+ * <p>
+ * Intervalle mit gleichen Grenzen teilen sich einen Knoten, die Sammlung darf
+ * also gleiche Intervalle mehrfach enthalten. Die Intervalle gelten wie bei
+ * {@link Interval#contains(long)} als abgeschlossen. Der Iterator liefert die
+ * Intervalle nach Start und Ende sortiert und unterstützt
+ * {@link Iterator#remove()}.
+ * <p>
+ * Für Mengen, die sich nach dem Aufbau nicht mehr ändern, ist
+ * {@link IntervalIndex} schneller und sparsamer.
+ * 
+ * @author BitCtrl Systems GmbH
+ * @param <T> der Typ der Intervalle.
+ */
+public class IntervalTree<T extends Interval> extends AbstractCollection<T> {
+
+	private static final class Node {
+
+		private final long start;
+		private final long end;
+		private final List<Interval> items = new ArrayList<>(1);
+		private Node left;
+		private Node right;
+		private int height = 1;
+		private long maxEnd;
+
+		Node(final Interval interval) {
+			start = interval.getStart();
+			end = interval.getEnd();
+			maxEnd = end;
+			items.add(interval);
+		}
+
+		int compareTo(final long otherStart, final long otherEnd) {
+			final int c = Long.compare(start, otherStart);
+			return c != 0 ? c : Long.compare(end, otherEnd);
+		}
+
+	}
+
+	private Node root;
+	private int size;
+	private int modCount;
+
+	/**
+	 * Erzeugt einen leeren Baum.
+	 */
+	public IntervalTree() {
+		// nix
+	}
+
+	/**
+	 * Erzeugt einen Baum mit den angegebenen Intervallen.
+	 * 
+	 * @param intervals die Intervalle.
+	 */
+	public IntervalTree(final Iterable<? extends T> intervals) {
+		for (final T interval : intervals) {
+			add(interval);
+		}
+	}
+
+	@Override
+	public boolean add(final T interval) {
+		root = insert(root, interval);
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		if (!(o instanceof final Interval interval)) {
+			return false;
+		}
+
+		final Node node = find(interval.getStart(), interval.getEnd());
+		if (node == null || !node.items.remove(interval)) {
+			return false;
+		}
+		if (node.items.isEmpty()) {
+			root = delete(root, node.start, node.end);
+		}
+		size--;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		if (!(o instanceof final Interval interval)) {
+			return false;
+		}
+		final Node node = find(interval.getStart(), interval.getEnd());
+		return node != null && node.items.contains(interval);
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+
+			private final List<Node> path = new ArrayList<>();
+			private int expectedModCount = modCount;
+			private Node node;
+			private int item;
+			private Node lastNode;
+			private int lastItem;
+
+			{
+				descend(root);
+				advance();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return node != null;
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (node == null) {
+					throw new NoSuchElementException();
+				}
+
+				lastNode = node;
+				lastItem = item;
+				final T result = (T) node.items.get(item++);
+				if (item == node.items.size()) {
+					advance();
+				}
+				return result;
+			}
+
+			@Override
+			public void remove() {
+				if (lastNode == null) {
+					throw new IllegalStateException();
+				}
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+
+				lastNode.items.remove(lastItem);
+				if (lastNode == node) {
+					item--;
+				} else if (lastNode.items.isEmpty()) {
+					// beim Löschen wird der Baum umgehängt, der Pfad zum nächsten
+					// Knoten muss neu bestimmt werden
+					root = delete(root, lastNode.start, lastNode.end);
+					rebuildPath();
+				}
+				lastNode = null;
+				size--;
+				expectedModCount = ++modCount;
+			}
+
+			private void rebuildPath() {
+				path.clear();
+				if (node == null) {
+					return;
+				}
+				Node n = root;
+				while (n != node) {
+					if (n.compareTo(node.start, node.end) > 0) {
+						path.add(n);
+						n = n.left;
+					} else {
+						n = n.right;
+					}
+				}
+				descend(node.right);
+			}
+
+			private void descend(final Node start) {
+				for (Node n = start; n != null; n = n.left) {
+					path.add(n);
+				}
+			}
+
+			private void advance() {
+				item = 0;
+				if (path.isEmpty()) {
+					node = null;
+					return;
+				}
+				node = path.remove(path.size() - 1);
+				descend(node.right);
+			}
+
+		};
+	}
+
+	/**
+	 * Übergibt alle Intervalle, die einen Wert enthalten, nach Start sortiert an
+	 * eine Aktion.
+	 * 
+	 * @param value  der gesuchte Wert.
+	 * @param action die Aktion für jeden Treffer.
+	 */
+	public void stab(final long value, final Consumer<? super T> action) {
+		overlapping(value, value, action);
+	}
+
+	/**
+	 * Gibt alle Intervalle zurück, die einen Wert enthalten.
+	 * 
+	 * @param value der gesuchte Wert.
+	 * @return die Treffer nach Start sortiert.
+	 */
+	public List<T> stab(final long value) {
+		final List<T> result = new ArrayList<>();
+		stab(value, result::add);
+		return result;
+	}
+
+	/**
+	 * Übergibt alle Intervalle, die mindestens einen Punkt mit dem Bereich
+	 * gemeinsam haben, nach Start sortiert an eine Aktion. Die Aktion darf den
+	 * Baum nicht verändern.
+	 * 
+	 * @param start  der Start des Bereichs.
+	 * @param end    das Ende des Bereichs.
+	 * @param action die Aktion für jeden Treffer.
+	 */
+	public void overlapping(final long start, final long end, final Consumer<? super T> action) {
+		if (start > end) {
+			throw new IllegalArgumentException("Das Ende des Bereichs liegt vor dessen Start.");
+		}
+		overlapping(root, start, end, action);
+	}
+
+	/**
+	 * Gibt alle Intervalle zurück, die mindestens einen Punkt mit dem Fenster
+	 * gemeinsam haben.
+	 * 
+	 * @param window das Fenster.
+	 * @return die Treffer nach Start sortiert.
+	 */
+	public List<T> overlapping(final Interval window) {
+		final List<T> result = new ArrayList<>();
+		overlapping(window.getStart(), window.getEnd(), result::add);
+		return result;
+	}
+
+	/**
+	 * Fasst alle sich überlappenden oder berührenden Intervalle zusammen.
+	 * 
+	 * @return die zusammengefassten, disjunkten Intervalle nach Start sortiert.
+	 */
+	public List<Interval> merged() {
+		final Intervals.Merger merger = new Intervals.Merger();
+		for (final T interval : this) {
+			merger.add(interval);
+		}
+		return merger.result();
+	}
+
+	/**
+	 * Bestimmt die Lücken in einem Fenster, die von keinem Intervall abgedeckt
+	 * werden.
+	 * 
+	 * @param window das Fenster.
+	 * @return die Lücken nach Start sortiert. Die Grenzen einer Lücke sind die
+	 *         Grenzen der angrenzenden Intervalle bzw. des Fensters.
+	 */
+	public List<Interval> gaps(final Interval window) {
+		final Intervals.GapFinder finder = new Intervals.GapFinder(window);
+		overlapping(window.getStart(), window.getEnd(), finder::add);
+		return finder.result();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void overlapping(final Node node, final long start, final long end, final Consumer<? super T> action) {
+		if (node == null || node.maxEnd < start) {
+			return;
+		}
+		overlapping(node.left, start, end, action);
+		if (node.start > end) {
+			// der rechte Teilbaum beginnt erst recht nach dem Bereich
+			return;
+		}
+		if (node.end >= start) {
+			for (final Interval interval : node.items) {
+				action.accept((T) interval);
+			}
+		}
+		overlapping(node.right, start, end, action);
+	}
+
+	private Node find(final long start, final long end) {
+		Node node = root;
+		while (node != null) {
+			final int c = node.compareTo(start, end);
+			if (c == 0) {
+				return node;
+			}
+			node = c > 0 ? node.left : node.right;
+		}
+		return null;
+	}
+
+	private Node insert(final Node node, final T interval) {
+		if (node == null) {
+			return new Node(interval);
+		}
+
+		final int c = node.compareTo(interval.getStart(), interval.getEnd());
+		if (c == 0) {
+			node.items.add(interval);
+			return node;
+		}
+		if (c > 0) {
+			node.left = insert(node.left, interval);
+		} else {
+			node.right = insert(node.right, interval);
+		}
+		return balance(node);
+	}
+
+	private Node delete(final Node node, final long start, final long end) {
+		final int c = node.compareTo(start, end);
+		if (c > 0) {
+			node.left = delete(node.left, start, end);
+		} else if (c < 0) {
+			node.right = delete(node.right, start, end);
+		} else {
+			if (node.left == null) {
+				return node.right;
+			}
+			if (node.right == null) {
+				return node.left;
+			}
+
+			Node successor = node.right;
+			while (successor.left != null) {
+				successor = successor.left;
+			}
+			successor.right = deleteMin(node.right);
+			successor.left = node.left;
+			return balance(successor);
+		}
+		return balance(node);
+	}
+
+	private Node deleteMin(final Node node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		node.left = deleteMin(node.left);
+		return balance(node);
+	}
+
+	private static int height(final Node node) {
+		return node != null ? node.height : 0;
+	}
+
+	private static void update(final Node node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+		long max = node.end;
+		if (node.left != null && node.left.maxEnd > max) {
+			max = node.left.maxEnd;
+		}
+		if (node.right != null && node.right.maxEnd > max) {
+			max = node.right.maxEnd;
+		}
+		node.maxEnd = max;
+	}
+
+	private static Node balance(final Node node) {
+		update(node);
+		final int balance = height(node.left) - height(node.right);
+		if (balance > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private static Node rotateRight(final Node node) {
+		final Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		update(node);
+		update(left);
+		return left;
+	}
+
+	private static Node rotateLeft(final Node node) {
+		final Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		update(node);
+		update(right);
+		return right;
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gemeinsame Auswertungen für {@link IntervalTree} und {@link IntervalIndex}.
+ * Die Intervalle müssen jeweils nach ihrem Start sortiert übergeben werden.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class Intervals {
+
+	/**
+	 * Sammelt nach Start sortierte Intervalle und fasst dabei sich berührende
+	 * Intervalle zusammen.
+	 */
+	static final class Merger {
+
+		private final List<Interval> result = new ArrayList<>();
+		private boolean timestamp;
+		private boolean open;
+		private long start;
+		private long end;
+
+		void add(final Interval interval) {
+			if (open && interval.getStart() <= end) {
+				end = Math.max(end, interval.getEnd());
+				return;
+			}
+			flush();
+			open = true;
+			timestamp = interval.isTimestamp();
+			start = interval.getStart();
+			end = interval.getEnd();
+		}
+
+		List<Interval> result() {
+			flush();
+			return result;
+		}
+
+		private void flush() {
+			if (open) {
+				result.add(new Interval(start, end, timestamp));
+				open = false;
+			}
+		}
+
+	}
+
+	/**
+	 * Sammelt nach Start sortierte Intervalle und bestimmt die nicht abgedeckten
+	 * Lücken in einem Fenster.
+	 */
+	static final class GapFinder {
+
+		private final Interval window;
+		private final List<Interval> result = new ArrayList<>();
+		private long covered;
+
+		GapFinder(final Interval window) {
+			this.window = window;
+			covered = window.getStart();
+		}
+
+		void add(final Interval interval) {
+			if (interval.getStart() > covered && covered < window.getEnd()) {
+				result.add(new Interval(covered, Math.min(interval.getStart(), window.getEnd()), window.isTimestamp()));
+			}
+			covered = Math.max(covered, interval.getEnd());
+		}
+
+		List<Interval> result() {
+			if (covered < window.getEnd()) {
+				result.add(new Interval(covered, window.getEnd(), window.isTimestamp()));
+				covered = window.getEnd();
+			}
+			return result;
+		}
+
+	}
+
+	private Intervals() {
+		// Hilfsklasse
+	}
+
+}
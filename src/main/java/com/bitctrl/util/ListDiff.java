@@ -0,0 +1,528 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bestimmt die Unterschiede zwischen zwei Ständen einer Liste und beschreibt sie
+ * als Folge von Änderungen, die direkt als {@link ListChangedEvent}
+ * verschickt werden können.
+ * <p>
+ * Für geordnete Listen wird mit dem Verfahren von Myers (in der Variante mit
+ * linearem Speicherbedarf) ein minimales Edit-Skript bestimmt, der Aufwand ist
+ * proportional zur Listenlänge mal der Anzahl der Unterschiede. Für
+ * ungeordnete Listen genügt ein Vergleich über Hash-Tabellen in linearer Zeit.
+ * Unterscheiden sich lange Listen sehr stark, wird die Suche abgebrochen und der
+ * betroffene Bereich als Ganzes ersetzt; das Edit-Skript ist dann nicht mehr
+ * minimal.
+ * <p>
+ * Benachbarte Einfügungen und Löschungen werden zu einer Änderung
+ * zusammengefasst. Jede Änderung bezieht sich auf die Liste, wie sie nach dem
+ * Anwenden aller vorherigen Änderungen aussieht: Ab {@code indexFrom} werden
+ * die entfernten Elemente durch die hinzugefügten ersetzt.
+ * 
+ * @author BitCtrl Systems GmbH
+ * 
+ * @param <T> der Typ der Listenelemente.
+ */
+public final class ListDiff<T> {
+
+	/** Eine zusammenhängende Änderung. */
+	private static final class Change<T> {
+
+		private final int index;
+		private final List<T> removed;
+		private final List<T> added;
+
+		Change(final int index, final List<T> removed, final List<T> added) {
+			this.index = index;
+			this.removed = removed;
+			this.added = added;
+		}
+
+	}
+
+	/**
+	 * Bestimmt ein minimales Edit-Skript zwischen zwei geordneten Listen. Die
+	 * Elemente werden mit {@link Object#equals(Object)} verglichen.
+	 * 
+	 * @param <T>     der Typ der Listenelemente.
+	 * @param oldList der alte Stand der Liste.
+	 * @param newList der neue Stand der Liste.
+	 * @return die Unterschiede.
+	 */
+	public static <T> ListDiff<T> ordered(final List<? extends T> oldList, final List<? extends T> newList) {
+		final int n = oldList.size();
+		final int m = newList.size();
+
+		// Elemente einmal hashen und danach nur noch Zahlen vergleichen
+		final Map<Object, Integer> ids = new HashMap<>();
+		final int[] a = new int[n];
+		final int[] b = new int[m];
+		int i = 0;
+		for (final T e : oldList) {
+			a[i++] = ids.computeIfAbsent(e, k -> ids.size());
+		}
+		i = 0;
+		for (final T e : newList) {
+			b[i++] = ids.computeIfAbsent(e, k -> ids.size());
+		}
+
+		// Elemente, die nur in einer Liste vorkommen, sind in jedem Fall Änderungen
+		// und werden vor der eigentlichen Suche aussortiert
+		final boolean[] inA = new boolean[ids.size()];
+		final boolean[] inB = new boolean[ids.size()];
+		for (final int id : a) {
+			inA[id] = true;
+		}
+		for (final int id : b) {
+			inB[id] = true;
+		}
+		final int[] aIndex = compact(a, inB);
+		final int[] bIndex = compact(b, inA);
+		final int[] a2 = new int[aIndex.length];
+		for (i = 0; i < a2.length; i++) {
+			a2[i] = a[aIndex[i]];
+		}
+		final int[] b2 = new int[bIndex.length];
+		for (i = 0; i < b2.length; i++) {
+			b2[i] = b[bIndex[i]];
+		}
+
+		final Myers myers = new Myers(a2, b2);
+		myers.diff(0, a2.length, 0, b2.length);
+
+		final boolean[] removedAt = new boolean[n];
+		Arrays.fill(removedAt, true);
+		for (i = 0; i < aIndex.length; i++) {
+			removedAt[aIndex[i]] = myers.removed[i];
+		}
+		final boolean[] addedAt = new boolean[m];
+		Arrays.fill(addedAt, true);
+		for (i = 0; i < bIndex.length; i++) {
+			addedAt[bIndex[i]] = myers.added[i];
+		}
+
+		final List<T> oldElements = new ArrayList<>(oldList);
+		final List<T> newElements = new ArrayList<>(newList);
+		final List<Change<T>> changes = new ArrayList<>();
+		int x = 0;
+		int y = 0;
+		while (x < n || y < m) {
+			if (x < n && y < m && !removedAt[x] && !addedAt[y]) {
+				x++;
+				y++;
+				continue;
+			}
+
+			final int x0 = x;
+			final int y0 = y;
+			while (x < n && removedAt[x]) {
+				x++;
+			}
+			while (y < m && addedAt[y]) {
+				y++;
+			}
+			changes.add(new Change<>(y0, new ArrayList<>(oldElements.subList(x0, x)),
+					new ArrayList<>(newElements.subList(y0, y))));
+		}
+
+		return new ListDiff<>(changes, true);
+	}
+
+	/**
+	 * Bestimmt die Unterschiede zwischen zwei Listen, deren Reihenfolge keine
+	 * Rolle spielt. Die Listen werden wie Multimengen verglichen: Entfernt werden
+	 * die überzähligen Elemente des alten Stands, die neuen Elemente werden am
+	 * Ende angehängt. Nach dem Anwenden enthält die Liste also dieselben Elemente
+	 * wie der neue Stand, aber nicht unbedingt in derselben Reihenfolge.
+	 * 
+	 * @param <T>     der Typ der Listenelemente.
+	 * @param oldList der alte Stand der Liste.
+	 * @param newList der neue Stand der Liste.
+	 * @return die Unterschiede.
+	 */
+	public static <T> ListDiff<T> unordered(final List<? extends T> oldList, final List<? extends T> newList) {
+		// je Element: wie oft noch im neuen Stand verfügbar, wie oft zugeordnet
+		final Map<T, int[]> counts = new HashMap<>();
+		for (final T e : newList) {
+			counts.computeIfAbsent(e, k -> new int[2])[0]++;
+		}
+
+		final List<Change<T>> changes = new ArrayList<>();
+		List<T> removed = null;
+		int index = 0;
+		for (final T e : oldList) {
+			final int[] count = counts.get(e);
+			if (count != null && count[0] > 0) {
+				count[0]--;
+				count[1]++;
+				if (removed != null) {
+					changes.add(new Change<>(index, removed, new ArrayList<>()));
+					removed = null;
+				}
+				index++;
+			} else {
+				if (removed == null) {
+					removed = new ArrayList<>();
+				}
+				removed.add(e);
+			}
+		}
+		if (removed != null) {
+			changes.add(new Change<>(index, removed, new ArrayList<>()));
+		}
+
+		final List<T> added = new ArrayList<>();
+		for (final T e : newList) {
+			final int[] count = counts.get(e);
+			if (count[1] > 0) {
+				count[1]--;
+			} else {
+				added.add(e);
+			}
+		}
+		if (!added.isEmpty()) {
+			changes.add(new Change<>(index, new ArrayList<>(), added));
+		}
+
+		return new ListDiff<>(changes, false);
+	}
+
+	private static int[] compact(final int[] ids, final boolean[] keep) {
+		int count = 0;
+		for (final int id : ids) {
+			if (keep[id]) {
+				count++;
+			}
+		}
+		final int[] indices = new int[count];
+		count = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (keep[ids[i]]) {
+				indices[count++] = i;
+			}
+		}
+		return indices;
+	}
+
+	private final List<Change<T>> changes;
+	private final List<T> added = new ArrayList<>();
+	private final List<T> removed = new ArrayList<>();
+	private final List<T> moved = new ArrayList<>();
+
+	private ListDiff(final List<Change<T>> changes, final boolean detectMoves) {
+		this.changes = changes;
+
+		for (final Change<T> change : changes) {
+			removed.addAll(change.removed);
+		}
+		if (!detectMoves) {
+			for (final Change<T> change : changes) {
+				added.addAll(change.added);
+			}
+			return;
+		}
+
+		// verschoben sind Elemente, die an einer Stelle entfernt und an einer
+		// anderen wieder eingefügt werden
+		final Map<T, int[]> counts = new HashMap<>();
+		for (final T e : removed) {
+			counts.computeIfAbsent(e, k -> new int[1])[0]++;
+		}
+		for (final Change<T> change : changes) {
+			for (final T e : change.added) {
+				final int[] count = counts.get(e);
+				if (count != null && count[0] > 0) {
+					count[0]--;
+					moved.add(e);
+				} else {
+					added.add(e);
+				}
+			}
+		}
+		if (!moved.isEmpty()) {
+			removed.clear();
+			for (final Change<T> change : changes) {
+				for (final T e : change.removed) {
+					final int[] count = counts.get(e);
+					if (count[0] > 0) {
+						count[0]--;
+						removed.add(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gibt an, ob die beiden Listen gleich sind.
+	 * 
+	 * @return {@code true}, wenn es keine Änderungen gibt.
+	 */
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	/**
+	 * Gibt die Anzahl der zusammengefassten Änderungen zurück. Das ist zugleich
+	 * die Anzahl der Events, die {@link #toEvents(Object)} liefert.
+	 * 
+	 * @return die Anzahl der Änderungen.
+	 */
+	public int getChangeCount() {
+		return changes.size();
+	}
+
+	/**
+	 * Gibt die Elemente zurück, die nur im neuen Stand vorkommen.
+	 * 
+	 * @return die hinzugefügten Elemente in der Reihenfolge des neuen Stands.
+	 */
+	public List<T> getAdded() {
+		return Collections.unmodifiableList(added);
+	}
+
+	/**
+	 * Gibt die Elemente zurück, die nur im alten Stand vorkommen.
+	 * 
+	 * @return die entfernten Elemente in der Reihenfolge des alten Stands.
+	 */
+	public List<T> getRemoved() {
+		return Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * Gibt die Elemente zurück, die in beiden Ständen vorkommen, aber ihre Position
+	 * relativ zu den anderen Elementen geändert haben. Für ungeordnete Listen ist
+	 * die Liste immer leer.
+	 * 
+	 * @return die verschobenen Elemente in der Reihenfolge des neuen Stands.
+	 */
+	public List<T> getMoved() {
+		return Collections.unmodifiableList(moved);
+	}
+
+	/**
+	 * Erzeugt für jede Änderung ein Event. Ein Event ersetzt ab
+	 * {@link ListChangedEvent#getIndexFrom()} die entfernten Elemente durch die
+	 * hinzugefügten, {@link ListChangedEvent#getIndexTo()} ist der letzte davon
+	 * betroffene Index.
+	 * 
+	 * @param source die Quelle der Events.
+	 * @return die Events in der Reihenfolge, in der sie angewendet werden müssen.
+	 */
+	public List<ListChangedEvent<T>> toEvents(final Object source) {
+		final List<ListChangedEvent<T>> events = new ArrayList<>(changes.size());
+		for (final Change<T> change : changes) {
+			final int indexTo = change.index + Math.max(change.added.size(), change.removed.size()) - 1;
+			events.add(new ListChangedEvent<>(source, change.index, indexTo, change.added, change.removed));
+		}
+		return events;
+	}
+
+	/**
+	 * Benachrichtigt einen Listener über alle Änderungen.
+	 * 
+	 * @param source   die Quelle der Events.
+	 * @param listener der Listener.
+	 * @see #toEvents(Object)
+	 */
+	public void fire(final Object source, final ListChangedListener<T> listener) {
+		for (final ListChangedEvent<T> e : toEvents(source)) {
+			listener.listChanged(e);
+		}
+	}
+
+	/**
+	 * Wendet die Änderungen auf eine Liste an, die dem alten Stand entspricht.
+	 * 
+	 * @param list die Liste, die geändert wird.
+	 */
+	public void apply(final List<T> list) {
+		for (final Change<T> change : changes) {
+			final List<T> range = list.subList(change.index, change.index + change.removed.size());
+			range.clear();
+			range.addAll(change.added);
+		}
+	}
+
+	/**
+	 * Das Verfahren von Myers mit linearem Speicherbedarf. Es wird rekursiv die
+	 * mittlere Diagonale des kürzesten Edit-Pfads gesucht und die beiden Hälften
+	 * werden getrennt gelöst.
+	 */
+	private static final class Myers {
+
+		/**
+		 * Die maximale Anzahl Vergleiche für die Suche nach einer mittleren
+		 * Diagonale.
+		 */
+		private static final long MAX_COST = 1L << 28;
+
+		private final int[] a;
+		private final int[] b;
+		final boolean[] removed;
+		final boolean[] added;
+		private final int[] forward;
+		private final int[] backward;
+		private final int offset;
+
+		/** Anfang und Ende der zuletzt gefundenen mittleren Diagonale. */
+		private int snakeX;
+		private int snakeY;
+		private int snakeU;
+		private int snakeV;
+
+		Myers(final int[] a, final int[] b) {
+			this.a = a;
+			this.b = b;
+			removed = new boolean[a.length];
+			added = new boolean[b.length];
+			offset = a.length + b.length + 1;
+			forward = new int[2 * offset + 1];
+			backward = new int[2 * offset + 1];
+		}
+
+		void diff(int aLo, int aHi, int bLo, int bHi) {
+			while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+				aLo++;
+				bLo++;
+			}
+			while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) {
+				aHi--;
+				bHi--;
+			}
+			if (aLo == aHi) {
+				for (int j = bLo; j < bHi; j++) {
+					added[j] = true;
+				}
+				return;
+			}
+			if (bLo == bHi) {
+				for (int i = aLo; i < aHi; i++) {
+					removed[i] = true;
+				}
+				return;
+			}
+
+			if (!middleSnake(aLo, aHi, bLo, bHi)) {
+				// zu teuer, der Bereich wird als Ganzes ersetzt
+				for (int i = aLo; i < aHi; i++) {
+					removed[i] = true;
+				}
+				for (int j = bLo; j < bHi; j++) {
+					added[j] = true;
+				}
+				return;
+			}
+
+			// beide Hälften haben echt weniger Unterschiede als das Ganze
+			final int u = snakeU;
+			final int v = snakeV;
+			diff(aLo, snakeX, bLo, snakeY);
+			diff(u, aHi, v, bHi);
+		}
+
+		private boolean middleSnake(final int aLo, final int aHi, final int bLo, final int bHi) {
+			final int n = aHi - aLo;
+			final int m = bHi - bLo;
+			final int delta = n - m;
+			final boolean odd = (delta & 1) != 0;
+			final int max = (n + m + 1) / 2;
+
+			forward[offset + 1] = 0;
+			backward[offset + 1] = 0;
+			for (int d = 0; d <= max; d++) {
+				if ((long) d * (n + m) > MAX_COST) {
+					return false;
+				}
+
+				for (int k = -d; k <= d; k += 2) {
+					int x;
+					if (k == -d || k != d && forward[offset + k - 1] < forward[offset + k + 1]) {
+						x = forward[offset + k + 1];
+					} else {
+						x = forward[offset + k - 1] + 1;
+					}
+					int y = x - k;
+					final int x0 = x;
+					final int y0 = y;
+					while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+						x++;
+						y++;
+					}
+					forward[offset + k] = x;
+
+					final int c = delta - k;
+					if (odd && c >= -(d - 1) && c <= d - 1 && x + backward[offset + c] >= n) {
+						snakeX = aLo + x0;
+						snakeY = bLo + y0;
+						snakeU = aLo + x;
+						snakeV = bLo + y;
+						return true;
+					}
+				}
+
+				for (int c = -d; c <= d; c += 2) {
+					int x;
+					if (c == -d || c != d && backward[offset + c - 1] < backward[offset + c + 1]) {
+						x = backward[offset + c + 1];
+					} else {
+						x = backward[offset + c - 1] + 1;
+					}
+					int y = x - c;
+					final int x0 = x;
+					final int y0 = y;
+					while (x < n && y < m && a[aHi - 1 - x] == b[bHi - 1 - y]) {
+						x++;
+						y++;
+					}
+					backward[offset + c] = x;
+
+					final int k = delta - c;
+					if (!odd && k >= -d && k <= d && x + forward[offset + k] >= n) {
+						snakeX = aHi - x;
+						snakeY = bHi - y;
+						snakeU = aHi - x0;
+						snakeV = bHi - y0;
+						return true;
+					}
+				}
+			}
+
+			throw new IllegalStateException("Kein Edit-Pfad gefunden.");
+		}
+
+	}
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+package com.bitctrl.util;
+
+import java.util.Arrays;
+
+/**
+ * Variante von {@link ValueMatcher} für {@code long}-Werte, die ohne Boxing
+ * auskommt. Die Kombinatoren entsprechen denen der generischen Schnittstelle,
+ * über {@link #boxed()} und {@link #of(ValueMatcher)} lassen sich beide Welten
+ * verbinden.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+@FunctionalInterface
+public interface LongMatcher {
+
+	/**
+	 * Gibt einen Matcher zurück, für den alle Werte matchen. Das ist zugleich das
+	 * Gegenstück zu {@link ValueMatcher.NotNullMatcher}, da ein {@code long} nie
+	 * {@code null} ist.
+	 * 
+	 * @return der Matcher.
+	 */
+	static LongMatcher always() {
+		return value -> true;
+	}
+
+	/**
+	 * Gibt einen Matcher zurück, für den kein Wert matcht.
+	 * 
+	 * @return der Matcher.
+	 */
+	static LongMatcher never() {
+		return value -> false;
+	}
+
+	/**
+	 * Gibt einen Matcher für ein Intervall zurück. Die Intervallgrenzen gehören
+	 * wie bei {@link ValueMatcher.RangeMatcher} mit zu dem Intervall.
+	 * 
+	 * @param min das Minimum des Intervalls.
+	 * @param max das Maximum des Intervalls.
+	 * @return der Matcher.
+	 */
+	static LongMatcher range(final long min, final long max) {
+		return value -> min <= value && value <= max;
+	}
+
+	/**
+	 * Gibt einen Matcher für eine Menge von Werten zurück. Die Werte werden in
+	 * einem sortierten Feld gehalten und binär gesucht.
+	 * 
+	 * @param values die Werte, die matchen sollen.
+	 * @return der Matcher.
+	 */
+	static LongMatcher in(final long... values) {
+		if (values.length == 0) {
+			return never();
+		}
+		if (values.length == 1) {
+			final long single = values[0];
+			return value -> value == single;
+		}
+
+		final long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return value -> Arrays.binarySearch(sorted, value) >= 0;
+	}
+
+	/**
+	 * Verknüpft mehrere Matcher mit Und. Die Prüfung bricht beim ersten Matcher
+	 * ab, der nicht matcht.
+	 * 
+	 * @param matchers die Matcher.
+	 * @return der Matcher, für einen leeren Aufruf {@link #always()}.
+	 */
+	static LongMatcher allOf(final LongMatcher... matchers) {
+		final LongMatcher[] all = matchers.clone();
+		return value -> {
+			for (final LongMatcher matcher : all) {
+				if (!matcher.match(value)) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * Verknüpft mehrere Matcher mit Oder. Die Prüfung bricht beim ersten Matcher
+	 * ab, der matcht.
+	 * 
+	 * @param matchers die Matcher.
+	 * @return der Matcher, für einen leeren Aufruf {@link #never()}.
+	 */
+	static LongMatcher anyOf(final LongMatcher... matchers) {
+		final LongMatcher[] any = matchers.clone();
+		return value -> {
+			for (final LongMatcher matcher : any) {
+				if (matcher.match(value)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	/**
+	 * Passt einen generischen Matcher an. Jeder Wert wird dabei geboxt.
+	 * 
+	 * @param matcher der generische Matcher.
+	 * @return der angepasste Matcher.
+	 */
+	static LongMatcher of(final ValueMatcher<? super Long> matcher) {
+		return matcher::match;
+	}
+
+	/**
+	 * Gibt {@code true} zurück, wenn der übergebene Wert matcht und {@code
+	 * false}, wenn er nicht matcht.
+	 * 
+	 * @param value ein beliebiger Wert.
+	 * @return ob der Wert matcht.
+	 */
+	boolean match(long value);
+
+	/**
+	 * Verknüpft diesen Matcher mit einem anderen mit Und.
+	 * 
+	 * @param other der andere Matcher.
+	 * @return der verknüpfte Matcher.
+	 */
+	default LongMatcher and(final LongMatcher other) {
+		return value -> match(value) && other.match(value);
+	}
+
+	/**
+	 * Verknüpft diesen Matcher mit einem anderen mit Oder.
+	 * 
+	 * @param other der andere Matcher.
+	 * @return der verknüpfte Matcher.
+	 */
+	default LongMatcher or(final LongMatcher other) {
+		return value -> match(value) || other.match(value);
+	}
+
+	/**
+	 * Gibt einen Matcher zurück, der genau dann matcht, wenn dieser nicht matcht.
+	 * 
+	 * @return der negierte Matcher.
+	 */
+	default LongMatcher negate() {
+		return value -> !match(value);
+	}
+
+	/**
+	 * Passt diesen Matcher an die generische Schnittstelle an. Für {@code null}
+	 * wird {@code false} zurückgegeben.
+	 * 
+	 * @return der generische Matcher.
+	 */
+	default ValueMatcher<Long> boxed() {
+		return value -> value != null && match(value);
+	}
+
+}
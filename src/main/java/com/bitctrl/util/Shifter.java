@@ -28,6 +28,12 @@ package com.bitctrl.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Shiftet ein Feld von Integerwerten. Hilfreich z.&nbsp; f�r kombinatorische
@@ -90,6 +96,17 @@ public class Shifter {
 		return maximas.clone();
 	}
 
+	/**
+	 * Gibt den aktuellen Wert eines Elements des internen Felds zurück, ohne das
+	 * Feld zu kopieren.
+	 * 
+	 * @param index der Index des Elements.
+	 * @return der aktuelle Wert.
+	 */
+	public int getValue(final int index) {
+		return values[index];
+	}
+
 	/**
 	 * Gibt den aktuellen Zustand des internen Felds zurück.
 	 * 
@@ -143,6 +160,304 @@ public class Shifter {
 		return false;
 	}
 
+	/**
+	 * Gibt die Anzahl aller Kombinationen zurück, also das Produkt der um eins
+	 * erhöhten Maximas.
+	 * 
+	 * @return die Anzahl der Kombinationen.
+	 * @throws ArithmeticException wenn die Anzahl nicht als {@code long}
+	 *                             darstellbar ist.
+	 */
+	public long size() {
+		long size = 1;
+		for (final int max : maximas) {
+			size = Math.multiplyExact(size, max + 1L);
+		}
+		return size;
+	}
+
+	/**
+	 * Bestimmt die Ordinalzahl einer Kombination, also die Anzahl der Aufrufe von
+	 * {@link #shift()}, die ausgehend von lauter Nullen nötig sind, um sie zu
+	 * erreichen.
+	 * 
+	 * @param combination eine Kombination.
+	 * @return die Ordinalzahl der Kombination.
+	 */
+	public long rank(final int[] combination) {
+		if (combination.length != maximas.length) {
+			throw new IllegalArgumentException(
+					"Die Feldlänge im Parameter stimmt nicht mit der Länge des internen Felds überein.");
+		}
+
+		long ordinal = 0;
+		for (int i = 0; i < combination.length; ++i) {
+			if (combination[i] < 0 || combination[i] > maximas[i]) {
+				throw new IllegalArgumentException("Der Wert (" + combination[i] + ") des Elements mit dem Index "
+						+ i + " liegt nicht zwischen 0 und seinem erlaubten Maximum (" + maximas[i] + ").");
+			}
+			ordinal = ordinal * (maximas[i] + 1L) + combination[i];
+		}
+		return ordinal;
+	}
+
+	/**
+	 * Bestimmt die Kombination zu einer Ordinalzahl.
+	 * 
+	 * @param ordinal die Ordinalzahl.
+	 * @return die Kombination.
+	 * @see #rank(int[])
+	 */
+	public int[] unrank(final long ordinal) {
+		final int[] combination = new int[maximas.length];
+		unrank(ordinal, combination);
+		return combination;
+	}
+
+	/**
+	 * Bestimmt die Kombination zu einer Ordinalzahl und schreibt sie in ein
+	 * vorhandenes Feld.
+	 * 
+	 * @param ordinal     die Ordinalzahl.
+	 * @param combination das Feld für die Kombination.
+	 * @see #rank(int[])
+	 */
+	public void unrank(final long ordinal, final int[] combination) {
+		if (combination.length != maximas.length) {
+			throw new IllegalArgumentException(
+					"Die Feldlänge im Parameter stimmt nicht mit der Länge des internen Felds überein.");
+		}
+		if (ordinal < 0 || ordinal >= size()) {
+			throw new IllegalArgumentException(
+					"Die Ordinalzahl " + ordinal + " liegt nicht zwischen 0 und " + (size() - 1) + ".");
+		}
+
+		long rest = ordinal;
+		for (int i = maximas.length - 1; i >= 0; --i) {
+			final long base = maximas[i] + 1L;
+			combination[i] = (int) (rest % base);
+			rest /= base;
+		}
+	}
+
+	/**
+	 * Gibt die Ordinalzahl des aktuellen Zustands zurück.
+	 * 
+	 * @return die Ordinalzahl.
+	 * @see #rank(int[])
+	 */
+	public long getOrdinal() {
+		return rank(values);
+	}
+
+	/**
+	 * Setzt den aktuellen Zustand auf die Kombination zu einer Ordinalzahl.
+	 * 
+	 * @param ordinal die Ordinalzahl.
+	 * @see #unrank(long)
+	 */
+	public void setOrdinal(final long ordinal) {
+		unrank(ordinal, values);
+	}
+
+	/**
+	 * Besucht alle Kombinationen in der Reihenfolge von {@link #shift()}. Der
+	 * Zustand des Shifters wird dabei nicht verändert. Es wird ein einziges Feld
+	 * wiederverwendet, der Consumer darf es deshalb nicht aufheben.
+	 * 
+	 * @param action der Consumer für die Kombinationen.
+	 */
+	public void forEach(final IntArrayConsumer action) {
+		forEach(0, size(), action);
+	}
+
+	/**
+	 * Besucht die Kombinationen mit den Ordinalzahlen {@code from} (inklusive) bis
+	 * {@code to} (exklusive) in der Reihenfolge von {@link #shift()}. Der Zustand
+	 * des Shifters wird dabei nicht verändert.
+	 * 
+	 * @param from   die Ordinalzahl der ersten Kombination.
+	 * @param to     die Ordinalzahl nach der letzten Kombination.
+	 * @param action der Consumer für die Kombinationen.
+	 * @see #forEach(IntArrayConsumer)
+	 */
+	public void forEach(final long from, final long to, final IntArrayConsumer action) {
+		if (from < 0 || to > size() || from > to) {
+			throw new IllegalArgumentException("Ungültiger Bereich [" + from + ", " + to + ").");
+		}
+		if (from == to) {
+			return;
+		}
+
+		final int[] combination = unrank(from);
+		action.accept(combination);
+		for (long ordinal = from + 1; ordinal < to; ++ordinal) {
+			next(combination);
+			action.accept(combination);
+		}
+	}
+
+	/**
+	 * Besucht alle Kombinationen parallel. Der Bereich der Ordinalzahlen wird in
+	 * Teilbereiche zerlegt, die im {@link ForkJoinPool#commonPool()} abgearbeitet
+	 * werden; jeder Teilbereich verwendet sein eigenes Feld. Der Consumer muss
+	 * deshalb threadsicher sein, die Reihenfolge der Aufrufe ist nicht festgelegt.
+	 * 
+	 * @param action der Consumer für die Kombinationen.
+	 */
+	public void forEachParallel(final IntArrayConsumer action) {
+		final long size = size();
+		final long chunks = Math.min(size, ForkJoinPool.getCommonPoolParallelism() * 8L);
+		if (chunks <= 1) {
+			forEach(0, size, action);
+			return;
+		}
+
+		LongStream.range(0, chunks).parallel().forEach(
+				chunk -> forEach(chunkStart(size, chunks, chunk), chunkStart(size, chunks, chunk + 1), action));
+	}
+
+	/**
+	 * Gibt einen {@link Spliterator} über alle Kombinationen zurück, der sich
+	 * anhand der Ordinalzahlen beliebig teilen lässt.
+	 * 
+	 * @return der Spliterator.
+	 */
+	public Range spliterator() {
+		return new Range(this, 0, size());
+	}
+
+	/**
+	 * Gibt einen Stream über alle Kombinationen zurück. Jede Kombination ist ein
+	 * eigenes Feld.
+	 * 
+	 * @param parallel {@code true}, wenn der Stream parallel sein soll.
+	 * @return der Stream.
+	 */
+	public Stream<int[]> stream(final boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel);
+	}
+
+	private static long chunkStart(final long size, final long chunks, final long chunk) {
+		// size * chunk / chunks ohne Überlauf
+		return size / chunks * chunk + size % chunks * chunk / chunks;
+	}
+
+	private void next(final int[] combination) {
+		for (int i = combination.length - 1; i >= 0; --i) {
+			if (combination[i] < maximas[i]) {
+				++combination[i];
+				return;
+			}
+			combination[i] = 0;
+		}
+	}
+
+	/**
+	 * Ein Spliterator über einen Bereich von Ordinalzahlen eines Shifters. Neben
+	 * der Schnittstelle von {@link Spliterator}, die jede Kombination als eigenes
+	 * Feld liefert, können die Kombinationen mit
+	 * {@link #forEachRemainingValues(IntArrayConsumer)} ohne Allokation besucht
+	 * werden.
+	 */
+	public static final class Range implements Spliterator<int[]> {
+
+		private final Shifter shifter;
+		private long from;
+		private final long to;
+
+		/** Die zuletzt gelieferte Kombination, wird beim ersten Zugriff bestimmt. */
+		private int[] combination;
+
+		private Range(final Shifter shifter, final long from, final long to) {
+			this.shifter = shifter;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Gibt die Ordinalzahl der nächsten Kombination zurück.
+		 * 
+		 * @return die Ordinalzahl.
+		 */
+		public long getFrom() {
+			return from;
+		}
+
+		/**
+		 * Gibt die Ordinalzahl nach der letzten Kombination zurück.
+		 * 
+		 * @return die Ordinalzahl.
+		 */
+		public long getTo() {
+			return to;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super int[]> action) {
+			if (from >= to) {
+				return false;
+			}
+
+			advance();
+			action.accept(combination.clone());
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(final Consumer<? super int[]> action) {
+			forEachRemainingValues(values -> action.accept(values.clone()));
+		}
+
+		/**
+		 * Besucht alle verbleibenden Kombinationen. Es wird ein einziges Feld
+		 * wiederverwendet.
+		 * 
+		 * @param action der Consumer für die Kombinationen.
+		 */
+		public void forEachRemainingValues(final IntArrayConsumer action) {
+			while (from < to) {
+				advance();
+				action.accept(combination);
+			}
+		}
+
+		private void advance() {
+			if (combination == null) {
+				combination = shifter.unrank(from);
+			} else {
+				shifter.next(combination);
+			}
+			++from;
+		}
+
+		@Override
+		public Range trySplit() {
+			final long mid = from + (to - from) / 2;
+			if (mid <= from) {
+				return null;
+			}
+
+			// der vordere Teil wird abgegeben, die aktuelle Kombination muss danach
+			// neu bestimmt werden
+			final Range prefix = new Range(shifter, from, mid);
+			from = mid;
+			combination = null;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - from;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+		}
+
+	}
+
 	@Override
 	public String toString() {
 		final List<Integer> helperValues, helperMaximas;
@@ -30,8 +30,21 @@ import java.io.Serializable;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DecimalStyle;
+import java.time.format.FormatStyle;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
 import com.bitctrl.Constants;
 
@@ -44,6 +57,140 @@ public class Timestamp implements Serializable {
 
 	private static final long serialVersionUID = 0L;
 
+	/** Ergebnis des schnellen Parsers, wenn der String nicht erkannt wurde. */
+	private static final long NOT_PARSED = Long.MIN_VALUE;
+
+	/** Ergebnis von {@link #localOffset(TimeZone, long)} nahe einer Umstellung. */
+	private static final int NO_OFFSET = Integer.MIN_VALUE;
+
+	private static final String ISO_8601 = "yyyy-MM-dd'T'HH:mm:ss,SSSZ";
+
+	/**
+	 * Beginn des Gregorianischen Kalenders bei {@link GregorianCalendar}, bezogen
+	 * auf die lokale Zeit. Ältere Zeitstempel werden wie früher über die Klassen
+	 * aus {@code java.text} formatiert, die davor den Julianischen Kalender
+	 * verwenden.
+	 */
+	private static final long GREGORIAN_CHANGE = new GregorianCalendar().getGregorianChange().getTime();
+
+	/** Zeitstempel zum Vergleich der Muster, 13.02.2009 23:31:30,123 UTC. */
+	private static final long PROBE = 1_234_567_890_123L;
+
+	/** Die zuletzt benutzten Formatierer, passend zu Sprache und Zeitzone. */
+	private static volatile Formatters formatters;
+
+	/**
+	 * Die Formatierer für eine Sprachumgebung und Zeitzone. {@link DateTimeFormatter}
+	 * ist unveränderlich und kann von allen Threads gemeinsam genutzt werden.
+	 */
+	private static final class Formatters {
+
+		private final Locale locale;
+		private final TimeZone timeZone;
+		private final DateTimeFormatter dateTime;
+		private final DateTimeFormatter date;
+		private final DateTimeFormatter time;
+		private final DateTimeFormatter iso8601;
+
+		/**
+		 * {@code true}, wenn die lokalisierten Muster von {@link DateFormat}
+		 * abweichen, wie bei den Varianten ja_JP_JP und th_TH_TH. Dann wird weiter
+		 * {@link DateFormat} benutzt.
+		 */
+		private final boolean legacy;
+
+		/**
+		 * {@code true}, wenn die Sprachumgebung den Gregorianischen Kalender
+		 * verwendet. Sonst werden ISO-8601-Angaben wie früher über
+		 * {@link SimpleDateFormat} im Kalender der Sprachumgebung gelesen und
+		 * geschrieben, z.&nbsp;B. im buddhistischen für th_TH.
+		 */
+		private final boolean gregorian;
+
+		Formatters(final Locale locale, final TimeZone timeZone) {
+			this.locale = locale;
+			this.timeZone = timeZone;
+			final DecimalStyle digits = DecimalStyle.of(locale);
+			final Chronology chronology = chronology(locale);
+			dateTime = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM).withLocale(locale)
+					.withDecimalStyle(digits).withChronology(chronology);
+			date = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(locale).withDecimalStyle(digits)
+					.withChronology(chronology);
+			time = DateTimeFormatter.ofLocalizedTime(FormatStyle.MEDIUM).withLocale(locale).withDecimalStyle(digits)
+					.withChronology(chronology);
+			iso8601 = DateTimeFormatter.ofPattern(ISO_8601, Locale.ROOT);
+			gregorian = chronology == IsoChronology.INSTANCE;
+			legacy = !matchesDateFormat(PROBE) || !matchesDateFormat(PROBE + 12 * Constants.MILLIS_PER_HOUR);
+		}
+
+		private boolean matchesDateFormat(final long zeitstempel) {
+			final Date d = new Date(zeitstempel);
+			final LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(zeitstempel), offset(zeitstempel));
+			try {
+				return dateTime.format(local).equals(DateFormat.getDateTimeInstance(DateFormat.DEFAULT,
+						DateFormat.DEFAULT, locale).format(d))
+						&& date.format(local).equals(DateFormat.getDateInstance(DateFormat.DEFAULT, locale).format(d))
+						&& time.format(local).equals(DateFormat.getTimeInstance(DateFormat.DEFAULT, locale).format(d));
+			} catch (final DateTimeException ex) {
+				return false;
+			}
+		}
+
+		/**
+		 * Bestimmt den Versatz zu UTC über {@link TimeZone}. Vor Einführung der
+		 * Zonenzeit weicht {@link java.time.ZoneId} davon ab, weil es die mittlere Ortszeit
+		 * verwendet, {@link DateFormat} aber nicht.
+		 */
+		ZoneOffset offset(final long zeitstempel) {
+			return ZoneOffset.ofTotalSeconds(timeZone.getOffset(zeitstempel) / 1000);
+		}
+
+		/**
+		 * Prüft, ob die Zeit über {@link DateFormat} formatiert werden muss.
+		 */
+		boolean isLegacy(final long zeitstempel) {
+			return legacy || isJulian(zeitstempel);
+		}
+
+		/**
+		 * Prüft, ob {@link GregorianCalendar} die lokale Zeit noch im Julianischen
+		 * Kalender darstellt.
+		 */
+		boolean isJulian(final long zeitstempel) {
+			return zeitstempel < GREGORIAN_CHANGE + Constants.MILLIS_PER_DAY
+					&& zeitstempel + timeZone.getOffset(zeitstempel) < GREGORIAN_CHANGE;
+		}
+
+		/**
+		 * Bestimmt den Kalender so, wie ihn {@link DateFormat} für die
+		 * Sprachumgebung benutzt, z.&nbsp;B. den buddhistischen für th_TH.
+		 * {@link Chronology#ofLocale(Locale)} kennt diese Zuordnungen nicht alle.
+		 */
+		private static Chronology chronology(final Locale locale) {
+			final String type = Calendar.getInstance(locale).getCalendarType();
+			if ("gregory".equals(type)) {
+				return IsoChronology.INSTANCE;
+			}
+			try {
+				return Chronology.of(type);
+			} catch (final DateTimeException ex) {
+				return Chronology.ofLocale(locale);
+			}
+		}
+
+		static Formatters get() {
+			final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+			final TimeZone timeZone = TimeZone.getDefault();
+			Formatters f = formatters;
+			if (f == null || !f.locale.equals(locale) || !f.timeZone.equals(timeZone)) {
+				f = new Formatters(locale, timeZone);
+				formatters = f;
+			}
+			return f;
+		}
+
+	}
+
 	/**
 	 * Konvertiert einen Zeitstempel in eine lesbare absolute Zeitangabe.
 	 * 
@@ -76,6 +223,299 @@ public class Timestamp implements Serializable {
 		return new Timestamp(zeitstempel).relativeTime();
 	}
 
+	/**
+	 * Konvertiert einen Zeitstempel in eine Zeitangabe nach ISO&nbsp;8601 im
+	 * Format "yyyy-MM-dd'T'HH:mm:ss,SSSZ" in der lokalen Zeitzone. Das Jahr wird
+	 * wie beim Einlesen im Kalender der Sprachumgebung gezählt, unter th_TH also
+	 * buddhistisch. Beim japanischen Kaiserkalender fehlt dabei die Ära, dort
+	 * lassen sich nur Zeitstempel der aktuellen Ära wieder einlesen.
+	 * 
+	 * @param zeitstempel ein Zeitstempel.
+	 * @return die Zeitangabe, die {@link #parseIso8601(String)} wieder einlesen
+	 *         kann.
+	 */
+	public static String iso8601(final long zeitstempel) {
+		final Formatters f = Formatters.get();
+		if (!f.gregorian) {
+			// passend zu parseLegacy() im Kalender der Sprachumgebung
+			return new SimpleDateFormat(ISO_8601).format(new Date(zeitstempel));
+		}
+		if (f.isJulian(zeitstempel)) {
+			// passend zu parseLegacy() im Julianischen Kalender
+			return new SimpleDateFormat(ISO_8601, Locale.ROOT).format(new Date(zeitstempel));
+		}
+		return f.iso8601.format(OffsetDateTime.ofInstant(Instant.ofEpochMilli(zeitstempel), f.offset(zeitstempel)));
+	}
+
+	/**
+	 * Parst eine Zeitangabe nach ISO&nbsp;8601. Es werden dieselben Varianten wie
+	 * von {@link #Timestamp(String)} akzeptiert.
+	 * 
+	 * @param iso8601 eine Zeitangabe nach ISO 8601.
+	 * @return der Zeitstempel.
+	 * @throws ParseException bei einem ungültigen String.
+	 */
+	public static long parseIso8601(final String iso8601) throws ParseException {
+		if (!Formatters.get().gregorian) {
+			return parseLegacy(iso8601);
+		}
+		final long t = parseFast(iso8601, TimeZone.getDefault());
+		return t != NOT_PARSED ? t : parseLegacy(iso8601);
+	}
+
+	/**
+	 * Parst eine Spalte von Zeitangaben nach ISO&nbsp;8601. Die lokale Zeitzone
+	 * wird nur einmal für alle Werte bestimmt.
+	 * 
+	 * @param values die Zeitangaben, siehe {@link #Timestamp(String)}.
+	 * @return die Zeitstempel in derselben Reihenfolge.
+	 * @throws ParseException bei einem ungültigen String. Die Nachricht enthält
+	 *                        den Index des fehlerhaften Werts.
+	 */
+	public static long[] parseIso8601(final String[] values) throws ParseException {
+		final long[] result = new long[values.length];
+		parseIso8601(values, result, 0);
+		return result;
+	}
+
+	/**
+	 * Parst eine Spalte von Zeitangaben nach ISO&nbsp;8601 in ein vorhandenes
+	 * Feld.
+	 * 
+	 * @param values die Zeitangaben, siehe {@link #Timestamp(String)}.
+	 * @param target das Feld für die Zeitstempel.
+	 * @param offset die Position im Zielfeld für den ersten Zeitstempel.
+	 * @throws ParseException bei einem ungültigen String. Die Nachricht enthält
+	 *                        den Index des fehlerhaften Werts.
+	 */
+	public static void parseIso8601(final String[] values, final long[] target, final int offset)
+			throws ParseException {
+		if (offset < 0 || offset + values.length > target.length) {
+			throw new IllegalArgumentException("Das Zielfeld ist zu klein: " + target.length + " < " + offset + " + "
+					+ values.length + ".");
+		}
+
+		final TimeZone zone = TimeZone.getDefault();
+		final boolean gregorian = Formatters.get().gregorian;
+		for (int i = 0; i < values.length; i++) {
+			long t = gregorian ? parseFast(values[i], zone) : NOT_PARSED;
+			if (t == NOT_PARSED) {
+				try {
+					t = parseLegacy(values[i]);
+				} catch (final ParseException ex) {
+					final ParseException e = new ParseException(
+							"Ungültige Zeitangabe an Index " + i + ": \"" + values[i] + "\"", ex.getErrorOffset());
+					e.initCause(ex);
+					throw e;
+				}
+			}
+			target[offset + i] = t;
+		}
+	}
+
+	/**
+	 * Parst die gängigen Varianten in einem Durchgang ohne Ausnahmen und ohne
+	 * Hilfsobjekte. Alles Ungewöhnliche, etwa Zeitzonennamen, Werte außerhalb der
+	 * gültigen Bereiche, Zeiten nahe einer Zeitumstellung oder Jahre vor der
+	 * Gregorianischen Kalenderreform, überlässt er {@link #parseLegacy(String)}. So bleibt das Ergebnis auch in
+	 * Grenzfällen dasselbe wie bei den {@link SimpleDateFormat}s.
+	 * 
+	 * @return der Zeitstempel oder {@link #NOT_PARSED}.
+	 */
+	private static long parseFast(final String s, final TimeZone zone) {
+		final int length = s.length();
+
+		int p = 0;
+		int e = digitEnd(s, p, 4, 4);
+		if (e < 0) {
+			return NOT_PARSED;
+		}
+		final int year = number(s, p, e);
+		p = e;
+		if (p >= length || s.charAt(p) != '-') {
+			return NOT_PARSED;
+		}
+		e = digitEnd(s, ++p, 1, 2);
+		if (e < 0) {
+			return NOT_PARSED;
+		}
+		final int month = number(s, p, e);
+		p = e;
+		if (p >= length || s.charAt(p) != '-') {
+			return NOT_PARSED;
+		}
+		e = digitEnd(s, ++p, 1, 2);
+		if (e < 0) {
+			return NOT_PARSED;
+		}
+		final int day = number(s, p, e);
+		p = e;
+		if (year < 1600 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+			return NOT_PARSED;
+		}
+
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int millis = 0;
+		boolean zoned = false;
+		int offset = 0;
+		if (p < length && s.charAt(p) == 'T') {
+			e = digitEnd(s, ++p, 1, 2);
+			if (e < 0) {
+				return NOT_PARSED;
+			}
+			hour = number(s, p, e);
+			p = e;
+			if (p >= length || s.charAt(p) != ':') {
+				return NOT_PARSED;
+			}
+			e = digitEnd(s, ++p, 1, 2);
+			if (e < 0) {
+				return NOT_PARSED;
+			}
+			minute = number(s, p, e);
+			p = e;
+			if (hour > 23 || minute > 59) {
+				return NOT_PARSED;
+			}
+
+			if (p < length && s.charAt(p) == ':') {
+				e = digitEnd(s, ++p, 1, 2);
+				if (e < 0) {
+					return NOT_PARSED;
+				}
+				second = number(s, p, e);
+				p = e;
+				if (second > 59) {
+					return NOT_PARSED;
+				}
+
+				if (p < length && s.charAt(p) == ',') {
+					e = digitEnd(s, ++p, 1, 3);
+					if (e < 0) {
+						return NOT_PARSED;
+					}
+					millis = number(s, p, e);
+					p = e;
+
+					if (p < length) {
+						// nur die numerische Zeitzone wie +0100 wird hier erkannt
+						final char sign = s.charAt(p);
+						if (sign != '+' && sign != '-' || digitEnd(s, p + 1, 4, 4) < 0) {
+							return NOT_PARSED;
+						}
+						final int hours = number(s, p + 1, p + 3);
+						final int minutes = number(s, p + 3, p + 5);
+						if (hours > 23 || minutes > 59) {
+							return NOT_PARSED;
+						}
+						offset = (hours * 60 + minutes) * 60_000;
+						if (sign == '-') {
+							offset = -offset;
+						}
+						zoned = true;
+					}
+				}
+			}
+		}
+
+		final long local = epochDay(year, month, day) * 86_400_000L
+				+ ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+		if (zoned) {
+			return local - offset;
+		}
+		final int localOffset = localOffset(zone, local);
+		return localOffset != NO_OFFSET ? local - localOffset : NOT_PARSED;
+	}
+
+	/**
+	 * Bestimmt das Ende einer Ziffernfolge. Wie bei {@link SimpleDateFormat}
+	 * werden alle folgenden Ziffern gelesen.
+	 * 
+	 * @return das Ende oder -1, wenn die Anzahl der Ziffern nicht zwischen
+	 *         {@code min} und {@code max} liegt.
+	 */
+	private static int digitEnd(final String s, final int start, final int min, final int max) {
+		int end = start;
+		while (end < s.length() && s.charAt(end) >= '0' && s.charAt(end) <= '9') {
+			end++;
+		}
+		final int count = end - start;
+		return count >= min && count <= max ? end : -1;
+	}
+
+	private static int number(final String s, final int start, final int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			value = value * 10 + s.charAt(i) - '0';
+		}
+		return value;
+	}
+
+	private static int lengthOfMonth(final int year, final int month) {
+		if (month == 2) {
+			return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+		}
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	/** Tage seit dem 1.1.1970 im proleptischen Gregorianischen Kalender. */
+	private static long epochDay(final int year, final int month, final int day) {
+		final int y = month <= 2 ? year - 1 : year;
+		final int era = y / 400;
+		final int yearOfEra = y - era * 400;
+		final int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146_097L + dayOfEra - 719_468L;
+	}
+
+	/**
+	 * Bestimmt den Versatz einer lokalen Zeit zu UTC, wenn er eindeutig ist. Liegt
+	 * die Zeit in der Nähe einer Umstellung, etwa in der übersprungenen Stunde
+	 * zur Sommerzeit, löst der lenient {@link java.util.GregorianCalendar} sie
+	 * nach eigenen Regeln auf. Diese Fälle überlässt der Aufrufer
+	 * {@link #parseLegacy(String)}.
+	 * 
+	 * @return der Versatz oder {@link #NO_OFFSET}.
+	 */
+	private static int localOffset(final TimeZone zone, final long local) {
+		final long utc = local - zone.getRawOffset();
+		final int offset = zone.getOffset(utc);
+		if (zone.getOffset(utc - Constants.MILLIS_PER_DAY) != offset
+				|| zone.getOffset(utc + Constants.MILLIS_PER_DAY) != offset) {
+			return NO_OFFSET;
+		}
+		return offset;
+	}
+
+	/**
+	 * Parst wie früher über eine Kette von {@link SimpleDateFormat}s mit dem
+	 * Kalender der Sprachumgebung. Wird für Strings benutzt, die
+	 * {@link #parseFast(String, TimeZone)} nicht erkennt, und für Sprachumgebungen
+	 * ohne Gregorianischen Kalender, in denen z.&nbsp;B. unter th_TH das Jahr
+	 * buddhistisch gezählt wird.
+	 */
+	private static long parseLegacy(final String iso8601) throws ParseException {
+		try {
+			return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss,SSSZ").parse(iso8601).getTime();
+		} catch (final ParseException ex1) {
+			try {
+				return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss,SSS").parse(iso8601).getTime();
+			} catch (final ParseException ex2) {
+				try {
+					return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse(iso8601).getTime();
+				} catch (final ParseException ex3) {
+					try {
+						return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm").parse(iso8601).getTime();
+					} catch (final ParseException ex4) {
+						return new SimpleDateFormat("yyyy-MM-dd").parse(iso8601).getTime();
+					}
+				}
+			}
+		}
+	}
+
 	private final long timestamp;
 
 	/**
@@ -100,34 +540,17 @@ public class Timestamp implements Serializable {
 	 * Es wird das Format "yyyy-MM-dd'T'HH:mm:ss,SSSZ" verwendet, z.&nbsp;B.
 	 * 2008-04-24T22:08:15,124+0100 für den 24.&nbsp;April 2008 um 22:08:15,124
 	 * mitteleuropäischer Zeit (GMT + 1 Stunde).
+	 * <p>
+	 * Die Zeitzone, die Millisekunden, die Sekunden und die Uhrzeit können
+	 * weggelassen werden, fehlt die Zeitzone, wird die lokale Zeitzone angenommen.
+	 * Das Jahr wird im Kalender der Sprachumgebung gelesen, unter th_TH also
+	 * buddhistisch.
 	 * 
 	 * @param iso8601 eine Zeitangabe nach ISO 8601.
 	 * @throws ParseException bei einem ungültigen String.
 	 */
 	public Timestamp(final String iso8601) throws ParseException {
-		long t;
-
-		try {
-			t = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss,SSSZ").parse(iso8601).getTime();
-		} catch (final ParseException ex1) {
-			try {
-				t = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss,SSS").parse(iso8601).getTime();
-			} catch (final ParseException ex2) {
-				try {
-					t = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse(iso8601).getTime();
-				} catch (final ParseException ex3) {
-					try {
-						t = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm").parse(iso8601)
-
-								.getTime();
-					} catch (final ParseException ex4) {
-						t = new SimpleDateFormat("yyyy-MM-dd").parse(iso8601).getTime();
-					}
-				}
-			}
-		}
-
-		timestamp = t;
+		timestamp = parseIso8601(iso8601);
 	}
 
 	/**
@@ -202,19 +625,43 @@ public class Timestamp implements Serializable {
 	 *         {@code false} sind.
 	 */
 	public String absoluteTime(final boolean date, final boolean time) {
-		if (date && time) {
-			return DateFormat.getDateTimeInstance().format(new Date(timestamp));
+		if (!date && !time) {
+			return "";
 		}
 
-		if (date) {
-			return DateFormat.getDateInstance().format(new Date(timestamp));
+		final Formatters f = Formatters.get();
+		if (!f.isLegacy(timestamp)) {
+			final LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), f.offset(timestamp));
+			try {
+				if (date && time) {
+					return f.dateTime.format(local);
+				}
+				return date ? f.date.format(local) : f.time.format(local);
+			} catch (final DateTimeException ex) {
+				// der Kalender kennt das Datum nicht, z.B. japanisch vor Meiji 6
+			}
 		}
 
-		if (time) {
-			return DateFormat.getTimeInstance().format(new Date(timestamp));
+		final DateFormat format;
+		if (date && time) {
+			format = DateFormat.getDateTimeInstance();
+		} else if (date) {
+			format = DateFormat.getDateInstance();
+		} else {
+			format = DateFormat.getTimeInstance();
 		}
+		return format.format(new Date(timestamp));
+	}
 
-		return "";
+	/**
+	 * Gibt den Wert der Zeitangabe nach ISO&nbsp;8601 im Format
+	 * "yyyy-MM-dd'T'HH:mm:ss,SSSZ" in der lokalen Zeitzone zurück.
+	 * 
+	 * @return die Zeitangabe.
+	 * @see #iso8601(long)
+	 */
+	public String iso8601() {
+		return iso8601(timestamp);
 	}
 
 	/**
@@ -29,16 +29,26 @@ package com.bitctrl.util;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.SortedSet;
 import java.util.Stack;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
+import com.bitctrl.resource.ConfigurationSnapshot;
+import com.bitctrl.resource.ConfigurationValue;
 import com.bitctrl.resource.WritableConfiguration;
 
 /**
@@ -141,6 +151,7 @@ public class TreeProperties extends Properties implements WritableConfiguration
 	}
 
 	private static final long serialVersionUID = 1L;
+	private static final int KEY_CACHE_LIMIT = 4096;
 	private static final char[] HEXDIGIT = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E',
 			'F' };
 
@@ -157,6 +168,21 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 	private String trace = "";
 
+	/** Zwischenspeicher der absoluten Schlüssel je Gruppenpfad. */
+	private transient Map<String, Map<String, String>> keyCaches;
+
+	/** Zwischenspeicher der absoluten Schlüssel für den aktuellen Gruppenpfad. */
+	private transient Map<String, String> keyCache;
+
+	/**
+	 * Zwischenspeicher der geparsten Werte je absolutem Schlüssel. Ein Eintrag
+	 * gilt nur, solange er zum aktuell hinterlegten Text gehört.
+	 */
+	private transient Map<String, ConfigurationValue> valueCache;
+
+	/** Präfixbaum der Schlüssel, wird bei der ersten Abfrage aufgebaut. */
+	private transient TreePropertiesIndex keyIndex;
+
 	/**
 	 * Erzeugt eine leere Properties-Liste.
 	 */
@@ -173,6 +199,29 @@ public class TreeProperties extends Properties implements WritableConfiguration
 		super(defaults);
 	}
 
+	/**
+	 * Erzeugt eine leere Properties-Liste, die ohne Vergrößerung die angegebene
+	 * Anzahl Einträge aufnehmen kann. Das lohnt sich vor dem Laden sehr großer
+	 * Konfigurationen.
+	 * 
+	 * @param initialCapacity die erwartete Anzahl Einträge.
+	 */
+	public TreeProperties(final int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Erzeugt eine leere Properties-Liste mit Standardwerten, die ohne
+	 * Vergrößerung die angegebene Anzahl Einträge aufnehmen kann.
+	 * 
+	 * @param defaults        die Standardwerte.
+	 * @param initialCapacity die erwartete Anzahl Einträge.
+	 */
+	public TreeProperties(final TreeProperties defaults, final int initialCapacity) {
+		super(initialCapacity);
+		this.defaults = defaults;
+	}
+
 	@Override
 	public void beginGroup(final String name) {
 		beginGroupOrArray(new Group(name));
@@ -184,7 +233,7 @@ public class TreeProperties extends Properties implements WritableConfiguration
 		if (getProperty("size") != null) {
 			return Integer.parseInt(getProperty("size"));
 		}
-		return 0;
+		return getArrayLength("");
 	}
 
 	@Override
@@ -217,9 +266,9 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 		final int length = group.toString().length();
 		if (stack.size() == 0) {
-			trace = "";
+			setTrace("");
 		} else {
-			trace = trace.substring(0, trace.length() - length);
+			setTrace(trace.substring(0, trace.length() - length));
 		}
 	}
 
@@ -233,9 +282,9 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 		final int length = group.toString().length();
 		if (stack.size() == 0) {
-			trace = "";
+			setTrace("");
 		} else {
-			trace = trace.substring(0, trace.length() - length - 1);
+			setTrace(trace.substring(0, trace.length() - length - 1));
 		}
 	}
 
@@ -246,7 +295,8 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 	@Override
 	public boolean getBoolean(final String key, final boolean defaultValue) {
-		return Boolean.valueOf(getProperty(key, String.valueOf(defaultValue)));
+		final ConfigurationValue value = getValue(key);
+		return value != null ? value.booleanValue() : defaultValue;
 	}
 
 	@Override
@@ -256,7 +306,8 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 	@Override
 	public double getDouble(final String key, final double defaultValue) {
-		return Double.valueOf(getProperty(key, String.valueOf(defaultValue)));
+		final ConfigurationValue value = getValue(key);
+		return value != null ? value.doubleValue() : defaultValue;
 	}
 
 	@Override
@@ -266,17 +317,19 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 	@Override
 	public int getInt(final String key, final int defaultValue) {
-		return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+		final ConfigurationValue value = getValue(key);
+		return value != null ? value.intValue() : defaultValue;
 	}
 
 	@Override
 	public long getLong(final String key) {
-		return getInt(key, DEFAULT_LONG);
+		return getLong(key, DEFAULT_LONG);
 	}
 
 	@Override
 	public long getLong(final String key, final long defaultValue) {
-		return Long.parseLong(getProperty(key, String.valueOf(defaultValue)));
+		final ConfigurationValue value = getValue(key);
+		return value != null ? value.longValue() : defaultValue;
 	}
 
 	@Override
@@ -311,7 +364,123 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 	@Override
 	public synchronized Object remove(final Object key) {
-		return super.remove(getAbsoluteKey(key.toString()));
+		final String absoluteKey = getAbsoluteKey(key.toString());
+		invalidateValue(absoluteKey);
+		final Object oldValue = super.remove(absoluteKey);
+		if (oldValue != null && keyIndex != null) {
+			keyIndex.remove(absoluteKey);
+		}
+		return oldValue;
+	}
+
+	@Override
+	public synchronized Object put(final Object key, final Object value) {
+		final Object oldValue = super.put(key, value);
+		if (oldValue == null && keyIndex != null && key instanceof final String stringKey) {
+			keyIndex.add(stringKey);
+		}
+		return oldValue;
+	}
+
+	@Override
+	public synchronized void clear() {
+		super.clear();
+		if (valueCache != null) {
+			valueCache.clear();
+		}
+		keyIndex = null;
+	}
+
+	@Override
+	public synchronized void putAll(final Map<?, ?> t) {
+		super.putAll(t);
+		keyIndex = null;
+	}
+
+	@Override
+	public synchronized Object putIfAbsent(final Object key, final Object value) {
+		keyIndex = null;
+		return super.putIfAbsent(key, value);
+	}
+
+	@Override
+	public synchronized boolean remove(final Object key, final Object value) {
+		keyIndex = null;
+		return super.remove(key, value);
+	}
+
+	@Override
+	public synchronized Object computeIfAbsent(final Object key,
+			final Function<? super Object, ?> mappingFunction) {
+		keyIndex = null;
+		return super.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public synchronized Object computeIfPresent(final Object key,
+			final BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		keyIndex = null;
+		return super.computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public synchronized Object compute(final Object key,
+			final BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		keyIndex = null;
+		return super.compute(key, remappingFunction);
+	}
+
+	@Override
+	public synchronized Object merge(final Object key, final Object value,
+			final BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		keyIndex = null;
+		return super.merge(key, value, remappingFunction);
+	}
+
+	@Override
+	public synchronized Object clone() {
+		final TreeProperties clone = (TreeProperties) super.clone();
+		clone.keyIndex = null;
+		return clone;
+	}
+
+	/**
+	 * Gibt die Namen der direkten Kinder einer Gruppe zurück. Das sind sowohl die
+	 * Schlüssel als auch die Untergruppen und Feldelemente der Gruppe.
+	 * Standardwerte werden nicht berücksichtigt.
+	 * 
+	 * @param groupPath der Pfad der Gruppe relativ zur aktuellen Gruppe, der leere
+	 *                  String steht für die aktuelle Gruppe selbst.
+	 * @return die sortierten Namen der Kinder.
+	 */
+	public synchronized Set<String> children(final String groupPath) {
+		return getKeyIndex().children(getAbsoluteKey(groupPath));
+	}
+
+	/**
+	 * Gibt alle absoluten Schlüssel unterhalb einer Gruppe zurück. Standardwerte
+	 * werden nicht berücksichtigt.
+	 * 
+	 * @param groupPath der Pfad der Gruppe relativ zur aktuellen Gruppe, der leere
+	 *                  String steht für die aktuelle Gruppe selbst.
+	 * @return die absoluten Schlüssel in beliebiger Reihenfolge.
+	 */
+	public synchronized Set<String> subtree(final String groupPath) {
+		final Set<String> result = new HashSet<>();
+		getKeyIndex().subtree(getAbsoluteKey(groupPath), result);
+		return result;
+	}
+
+	/**
+	 * Bestimmt die Länge eines Felds anhand der vorhandenen Elemente, auch wenn
+	 * der Schlüssel {@code size} fehlt. Standardwerte werden nicht
+	 * berücksichtigt.
+	 * 
+	 * @param name der Name des Felds relativ zur aktuellen Gruppe.
+	 * @return der größte Elementindex oder 0, wenn es keine Elemente gibt.
+	 */
+	public synchronized int getArrayLength(final String name) {
+		return getKeyIndex().arrayLength(getAbsoluteKey(name));
 	}
 
 	@Override
@@ -351,48 +520,83 @@ public class TreeProperties extends Properties implements WritableConfiguration
 		length = group.toString().length();
 
 		group.setIndex(Math.max(index, 0));
-		trace = trace.substring(0, Math.max(trace.length() - length, 0)) + group.toString();
+		setTrace(trace.substring(0, Math.max(trace.length() - length, 0)) + group.toString());
 	}
 
 	@Override
 	public Object setProperty(final String key, final String value) {
-		return super.setProperty(getAbsoluteKey(key), value);
+		final String absoluteKey = getAbsoluteKey(key);
+		invalidateValue(absoluteKey);
+		return super.setProperty(absoluteKey, value);
 	}
 
 	/**
 	 * Schreibt die Properties nach Schlüssel sortiert in den {@code
-	 * OutputStream}.
+	 * OutputStream}. Zeichen außerhalb von ASCII werden als Unicode-Escape
+	 * geschrieben.
 	 * 
 	 * {@inheritDoc}
 	 */
 	@Override
 	public synchronized void store(final OutputStream out, final String comments) throws IOException {
-		BufferedWriter awriter;
+		store(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1), comments, true);
+	}
 
-		awriter = new BufferedWriter(new OutputStreamWriter(out, "8859_1"));
-		if (comments != null) {
-			writeln(awriter, "#" + comments);
-		}
-		writeln(awriter, "#" + new Date().toString());
+	/**
+	 * Schreibt die Properties nach Schlüssel sortiert in den {@code Writer}.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void store(final Writer writer, final String comments) throws IOException {
+		store(writer, comments, false);
+	}
 
-		final SortedSet<String> keys = new TreeSet<>();
-		for (final Object o : keySet()) {
-			keys.add(o.toString());
-		}
+	/**
+	 * Schreibt die Properties nach Schlüssel sortiert und UTF-8-kodiert in den
+	 * {@code OutputStream}. Die Einträge werden ohne Zwischenpuffer je Eintrag
+	 * geschrieben, so dass auch sehr große Konfigurationen nur wenig zusätzlichen
+	 * Speicher benötigen.
+	 * 
+	 * @param out      der Ausgabestrom.
+	 * @param comments ein optionaler Kommentar für den Dateikopf.
+	 * @throws IOException bei Schreibfehlern.
+	 * @see #loadUtf8(InputStream)
+	 */
+	public synchronized void storeUtf8(final OutputStream out, final String comments) throws IOException {
+		store(new OutputStreamWriter(out, StandardCharsets.UTF_8), comments, false);
+	}
 
-		for (String key : keys) {
-			String val = (String) get(key);
-			key = saveConvert(key, true);
+	/**
+	 * Liest die Properties im ISO-8859-1-kodierten Propertiesformat.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void load(final InputStream in) throws IOException {
+		load(new InputStreamReader(in, StandardCharsets.ISO_8859_1));
+	}
 
-			/*
-			 * No need to escape embedded and trailing spaces for value, hence pass false to
-			 * flag.
-			 */
-			val = saveConvert(val, false);
-			writeln(awriter, key + "=" + val);
-		}
+	/**
+	 * Liest die Properties in einem Durchgang ohne Kopien je Zeile.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void load(final Reader reader) throws IOException {
+		new TreePropertiesParser(reader).parse(this::put);
+	}
 
-		awriter.flush();
+	/**
+	 * Liest UTF-8-kodierte Properties, wie sie {@link #storeUtf8(OutputStream,
+	 * String)} schreibt. Unicode-Escape-Sequenzen werden weiterhin
+	 * unterstützt.
+	 * 
+	 * @param in der Eingabestrom.
+	 * @throws IOException bei Lesefehlern.
+	 */
+	public synchronized void loadUtf8(final InputStream in) throws IOException {
+		load(new InputStreamReader(in, StandardCharsets.UTF_8));
 	}
 
 	/**
@@ -419,102 +623,319 @@ public class TreeProperties extends Properties implements WritableConfiguration
 
 	private void beginGroupOrArray(final Group group) {
 		stack.push(group);
-		trace += group.getName() + '.';
+		setTrace(trace + group.getName() + '.');
+	}
+
+	private void setTrace(final String trace) {
+		this.trace = trace;
+		keyCache = null;
 	}
 
+	/**
+	 * Bestimmt den absoluten Schlüssel zu einem relativen Schlüssel in der
+	 * aktuellen Gruppe. Die Ergebnisse werden je Gruppenpfad zwischengespeichert,
+	 * so dass wiederholte Zugriffe auf einen Schlüssel nur noch eine Hashsuche
+	 * kosten.
+	 */
 	private String getAbsoluteKey(final String key) {
-		return trace + normalize(key);
+		Map<String, String> cache = keyCache;
+		if (cache == null) {
+			cache = getKeyCache(trace);
+			keyCache = cache;
+		}
+
+		String absoluteKey = cache.get(key);
+		if (absoluteKey == null) {
+			absoluteKey = trace + normalizeKey(key);
+			if (cache.size() >= KEY_CACHE_LIMIT) {
+				cache.clear();
+			}
+			cache.put(key, absoluteKey);
+		}
+		return absoluteKey;
 	}
 
-	private String normalize(final String key) {
-		String normalized = key;
+	private Map<String, String> getKeyCache(final String path) {
+		Map<String, Map<String, String>> caches = keyCaches;
+		if (caches == null) {
+			caches = new ConcurrentHashMap<>();
+			keyCaches = caches;
+		}
 
-		// Alle Leerzeichen entfernen
-		normalized = normalized.replaceAll("\\s", "");
+		Map<String, String> cache = caches.get(path);
+		if (cache == null) {
+			if (caches.size() >= KEY_CACHE_LIMIT) {
+				caches.clear();
+			}
+			cache = caches.computeIfAbsent(path, p -> new ConcurrentHashMap<>());
+		}
+		return cache;
+	}
 
-		// Punkte in der Mitte zusammenfassen
-		while (normalized.contains("..")) {
-			normalized = normalized.replaceAll("\\.\\.", "\\.");
+	/**
+	 * Normalisiert einen relativen Schlüssel. Dabei werden alle Leerzeichen
+	 * entfernt, mehrfache Punkte zusammengefasst und Punkte am Anfang und am Ende
+	 * entfernt. Ist der Schlüssel bereits normalisiert, wird er unverändert
+	 * zurückgegeben.
+	 * 
+	 * @param key ein Schlüssel.
+	 * @return der normalisierte Schlüssel.
+	 */
+	public static String normalizeKey(final String key) {
+		if (isNormalized(key)) {
+			return key;
 		}
 
-		// Punkt am Anfang entfernen
-		if (normalized.startsWith(".")) {
-			normalized = normalized.substring(1);
+		final int length = key.length();
+		final StringBuilder normalized = new StringBuilder(length);
+		boolean dot = true;
+		for (int i = 0; i < length; i++) {
+			final char c = key.charAt(i);
+			if (isWhitespace(c)) {
+				continue;
+			}
+			if (c == '.') {
+				if (!dot) {
+					normalized.append(c);
+					dot = true;
+				}
+			} else {
+				normalized.append(c);
+				dot = false;
+			}
 		}
 
 		// Punkt am Ende entfernen
-		if (normalized.endsWith(".")) {
-			normalized = normalized.substring(0, normalized.length() - 1);
+		final int last = normalized.length() - 1;
+		if (last >= 0 && normalized.charAt(last) == '.') {
+			normalized.setLength(last);
 		}
 
-		return normalized;
+		return normalized.toString();
 	}
 
-	private String saveConvert(final String theString, final boolean escapeSpace) {
-		final int len = theString.length();
-		int bufLen = len * 2;
-		if (bufLen < 0) {
-			bufLen = Integer.MAX_VALUE;
+	private static boolean isNormalized(final String key) {
+		final int length = key.length();
+		if (length == 0) {
+			return true;
+		}
+		if (key.charAt(0) == '.' || key.charAt(length - 1) == '.') {
+			return false;
+		}
+
+		char previous = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = key.charAt(i);
+			if (isWhitespace(c) || c == '.' && previous == '.') {
+				return false;
+			}
+			previous = c;
+		}
+		return true;
+	}
+
+	/** Entspricht der Zeichenklasse {@code \s} regulärer Ausdrücke. */
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private void store(final Writer writer, final String comments, final boolean escapeUnicode)
+			throws IOException {
+		final BufferedWriter bw = writer instanceof final BufferedWriter b ? b : new BufferedWriter(writer, 65536);
+		final char[] buffer = new char[256];
+
+		if (comments != null) {
+			writeln(bw, "#" + comments);
+		}
+		writeln(bw, "#" + new Date().toString());
+
+		final String[] keys = new String[size()];
+		int count = 0;
+		for (final Object key : keySet()) {
+			if (count == keys.length) {
+				break;
+			}
+			keys[count++] = key.toString();
+		}
+		Arrays.sort(keys, 0, count);
+
+		for (int i = 0; i < count; i++) {
+			final String key = keys[i];
+			final String value = (String) get(key);
+
+			saveConvert(bw, buffer, key, true, escapeUnicode);
+			bw.write('=');
+			/*
+			 * No need to escape embedded and trailing spaces for value, hence pass false to
+			 * flag.
+			 */
+			saveConvert(bw, buffer, value, false, escapeUnicode);
+			bw.newLine();
 		}
-		final StringBuffer outBuffer = new StringBuffer(bufLen);
+
+		bw.flush();
+	}
+
+	/**
+	 * Schreibt einen Schlüssel oder Wert maskiert in den Writer. Die Zeichen
+	 * werden in einem wiederverwendbaren Puffer gesammelt, der bei Bedarf in den
+	 * Writer geleert wird. Er muss deshalb nur eine Unicode-Escape-Sequenz
+	 * aufnehmen können, auch für sehr lange Werte.
+	 */
+	private static void saveConvert(final Writer out, final char[] outBuffer, final String theString,
+			final boolean escapeSpace, final boolean escapeUnicode) throws IOException {
+		final int len = theString.length();
+		int n = 0;
 
 		for (int x = 0; x < len; x++) {
+			if (n + 6 > outBuffer.length) {
+				out.write(outBuffer, 0, n);
+				n = 0;
+			}
+
 			final char aChar = theString.charAt(x);
 			// Handle common case first, selecting largest block that
 			// avoids the specials below
 			if (aChar > 61 && aChar < 127) {
 				if (aChar == '\\') {
-					outBuffer.append('\\');
-					outBuffer.append('\\');
-					continue;
+					outBuffer[n++] = '\\';
 				}
-				outBuffer.append(aChar);
+				outBuffer[n++] = aChar;
 				continue;
 			}
 			switch (aChar) {
 			case ' ':
 				if (x == 0 || escapeSpace) {
-					outBuffer.append('\\');
+					outBuffer[n++] = '\\';
 				}
-				outBuffer.append(' ');
+				outBuffer[n++] = ' ';
 				break;
 			case '\t':
-				outBuffer.append('\\');
-				outBuffer.append('t');
+				outBuffer[n++] = '\\';
+				outBuffer[n++] = 't';
 				break;
 			case '\n':
-				outBuffer.append('\\');
-				outBuffer.append('n');
+				outBuffer[n++] = '\\';
+				outBuffer[n++] = 'n';
 				break;
 			case '\r':
-				outBuffer.append('\\');
-				outBuffer.append('r');
+				outBuffer[n++] = '\\';
+				outBuffer[n++] = 'r';
 				break;
 			case '\f':
-				outBuffer.append('\\');
-				outBuffer.append('f');
+				outBuffer[n++] = '\\';
+				outBuffer[n++] = 'f';
 				break;
 			case '=': // Fall through
 			case ':': // Fall through
 			case '#': // Fall through
 			case '!':
-				outBuffer.append('\\');
-				outBuffer.append(aChar);
+				outBuffer[n++] = '\\';
+				outBuffer[n++] = aChar;
 				break;
 			default:
-				if (aChar < 0x0020 || aChar > 0x007e) {
-					outBuffer.append('\\');
-					outBuffer.append('u');
-					outBuffer.append(toHex(aChar >> 12 & 0xF));
-					outBuffer.append(toHex(aChar >> 8 & 0xF));
-					outBuffer.append(toHex(aChar >> 4 & 0xF));
-					outBuffer.append(toHex(aChar & 0xF));
+				if (aChar < 0x0020 || aChar > 0x007e && escapeUnicode) {
+					outBuffer[n++] = '\\';
+					outBuffer[n++] = 'u';
+					outBuffer[n++] = toHex(aChar >> 12 & 0xF);
+					outBuffer[n++] = toHex(aChar >> 8 & 0xF);
+					outBuffer[n++] = toHex(aChar >> 4 & 0xF);
+					outBuffer[n++] = toHex(aChar & 0xF);
 				} else {
-					outBuffer.append(aChar);
+					outBuffer[n++] = aChar;
+				}
+			}
+		}
+		out.write(outBuffer, 0, n);
+	}
+
+	/**
+	 * Bestimmt den geparsten Wert zu einem relativen Schlüssel. Der Text wird nur
+	 * beim ersten Zugriff geparst. Weil ein Eintrag nur zum identischen Text passt,
+	 * bleibt der Zwischenspeicher auch bei Änderungen an den Standardwerten oder
+	 * beim Laden neuer Werte gültig.
+	 * 
+	 * @return der Wert oder {@code null}, wenn der Schlüssel nicht existiert.
+	 */
+	private ConfigurationValue getValue(final String key) {
+		final String absoluteKey = getAbsoluteKey(key);
+		final String text = super.getProperty(absoluteKey);
+		if (text == null) {
+			return null;
+		}
+
+		Map<String, ConfigurationValue> cache = valueCache;
+		if (cache == null) {
+			cache = new ConcurrentHashMap<>();
+			valueCache = cache;
+		}
+
+		ConfigurationValue value = cache.get(absoluteKey);
+		if (value == null || value.getText() != text) {
+			value = new ConfigurationValue(text);
+			if (cache.size() >= KEY_CACHE_LIMIT) {
+				cache.clear();
+			}
+			cache.put(absoluteKey, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Gibt den Präfixbaum der Schlüssel zurück und baut ihn bei Bedarf auf. Ändert
+	 * sich die Anzahl der Schlüssel an den überschriebenen Methoden vorbei, zum
+	 * Beispiel über {@link #keySet()}, wird der Baum neu aufgebaut.
+	 */
+	private TreePropertiesIndex getKeyIndex() {
+		TreePropertiesIndex index = keyIndex;
+		if (index == null || index.size() != size()) {
+			index = new TreePropertiesIndex();
+			for (final Object key : keySet()) {
+				if (key instanceof final String stringKey) {
+					index.add(stringKey);
+				}
+			}
+			keyIndex = index;
+		}
+		return index;
+	}
+
+	private void invalidateValue(final String absoluteKey) {
+		final Map<String, ConfigurationValue> cache = valueCache;
+		if (cache != null) {
+			cache.remove(absoluteKey);
+		}
+	}
+
+	/**
+	 * Erzeugt einen unveränderlichen Stand der Properties einschließlich aller
+	 * Standardwerte. Der aktuelle Gruppen- und Feldzustand hat keinen Einfluss auf
+	 * das Ergebnis, es werden immer die absoluten Schlüssel übernommen.
+	 * 
+	 * @return der Konfigurationsstand.
+	 */
+	public ConfigurationSnapshot snapshot() {
+		final Map<String, String> values = new HashMap<>();
+		collect(values);
+		return new ConfigurationSnapshot(values);
+	}
+
+	private void collect(final Map<String, String> values) {
+		if (defaults instanceof final TreeProperties treeDefaults) {
+			treeDefaults.collect(values);
+		} else if (defaults != null) {
+			for (final String key : defaults.stringPropertyNames()) {
+				values.put(key, defaults.getProperty(key));
+			}
+		}
+
+		synchronized (this) {
+			for (final Map.Entry<Object, Object> e : entrySet()) {
+				if (e.getKey() instanceof final String key && e.getValue() instanceof final String value) {
+					values.put(key, value);
 				}
 			}
 		}
-		return outBuffer.toString();
 	}
 
 	/**
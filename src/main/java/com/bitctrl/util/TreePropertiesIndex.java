@@ -0,0 +1,266 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Präfixbaum über die absoluten Schlüssel einer {@link TreeProperties}. Jeder
+ * durch Punkte getrennte Abschnitt eines Schlüssels ist ein Knoten, so dass
+ * Gruppen und Felder ohne Durchlauf aller Schlüssel abgefragt werden können.
+ * Die Kosten einer Abfrage hängen nur von der Tiefe des Pfads und der Anzahl
+ * der Ergebnisse ab.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class TreePropertiesIndex {
+
+	private static final class Node {
+
+		private Map<String, Node> children;
+
+		/** Anzahl der Schlüssel in diesem Teilbaum einschließlich des Knotens. */
+		private int count;
+
+		/** Gibt an, ob der Pfad bis zu diesem Knoten selbst ein Schlüssel ist. */
+		private boolean key;
+
+		Node child(final String name) {
+			return children != null ? children.get(name) : null;
+		}
+
+		Node addChild(final String name) {
+			if (children == null) {
+				children = new HashMap<>(4);
+			}
+			return children.computeIfAbsent(name, n -> new Node());
+		}
+
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Gibt die Anzahl der Schlüssel im Index zurück.
+	 * 
+	 * @return die Anzahl.
+	 */
+	int size() {
+		return root.count;
+	}
+
+	/**
+	 * Nimmt einen Schlüssel auf, falls er noch nicht enthalten ist.
+	 * 
+	 * @param key der absolute Schlüssel.
+	 */
+	void add(final String key) {
+		Node node = root;
+		int start = 0;
+		while (true) {
+			final int end = key.indexOf('.', start);
+			node = node.addChild(end < 0 ? key.substring(start) : key.substring(start, end));
+			if (end < 0) {
+				break;
+			}
+			start = end + 1;
+		}
+		if (node.key) {
+			return;
+		}
+
+		node.key = true;
+		node = root;
+		node.count++;
+		start = 0;
+		while (true) {
+			final int end = key.indexOf('.', start);
+			node = node.child(end < 0 ? key.substring(start) : key.substring(start, end));
+			node.count++;
+			if (end < 0) {
+				break;
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Entfernt einen Schlüssel. Leere Teilbäume werden dabei abgebaut.
+	 * 
+	 * @param key der absolute Schlüssel.
+	 */
+	void remove(final String key) {
+		final Node node = find(key, false);
+		if (node == null || !node.key) {
+			return;
+		}
+
+		node.key = false;
+		Node parent = root;
+		parent.count--;
+		int start = 0;
+		while (true) {
+			final int end = key.indexOf('.', start);
+			final String name = end < 0 ? key.substring(start) : key.substring(start, end);
+			final Node child = parent.child(name);
+			if (--child.count == 0) {
+				parent.children.remove(name);
+				return;
+			}
+			if (end < 0) {
+				return;
+			}
+			parent = child;
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Gibt die Namen der direkten Kinder einer Gruppe sortiert zurück.
+	 * 
+	 * @param path der absolute Pfad der Gruppe, mit oder ohne Punkt am Ende. Der
+	 *             leere String steht für die Wurzel.
+	 * @return die Namen der Kinder, Schlüssel und Untergruppen gemischt.
+	 */
+	Set<String> children(final String path) {
+		final Node node = find(path, true);
+		final Set<String> result = new TreeSet<>();
+		if (node != null && node.children != null) {
+			result.addAll(node.children.keySet());
+		}
+		return result;
+	}
+
+	/**
+	 * Sammelt alle absoluten Schlüssel unterhalb einer Gruppe.
+	 * 
+	 * @param path   der absolute Pfad der Gruppe, mit oder ohne Punkt am Ende.
+	 * @param result die Sammlung, in die die Schlüssel eingetragen werden.
+	 */
+	void subtree(final String path, final Collection<String> result) {
+		final Node node = find(path, true);
+		if (node == null || node.children == null) {
+			return;
+		}
+
+		final StringBuilder prefix = new StringBuilder(path);
+		if (prefix.length() > 0 && prefix.charAt(prefix.length() - 1) != '.') {
+			prefix.append('.');
+		}
+		for (final Map.Entry<String, Node> e : node.children.entrySet()) {
+			collect(e.getValue(), prefix, e.getKey(), result);
+		}
+	}
+
+	/**
+	 * Bestimmt die Länge eines Felds anhand des größten Elementindex. Die
+	 * Elemente eines Felds werden ab 1 gezählt.
+	 * 
+	 * @param path der absolute Pfad des Felds, mit oder ohne Punkt am Ende.
+	 * @return der größte Index oder 0, wenn das Feld keine Elemente hat.
+	 */
+	int arrayLength(final String path) {
+		final Node node = find(path, true);
+		if (node == null || node.children == null) {
+			return 0;
+		}
+
+		int max = 0;
+		for (final String name : node.children.keySet()) {
+			final int index = parseIndex(name);
+			if (index > max) {
+				max = index;
+			}
+		}
+		return max;
+	}
+
+	private void collect(final Node node, final StringBuilder prefix, final String name,
+			final Collection<String> result) {
+		final int length = prefix.length();
+		prefix.append(name);
+		if (node.key) {
+			result.add(prefix.toString());
+		}
+		if (node.children != null) {
+			prefix.append('.');
+			for (final Map.Entry<String, Node> e : node.children.entrySet()) {
+				collect(e.getValue(), prefix, e.getKey(), result);
+			}
+		}
+		prefix.setLength(length);
+	}
+
+	private Node find(final String path, final boolean group) {
+		int length = path.length();
+		if (group) {
+			if (length == 0) {
+				return root;
+			}
+			if (path.charAt(length - 1) == '.') {
+				length--;
+			}
+		}
+
+		Node node = root;
+		int start = 0;
+		while (node != null) {
+			int end = path.indexOf('.', start);
+			if (end < 0 || end > length) {
+				end = length;
+			}
+			node = node.child(path.substring(start, end));
+			if (end == length) {
+				break;
+			}
+			start = end + 1;
+		}
+		return node;
+	}
+
+	private static int parseIndex(final String name) {
+		final int length = name.length();
+		if (length == 0 || length > 9) {
+			return -1;
+		}
+
+		int value = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = name.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + c - '0';
+		}
+		return value;
+	}
+
+}
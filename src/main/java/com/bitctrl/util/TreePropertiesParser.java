@@ -0,0 +1,279 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.BiConsumer;
+
+/**
+ * Liest Propertiesfiles im Format von {@link java.util.Properties#load(Reader)}
+ * in einem Durchgang. Die Zeichen werden blockweise in einen Puffer gelesen,
+ * logische Zeilen werden in einem wiederverwendeten Zeilenpuffer
+ * zusammengesetzt und Schlüssel und Werte direkt daraus dekodiert. Kurze,
+ * häufig wiederkehrende Werte wie {@code true} oder {@code 0} werden dabei nur
+ * einmal als String angelegt.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class TreePropertiesParser {
+
+	/** Werte bis zu dieser Länge werden über {@link #shared} mehrfach genutzt. */
+	private static final int SHARED_LENGTH = 16;
+	private static final int SHARED_SIZE = 1024;
+
+	private final Reader in;
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int limit;
+	private char[] line = new char[1024];
+	private char[] converted = new char[1024];
+	private final String[] shared = new String[SHARED_SIZE];
+
+	TreePropertiesParser(final Reader in) {
+		this.in = in;
+	}
+
+	/**
+	 * Liest alle Einträge und übergibt sie der Reihe nach an den Empfänger.
+	 * 
+	 * @param target der Empfänger für Schlüssel und Wert.
+	 * @throws IOException              bei Lesefehlern.
+	 * @throws IllegalArgumentException wenn eine Unicode-Escape-Sequenz
+	 *                                  fehlerhaft ist.
+	 */
+	void parse(final BiConsumer<String, String> target) throws IOException {
+		int length;
+		while ((length = readLine()) >= 0) {
+			int keyLength = 0;
+			int valueStart = length;
+			boolean hasSeparator = false;
+			boolean precedingBackslash = false;
+
+			while (keyLength < length) {
+				final char c = line[keyLength];
+				if ((c == '=' || c == ':') && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					hasSeparator = true;
+					break;
+				} else if (isWhitespace(c) && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					break;
+				}
+				precedingBackslash = c == '\\' && !precedingBackslash;
+				keyLength++;
+			}
+			while (valueStart < length) {
+				final char c = line[valueStart];
+				if (!isWhitespace(c)) {
+					if (!hasSeparator && (c == '=' || c == ':')) {
+						hasSeparator = true;
+					} else {
+						break;
+					}
+				}
+				valueStart++;
+			}
+
+			final String key = convert(0, keyLength, false);
+			final String value = convert(valueStart, length - valueStart, true);
+			target.accept(key, value);
+		}
+	}
+
+	/**
+	 * Liest die nächste logische Zeile in {@link #line}. Kommentare und
+	 * Leerzeilen werden übersprungen, fortgesetzte Zeilen zusammengefügt.
+	 * 
+	 * @return die Länge der Zeile oder -1 am Ende der Eingabe.
+	 */
+	private int readLine() throws IOException {
+		int length = 0;
+		boolean skipWhitespace = true;
+		boolean appendedLineBegin = false;
+		boolean precedingBackslash = false;
+
+		while (true) {
+			if (position >= limit && !fill()) {
+				if (length == 0) {
+					return -1;
+				}
+				return precedingBackslash ? length - 1 : length;
+			}
+
+			final char c = buffer[position++];
+			if (skipWhitespace) {
+				if (isWhitespace(c) || !appendedLineBegin && (c == '\n' || c == '\r')) {
+					continue;
+				}
+				skipWhitespace = false;
+				appendedLineBegin = false;
+			}
+
+			if (length == 0 && (c == '#' || c == '!')) {
+				// Kommentar bis zum Zeilenende überspringen
+				while (true) {
+					if (position >= limit && !fill()) {
+						return -1;
+					}
+					final char d = buffer[position++];
+					if (d == '\n' || d == '\r') {
+						break;
+					}
+				}
+				skipWhitespace = true;
+				continue;
+			}
+
+			if (c != '\n' && c != '\r') {
+				if (length == line.length) {
+					line = grow(line);
+				}
+				line[length++] = c;
+				precedingBackslash = c == '\\' && !precedingBackslash;
+			} else if (length == 0) {
+				skipWhitespace = true;
+			} else if (position >= limit && !fill()) {
+				return precedingBackslash ? length - 1 : length;
+			} else if (precedingBackslash) {
+				// Fortsetzungszeile, der Backslash am Zeilenende entfällt
+				length--;
+				skipWhitespace = true;
+				appendedLineBegin = true;
+				precedingBackslash = false;
+				if (c == '\r' && buffer[position] == '\n') {
+					position++;
+				}
+			} else {
+				return length;
+			}
+		}
+	}
+
+	private boolean fill() throws IOException {
+		limit = in.read(buffer);
+		position = 0;
+		if (limit <= 0) {
+			limit = 0;
+			return false;
+		}
+		return true;
+	}
+
+	private String convert(final int offset, final int length, final boolean share) {
+		if (converted.length < length) {
+			converted = new char[Math.max(length, converted.length * 2)];
+		}
+
+		final int end = offset + length;
+		int count = 0;
+		int i = offset;
+		while (i < end) {
+			char c = line[i++];
+			if (c == '\\' && i < end) {
+				c = line[i++];
+				if (c == 'u') {
+					if (end - i < 4) {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+					int value = 0;
+					for (int j = 0; j < 4; j++) {
+						final int digit = hexDigit(line[i++]);
+						if (digit < 0) {
+							throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+						}
+						value = value << 4 | digit;
+					}
+					c = (char) value;
+				} else if (c == 't') {
+					c = '\t';
+				} else if (c == 'r') {
+					c = '\r';
+				} else if (c == 'n') {
+					c = '\n';
+				} else if (c == 'f') {
+					c = '\f';
+				}
+			}
+			converted[count++] = c;
+		}
+
+		if (!share || count > SHARED_LENGTH) {
+			return new String(converted, 0, count);
+		}
+		return share(count);
+	}
+
+	private String share(final int count) {
+		int hash = 0;
+		for (int i = 0; i < count; i++) {
+			hash = 31 * hash + converted[i];
+		}
+
+		final int slot = (hash ^ hash >>> 16) & SHARED_SIZE - 1;
+		final String candidate = shared[slot];
+		if (candidate != null && candidate.length() == count) {
+			boolean equal = true;
+			for (int i = 0; i < count && equal; i++) {
+				equal = candidate.charAt(i) == converted[i];
+			}
+			if (equal) {
+				return candidate;
+			}
+		}
+
+		final String value = new String(converted, 0, count);
+		shared[slot] = value;
+		return value;
+	}
+
+	private static int hexDigit(final char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		} else if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		} else if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		return -1;
+	}
+
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+
+	private static char[] grow(final char[] array) {
+		int newLength = array.length * 2;
+		if (newLength < 0) {
+			newLength = Integer.MAX_VALUE - 8;
+		}
+		final char[] result = new char[newLength];
+		System.arraycopy(array, 0, result, 0, array.length);
+		return result;
+	}
+
+}
@@ -37,6 +37,9 @@ import com.bitctrl.Constants;
  * Eine allgemeine Schnittstelle zum Prüfen einzelner Werte. Die Art des Tests
  * kann beliebig sein, es wird zu jedem Wert eine Antwort mit "Ja" oder "Nein"
  * generiert, ob der Wert "matched" oder nicht.
+ * <p>
+ * Zusammengesetzte Matcher, die sehr oft ausgewertet werden, sollten mit
+ * {@link #compile(ValueMatcher)} vorbereitet werden.
  * 
  * @author BitCtrl Systems GmbH, Falko Schumann
  * 
@@ -124,6 +127,10 @@ public interface ValueMatcher<T> {
 			return collection.contains(value);
 		}
 
+		Collection<T> getCollection() {
+			return collection;
+		}
+
 		@Override
 		public String toString() {
 			String s;
@@ -189,6 +196,8 @@ public interface ValueMatcher<T> {
 	 */
 	static class EmailMatcher implements ValueMatcher<String> {
 
+		private static final Pattern PATTERN = Pattern.compile(Constants.REGEX_MAIL);
+
 		/**
 		 * {@inheritDoc}
 		 * 
@@ -197,7 +206,7 @@ public interface ValueMatcher<T> {
 		 */
 		@Override
 		public boolean match(final String value) {
-			return value != null && Pattern.matches(Constants.REGEX_MAIL, value);
+			return value != null && PATTERN.matcher(value).matches();
 		}
 	}
 
@@ -207,11 +216,28 @@ public interface ValueMatcher<T> {
 	 */
 	static class PasswdMatcher implements ValueMatcher<String> {
 
+		/**
+		 * {@inheritDoc}
+		 * 
+		 * Gibt {@code true} zurück, wenn der Wert nur aus mindestens 6 Buchstaben und
+		 * Ziffern besteht und mindestens 2 Ziffern enthält.
+		 */
 		@Override
 		public boolean match(final String value) {
-			return value != null && Pattern.matches("^[a-zA-Z0-9]{6,}$", value) //$NON-NLS-1$
-					&& Pattern.matches(".*[0-9].*[0-9].*", value); //$NON-NLS-1$
+			if (value == null || value.length() < 6) {
+				return false;
+			}
 
+			int digits = 0;
+			for (int i = 0; i < value.length(); i++) {
+				final char c = value.charAt(i);
+				if (c >= '0' && c <= '9') {
+					digits++;
+				} else if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+					return false;
+				}
+			}
+			return digits >= 2;
 		}
 	}
 
@@ -221,15 +247,18 @@ public interface ValueMatcher<T> {
 	 */
 	static class RegExMatcher implements ValueMatcher<String> {
 
-		private final String regex;
+		private final Pattern pattern;
 
 		/**
-		 * Legt den regulären Ausdruck fest, gegen den geprüft werden soll.
+		 * Legt den regulären Ausdruck fest, gegen den geprüft werden soll. Der
+		 * Ausdruck wird einmalig übersetzt.
 		 * 
 		 * @param regex ein regulärer Ausdruck.
+		 * @throws java.util.regex.PatternSyntaxException wenn der Ausdruck ungültig
+		 *                                                ist.
 		 */
 		public RegExMatcher(final String regex) {
-			this.regex = regex;
+			pattern = Pattern.compile(regex);
 		}
 
 		/**
@@ -240,7 +269,7 @@ public interface ValueMatcher<T> {
 		 */
 		@Override
 		public boolean match(final String value) {
-			return value != null && Pattern.matches(regex, value);
+			return value != null && pattern.matcher(value).matches();
 		}
 	}
 
@@ -278,6 +307,32 @@ public interface ValueMatcher<T> {
 		}
 	}
 
+	/**
+	 * Bereitet einen Matcher für die häufige Auswertung vor. Dabei werden
+	 * <ul>
+	 * <li>verschachtelte {@link ComplexMatcher} und {@link ValueSetMatcher}
+	 * flachgeklopft und neutrale Elemente wie {@link AlwaysMatcher} entfernt,</li>
+	 * <li>die Elemente einer Und- bzw. Oder-Verknüpfung so umsortiert, dass die
+	 * günstigsten Prüfungen zuerst ausgeführt werden,</li>
+	 * <li>{@link CollectionValueMatcher} über Listen, {@link java.util.HashSet}
+	 * oder {@link java.util.LinkedHashSet} in Hashtabellen bzw. für kleine,
+	 * nicht-negative Ganzzahlen in Bitmengen umgewandelt und in einer
+	 * Oder-Verknüpfung zu einer Menge zusammengefasst. Andere Collections, etwa
+	 * sortierte Mengen mit eigenem Comparator, werden unverändert benutzt.</li>
+	 * </ul>
+	 * Der übersetzte Matcher ist eine Momentaufnahme, spätere Änderungen an den
+	 * Ausgangsmatchern oder den umgewandelten Collections wirken sich nicht mehr
+	 * aus. Da die Reihenfolge der Prüfungen geändert wird, sollten die Matcher
+	 * frei von Seiteneffekten sein.
+	 * 
+	 * @param <T>     der Typ der zu prüfenden Werte.
+	 * @param matcher der zu übersetzende Matcher.
+	 * @return ein Matcher mit demselben Ergebnis.
+	 */
+	static <T> ValueMatcher<T> compile(final ValueMatcher<T> matcher) {
+		return ValueMatcherCompiler.compile(matcher);
+	}
+
 	/**
 	 * Gibt {@code true} zurück, wenn der übergebene Wert matcht und {@code
 	 * false}, wenn er nicht matcht.
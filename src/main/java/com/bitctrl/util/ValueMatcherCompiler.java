@@ -0,0 +1,317 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Übersetzt {@link ValueMatcher} in eine für die häufige Auswertung optimierte
+ * Form, siehe {@link ValueMatcher#compile(ValueMatcher)}.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+final class ValueMatcherCompiler {
+
+	/** Ganzzahlige Mengen bis zu dieser Größe werden als Bitmenge gehalten. */
+	private static final int BIT_SET_LIMIT = 1 << 16;
+
+	/** Kosten für Matcher, deren Aufwand nicht bekannt ist. */
+	private static final int UNKNOWN_COST = 10;
+
+	/** Matcher, für den kein Wert matcht. */
+	private static final class NeverMatcher<T> implements ValueMatcher<T> {
+
+		@Override
+		public boolean match(final T value) {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "never";
+		}
+
+	}
+
+	/** Prüft, ob ein Wert in einer Hashtabelle enthalten ist. */
+	private static final class SetMatcher<T> implements ValueMatcher<T> {
+
+		private final Set<Object> values;
+
+		SetMatcher(final Set<Object> values) {
+			this.values = values;
+		}
+
+		@Override
+		public boolean match(final T value) {
+			return values.contains(value);
+		}
+
+		@Override
+		public String toString() {
+			return "in " + values;
+		}
+
+	}
+
+	/** Prüft, ob eine kleine, nicht-negative Ganzzahl in einer Bitmenge liegt. */
+	private static final class BitSetMatcher<T> implements ValueMatcher<T> {
+
+		private final BitSet values;
+
+		BitSetMatcher(final BitSet values) {
+			this.values = values;
+		}
+
+		@Override
+		public boolean match(final T value) {
+			return value instanceof final Integer i && i >= 0 && values.get(i);
+		}
+
+		@Override
+		public String toString() {
+			return "in " + values;
+		}
+
+	}
+
+	/** Und-Verknüpfung über ein Feld mit Abbruch beim ersten Fehlschlag. */
+	private static final class AllMatcher<T> implements ValueMatcher<T> {
+
+		private final ValueMatcher<T>[] matchers;
+
+		AllMatcher(final ValueMatcher<T>[] matchers) {
+			this.matchers = matchers;
+		}
+
+		@Override
+		public boolean match(final T value) {
+			for (final ValueMatcher<T> matcher : matchers) {
+				if (!matcher.match(value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return "all" + List.of(matchers);
+		}
+
+	}
+
+	/** Oder-Verknüpfung über ein Feld mit Abbruch beim ersten Treffer. */
+	private static final class AnyMatcher<T> implements ValueMatcher<T> {
+
+		private final ValueMatcher<T>[] matchers;
+
+		AnyMatcher(final ValueMatcher<T>[] matchers) {
+			this.matchers = matchers;
+		}
+
+		@Override
+		public boolean match(final T value) {
+			for (final ValueMatcher<T> matcher : matchers) {
+				if (matcher.match(value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "any" + List.of(matchers);
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> ValueMatcher<T> compile(final ValueMatcher<T> matcher) {
+		final Class<?> type = matcher.getClass();
+		if (type == ValueMatcher.ComplexMatcher.class) {
+			return compileAll((ValueMatcher.ComplexMatcher<T>) matcher);
+		}
+		if (type == ValueSetMatcher.class) {
+			return compileAny(((ValueSetMatcher<T>) matcher).getMatchers());
+		}
+		if (type == ValueMatcher.CollectionValueMatcher.class) {
+			final Collection<T> collection = ((ValueMatcher.CollectionValueMatcher<T>) matcher).getCollection();
+			if (usesEquals(collection)) {
+				return compileSet(new LinkedHashSet<>(collection));
+			}
+		}
+		return matcher;
+	}
+
+	/**
+	 * Prüft, ob {@code contains()} der Collection mit {@code equals()} vergleicht.
+	 * Nur dann darf sie in eine Hashtabelle umgewandelt werden, sortierte Mengen
+	 * mit eigenem Comparator oder Identitätsmengen behalten ihr Verhalten.
+	 */
+	private static boolean usesEquals(final Collection<?> collection) {
+		final Class<?> type = collection.getClass();
+		return collection instanceof List || type == HashSet.class || type == LinkedHashSet.class;
+	}
+
+	private static <T> ValueMatcher<T> compileAll(final List<ValueMatcher<T>> matchers) {
+		final List<ValueMatcher<T>> result = new ArrayList<>();
+		for (final ValueMatcher<T> m : matchers) {
+			final ValueMatcher<T> compiled = compile(m);
+			if (compiled instanceof final AllMatcher<T> all) {
+				result.addAll(List.of(all.matchers));
+			} else if (compiled instanceof NeverMatcher) {
+				return compiled;
+			} else if (compiled.getClass() != ValueMatcher.AlwaysMatcher.class) {
+				result.add(compiled);
+			}
+		}
+
+		if (result.isEmpty()) {
+			return new ValueMatcher.AlwaysMatcher<>();
+		}
+		if (result.size() == 1) {
+			return result.get(0);
+		}
+		return new AllMatcher<>(sortByCost(result));
+	}
+
+	private static <T> ValueMatcher<T> compileAny(final List<ValueMatcher<T>> matchers) {
+		final List<ValueMatcher<T>> result = new ArrayList<>();
+		final Set<Object> values = new LinkedHashSet<>();
+		final List<ValueMatcher<T>> pending = new ArrayList<>();
+		for (final ValueMatcher<T> m : matchers) {
+			pending.add(compile(m));
+		}
+
+		for (int i = 0; i < pending.size(); i++) {
+			final ValueMatcher<T> compiled = pending.get(i);
+			if (compiled instanceof final AnyMatcher<T> any) {
+				pending.addAll(List.of(any.matchers));
+			} else if (compiled instanceof final SetMatcher<T> set) {
+				values.addAll(set.values);
+			} else if (compiled instanceof final BitSetMatcher<T> bits) {
+				bits.values.stream().forEach(values::add);
+			} else if (compiled.getClass() == ValueMatcher.AlwaysMatcher.class) {
+				return compiled;
+			} else if (!(compiled instanceof NeverMatcher)) {
+				result.add(compiled);
+			}
+		}
+		if (!values.isEmpty()) {
+			result.add(compileSet(values));
+		}
+
+		if (result.isEmpty()) {
+			return new NeverMatcher<>();
+		}
+		if (result.size() == 1) {
+			return result.get(0);
+		}
+		return new AnyMatcher<>(sortByCost(result));
+	}
+
+	private static <T> ValueMatcher<T> compileSet(final Collection<?> values) {
+		if (values.isEmpty()) {
+			return new NeverMatcher<>();
+		}
+
+		boolean small = true;
+		for (final Object value : values) {
+			if (!(value instanceof final Integer i) || i < 0 || i >= BIT_SET_LIMIT) {
+				small = false;
+				break;
+			}
+		}
+		if (small) {
+			final BitSet bits = new BitSet();
+			for (final Object value : values) {
+				bits.set((Integer) value);
+			}
+			return new BitSetMatcher<>(bits);
+		}
+		return new SetMatcher<>(new HashSet<>(values));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <T> ValueMatcher<T>[] sortByCost(final List<ValueMatcher<T>> matchers) {
+		matchers.sort(Comparator.comparingInt(ValueMatcherCompiler::cost));
+		return matchers.toArray(new ValueMatcher[matchers.size()]);
+	}
+
+	private static int cost(final ValueMatcher<?> matcher) {
+		if (matcher instanceof NeverMatcher || matcher instanceof ValueMatcher.AlwaysMatcher) {
+			return 0;
+		}
+		if (matcher instanceof ValueMatcher.NotNullMatcher || matcher instanceof ValueMatcher.StringNotEmptyMatcher) {
+			return 1;
+		}
+		if (matcher instanceof BitSetMatcher) {
+			return 2;
+		}
+		if (matcher instanceof SetMatcher) {
+			return 3;
+		}
+		if (matcher instanceof ValueMatcher.RangeMatcher) {
+			return 4;
+		}
+		if (matcher instanceof ValueMatcher.PasswdMatcher) {
+			return 5;
+		}
+		if (matcher instanceof ValueMatcher.RegExMatcher || matcher instanceof ValueMatcher.EmailMatcher) {
+			return 20;
+		}
+		if (matcher instanceof final AllMatcher<?> all) {
+			return sum(all.matchers);
+		}
+		if (matcher instanceof final AnyMatcher<?> any) {
+			return sum(any.matchers);
+		}
+		return UNKNOWN_COST;
+	}
+
+	private static int sum(final ValueMatcher<?>[] matchers) {
+		int sum = 0;
+		for (final ValueMatcher<?> m : matchers) {
+			sum += cost(m);
+		}
+		return sum;
+	}
+
+	private ValueMatcherCompiler() {
+		// Hilfsklasse
+	}
+
+}
@@ -66,6 +66,10 @@ public class ValueSetMatcher<T> implements ValueMatcher<T> {
 		return false;
 	}
 
+	List<ValueMatcher<T>> getMatchers() {
+		return matchers;
+	}
+
 	@Override
 	public String toString() {
 		String s;
@@ -1,35 +1,147 @@
 package com.bitctrl.util.monitor;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractMonitor implements IMonitor {
 
+	private static final IMonitorProgressListener[] NO_LISTENERS = {};
+
 	private Set<IMonitorProgressListener> listeners = null;
 
+	/**
+	 * Snapshot of the registered listeners, read without locking on every
+	 * notification. Empty if no listener is registered.
+	 */
+	private volatile IMonitorProgressListener[] listenerSnapshot = NO_LISTENERS;
+
+	private long notificationInterval = 0;
+
+	private double notificationDelta = 0.0;
+
+	private long lastNotificationTime;
+
+	private double lastNotifiedProgress = Double.NaN;
+
+	private double pendingProgress = Double.NaN;
+
 	@Override
 	public synchronized final void addMonitorListener(final IMonitorProgressListener listener) {
 		if (null == listeners) {
-			listeners = new HashSet<>();
+			listeners = new LinkedHashSet<>();
 		}
 		listeners.add(listener);
+		listenerSnapshot = listeners.toArray(NO_LISTENERS);
 	}
 
 	@Override
 	public synchronized final void removeMonitorListener(final IMonitorProgressListener listener) {
-		if (null != listener) {
+		if (null != listener && null != listeners) {
 			listeners.remove(listener);
 			if (listeners.isEmpty()) {
 				listeners = null;
+				listenerSnapshot = NO_LISTENERS;
+			} else {
+				listenerSnapshot = listeners.toArray(NO_LISTENERS);
 			}
 		}
 	}
 
-	protected synchronized final void notifyMonitorListeners(final double progress) {
-		if (null != listeners) {
-			for (final IMonitorProgressListener listener : listeners) {
-				listener.progress(progress);
+	/**
+	 * Sets the minimum time between two progress notifications. Progress reported
+	 * within this interval is coalesced and delivered with the next notification
+	 * that is due.
+	 *
+	 * @param millis the minimum interval in milliseconds; <code>0</code> notifies
+	 *               on every change
+	 */
+	public final void setNotificationInterval(final long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("Interval must not be negative: " + millis);
+		}
+		notificationInterval = TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+
+	/**
+	 * Sets the minimum change of the progress value between two notifications.
+	 * The value is in the same units that are passed to
+	 * {@link IMonitorProgressListener#progress(double)}.
+	 *
+	 * @param delta the minimum change; <code>0</code> notifies on every change
+	 */
+	public final void setNotificationDelta(final double delta) {
+		if (!(delta >= 0.0)) {
+			throw new IllegalArgumentException("Delta must not be negative: " + delta);
+		}
+		notificationDelta = delta;
+	}
+
+	/**
+	 * Returns whether any listener is registered. This is a cheap, unsynchronized
+	 * check that allows callers to skip computing progress values nobody listens
+	 * to.
+	 *
+	 * @return <code>true</code> if at least one listener is registered
+	 */
+	protected final boolean hasMonitorListeners() {
+		return listenerSnapshot.length != 0;
+	}
+
+	/**
+	 * Notifies the listeners about the progress, subject to the configured
+	 * notification interval and delta.
+	 *
+	 * @param progress the current progress
+	 */
+	protected final void notifyMonitorListeners(final double progress) {
+		notifyMonitorListeners(progress, false);
+	}
+
+	/**
+	 * Notifies the listeners about the progress.
+	 *
+	 * @param progress the current progress
+	 * @param force    <code>true</code> to bypass the notification interval and
+	 *                 delta, e.g. for the final progress value
+	 */
+	protected final void notifyMonitorListeners(final double progress, final boolean force) {
+		final IMonitorProgressListener[] current = listenerSnapshot;
+		if (current.length == 0) {
+			return;
+		}
+
+		if (!force && (notificationInterval > 0 || notificationDelta > 0.0)) {
+			if (Math.abs(progress - lastNotifiedProgress) < notificationDelta) {
+				pendingProgress = progress;
+				return;
 			}
+			if (notificationInterval > 0) {
+				final long now = System.nanoTime();
+				if (!Double.isNaN(lastNotifiedProgress) && now - lastNotificationTime < notificationInterval) {
+					pendingProgress = progress;
+					return;
+				}
+				lastNotificationTime = now;
+			}
+		} else if (notificationInterval > 0) {
+			lastNotificationTime = System.nanoTime();
+		}
+
+		lastNotifiedProgress = progress;
+		pendingProgress = Double.NaN;
+		for (final IMonitorProgressListener listener : current) {
+			listener.progress(progress);
+		}
+	}
+
+	/**
+	 * Delivers progress that was held back by the notification interval or delta.
+	 */
+	protected final void flushMonitorNotifications() {
+		if (!Double.isNaN(pendingProgress) && pendingProgress != lastNotifiedProgress) {
+			notifyMonitorListeners(pendingProgress, true);
 		}
+		pendingProgress = Double.NaN;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,260 @@
+package com.bitctrl.util.monitor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A thread-safe progress monitor for one of several workers that run in
+ * parallel, e.g. on a fork/join pool. Instances are created in groups by
+ * {@link SubMonitor#split(int...)}; each member owns a fixed share of the work
+ * that the parent allocated to the group.
+ * </p>
+ *
+ * <p>
+ * Reported work is counted in a {@link LongAdder} and published to the group
+ * with compare-and-set, so no locks are taken on the hot path. The group
+ * forwards the combined progress to the root monitor; if another thread is
+ * already forwarding, the caller does not wait and its progress is picked up by
+ * that thread.
+ * </p>
+ *
+ * <p>
+ * Cancellation is shared: canceling any member cancels the whole group and the
+ * root monitor, and every member reports canceled once the root is canceled.
+ * Task names and subtasks are ignored, because labels from several threads
+ * cannot be shown in a meaningful order.
+ * </p>
+ *
+ * @author BitCtrl Systems GmbH
+ */
+public final class ConcurrentSubMonitor extends AbstractMonitor {
+
+	/**
+	 * Fixed-point resolution of a single share unit when progress is aggregated.
+	 */
+	private static final long SCALE = 1L << 16;
+
+	/**
+	 * The members of a split, aggregating their progress for the root monitor.
+	 */
+	static final class Group {
+
+		private final IMonitor root;
+
+		private final int rootTicks;
+
+		private final long capacity;
+
+		private final ConcurrentSubMonitor[] members;
+
+		private final LongAdder progress = new LongAdder();
+
+		private final AtomicBoolean forwarding = new AtomicBoolean();
+
+		/** Root ticks already forwarded, only written while forwarding. */
+		private volatile long forwarded = 0;
+
+		private volatile boolean canceled = false;
+
+		Group(final IMonitor root, final int rootTicks, final int[] shares) {
+			this.root = root;
+			this.rootTicks = rootTicks;
+			members = new ConcurrentSubMonitor[shares.length];
+			long sum = 0;
+			for (int i = 0; i < shares.length; ++i) {
+				members[i] = new ConcurrentSubMonitor(this, shares[i]);
+				sum += members[i].capacity;
+			}
+			capacity = sum;
+		}
+
+		ConcurrentSubMonitor[] getMembers() {
+			return members.clone();
+		}
+
+		void add(final long units) {
+			progress.add(units);
+			forward();
+		}
+
+		private long target() {
+			if (capacity == 0) {
+				return 0;
+			}
+			return Math.min(rootTicks, (long) ((double) rootTicks * progress.sum() / capacity));
+		}
+
+		private void forward() {
+			// only one thread talks to the root at a time; the others leave
+			// their progress to it instead of blocking
+			while (target() > forwarded && forwarding.compareAndSet(false, true)) {
+				try {
+					final long delta = target() - forwarded;
+					if (delta > 0) {
+						forwarded += delta;
+						root.worked((int) delta);
+					}
+				} finally {
+					forwarding.set(false);
+				}
+			}
+		}
+
+		boolean isCanceled() {
+			return canceled || root.isCanceled();
+		}
+
+		void setCanceled(final boolean value) {
+			canceled = value;
+			root.setCanceled(value);
+		}
+
+		/**
+		 * Completes all members. Called by the parent when it moves on.
+		 */
+		void done() {
+			for (final ConcurrentSubMonitor member : members) {
+				member.done();
+			}
+		}
+	}
+
+	private final Group group;
+
+	private final long capacity;
+
+	private volatile int totalWork;
+
+	private final LongAdder worked = new LongAdder();
+
+	/** Units of {@link #capacity} already published to the group. */
+	private final AtomicLong reported = new AtomicLong();
+
+	/**
+	 * Set while a thread notifies the listeners, so that the notification state
+	 * of {@link AbstractMonitor} is only used by one thread at a time.
+	 */
+	private final AtomicBoolean notifying = new AtomicBoolean();
+
+	/**
+	 * Set by {@link #done()} to have held-back progress delivered by whichever
+	 * thread holds {@link #notifying}.
+	 */
+	private volatile boolean flushRequested = false;
+
+	private ConcurrentSubMonitor(final Group group, final int share) {
+		this.group = group;
+		capacity = Math.max(0, share) * SCALE;
+		totalWork = Math.max(0, share);
+	}
+
+	/**
+	 * Redefines the number of ticks this member will report. By default a member
+	 * expects as many ticks as its share. Only the share of the parent's work is
+	 * fixed, the number of ticks used to report it is not.
+	 *
+	 * @param name      ignored
+	 * @param totalWork the number of ticks, or {@link IMonitor#UNKNOWN} if the
+	 *                  progress is only reported by {@link #done()}
+	 */
+	@Override
+	public void beginTask(final String name, final int totalWork) {
+		this.totalWork = Math.max(0, totalWork);
+		publish(position());
+	}
+
+	@Override
+	public void done() {
+		publish(capacity);
+		if (hasMonitorListeners()) {
+			flushRequested = true;
+			notifyProgress();
+		}
+	}
+
+	@Override
+	public boolean isCanceled() {
+		return group.isCanceled();
+	}
+
+	@Override
+	public void setCanceled(final boolean canceled) {
+		group.setCanceled(canceled);
+	}
+
+	@Override
+	public void setTaskName(final String name) {
+		// ignored, see class comment
+	}
+
+	@Override
+	public void subTask(final String name) {
+		// ignored, see class comment
+	}
+
+	@Override
+	public void worked(final int work) {
+		if (work <= 0) {
+			return;
+		}
+
+		worked.add(work);
+		publish(position());
+		notifyProgress();
+	}
+
+	/**
+	 * Returns the number of ticks reported by all threads using this member.
+	 *
+	 * @return the reported ticks
+	 */
+	public long getWorked() {
+		return worked.sum();
+	}
+
+	private void notifyProgress() {
+		// like Group#forward(): the thread that notifies rereads the progress and
+		// the flush request until both are stable, so others never wait (not even
+		// a listener calling done()) and values never go backwards
+		long notified = -1;
+		while (hasMonitorListeners() && (worked.sum() != notified || flushRequested)
+				&& notifying.compareAndSet(false, true)) {
+			try {
+				final long current = worked.sum();
+				if (current != notified) {
+					notified = current;
+					notifyMonitorListeners(notified);
+				}
+				if (flushRequested) {
+					flushRequested = false;
+					flushMonitorNotifications();
+				}
+			} finally {
+				notifying.set(false);
+			}
+		}
+	}
+
+	private long position() {
+		final int total = totalWork;
+		if (total == 0) {
+			return 0;
+		}
+		final long work = Math.min(worked.sum(), total);
+		return (long) ((double) capacity * work / total);
+	}
+
+	private void publish(final long position) {
+		long current;
+		do {
+			current = reported.get();
+			if (position <= current) {
+				return;
+			}
+		} while (!reported.compareAndSet(current, position));
+
+		group.add(position - current);
+	}
+}
@@ -0,0 +1,432 @@
+package com.bitctrl.util.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * A monitor that records operational metrics of a task and forwards all calls
+ * to another monitor. It measures the start time, the rate of work as an
+ * exponentially weighted moving average and the estimated time until the task
+ * is done. Each sub-task is recorded as a phase with its own duration and rate,
+ * so slow phases of long batch jobs can be spotted without ad-hoc timers.
+ * Sub-tasks with the same name are merged into one phase, and only the
+ * {@value #MAX_PHASES} most recently active phases are kept.
+ * </p>
+ *
+ * <p>
+ * The metrics are available as an immutable {@link #getMetrics() snapshot} and
+ * optionally via JMX. Rates are measured in the units passed to
+ * {@link #worked(int)}: when the monitor is converted with
+ * {@link SubMonitor#convert(IMonitor, int)}, these are the root ticks of the
+ * SubMonitor, not the caller's items.
+ * </p>
+ *
+ * <p>
+ * The monitor may be used by several threads. Progress listeners are notified
+ * while its lock is held, so they are called one at a time and never see the
+ * progress go backwards.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ *      MetricsMonitor metrics = new MetricsMonitor(monitor);
+ *      metrics.register("nightlyImport");
+ *      try {
+ *          runImport(metrics);
+ *      } finally {
+ *          metrics.unregister();
+ *      }
+ * </code>
+ * </pre>
+ *
+ * @author BitCtrl Systems GmbH
+ */
+public class MetricsMonitor extends AbstractMonitor implements MetricsMonitorMXBean {
+
+	/**
+	 * Minimum time between two samples of the rate.
+	 */
+	private static final long SAMPLE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+
+	/**
+	 * Time constant of the moving average; older samples lose weight by
+	 * <code>1/e</code> per period.
+	 */
+	private static final double TIME_CONSTANT = TimeUnit.SECONDS.toNanos(5);
+
+	/**
+	 * An exponentially weighted moving average of a rate, sampled in intervals.
+	 */
+	private static final class Rate {
+
+		private double value = Double.NaN;
+
+		private long sampleTime;
+
+		private long pending = 0;
+
+		Rate(final long now) {
+			sampleTime = now;
+		}
+
+		void add(final long work, final long now) {
+			pending += work;
+			if (now - sampleTime >= SAMPLE_INTERVAL) {
+				value = estimate(now);
+				sampleTime = now;
+				pending = 0;
+			}
+		}
+
+		/**
+		 * Returns the rate including the work pending since the last sample.
+		 */
+		double estimate(final long now) {
+			final long dt = now - sampleTime;
+			if (dt <= 0) {
+				return Double.isNaN(value) ? 0.0d : value;
+			}
+
+			final double sample = pending * 1.0e9 / dt;
+			if (Double.isNaN(value)) {
+				return sample;
+			}
+			final double alpha = 1.0d - Math.exp(-dt / TIME_CONSTANT);
+			return value + alpha * (sample - value);
+		}
+	}
+
+	/**
+	 * Maximum number of phases kept; the phases inactive for the longest time are
+	 * dropped first.
+	 */
+	static final int MAX_PHASES = 100;
+
+	/**
+	 * A phase of the task, see {@link MonitorMetrics.Phase}. Repeated sub-tasks
+	 * with the same name add to the same record.
+	 */
+	private static final class PhaseRecord {
+
+		private final String name;
+
+		private final long startTime;
+
+		/** Duration of the earlier periods of this phase. */
+		private long pastNanos = 0;
+
+		/** Start of the current period, or <code>-1</code> if inactive. */
+		private long activeSince;
+
+		private long worked = 0;
+
+		private Rate rate;
+
+		PhaseRecord(final String name, final long now) {
+			this.name = name;
+			startTime = System.currentTimeMillis();
+			activeSince = now;
+			rate = new Rate(now);
+		}
+
+		void activate(final long now) {
+			if (activeSince < 0) {
+				activeSince = now;
+				rate = new Rate(now);
+			}
+		}
+
+		void deactivate(final long now) {
+			if (activeSince >= 0) {
+				pastNanos += now - activeSince;
+				activeSince = -1;
+			}
+		}
+
+		MonitorMetrics.Phase snapshot(final long now) {
+			final boolean finished = activeSince < 0;
+			final long duration = pastNanos + (finished ? 0 : now - activeSince);
+			final double phaseRate;
+			if (finished) {
+				phaseRate = duration > 0 ? worked * 1.0e9 / duration : 0.0d;
+			} else {
+				phaseRate = rate.estimate(now);
+			}
+			return new MonitorMetrics.Phase(name, startTime, TimeUnit.NANOSECONDS.toMillis(duration), worked,
+					phaseRate, finished);
+		}
+	}
+
+	private final IMonitor delegate;
+
+	private String taskName = null;
+
+	private int totalWork = UNKNOWN;
+
+	private long worked = 0;
+
+	private long startTime;
+
+	private long startNanos;
+
+	private long endNanos = -1;
+
+	private Rate rate;
+
+	/**
+	 * The phases by name, ordered by their last activation, so the current phase
+	 * is always the last one.
+	 */
+	private final Map<String, PhaseRecord> phases = new LinkedHashMap<>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, PhaseRecord> eldest) {
+			return size() > MAX_PHASES;
+		}
+	};
+
+	private PhaseRecord currentPhase;
+
+	private ObjectName objectName = null;
+
+	/**
+	 * Creates a monitor that only records metrics.
+	 */
+	public MetricsMonitor() {
+		this(null);
+	}
+
+	/**
+	 * Creates a monitor that records metrics and forwards all calls.
+	 *
+	 * @param delegate the monitor to forward to, may be <code>null</code>
+	 */
+	public MetricsMonitor(final IMonitor delegate) {
+		this.delegate = delegate != null ? delegate : new NullMonitor();
+		start(System.nanoTime());
+	}
+
+	private void start(final long now) {
+		startTime = System.currentTimeMillis();
+		startNanos = now;
+		endNanos = -1;
+		worked = 0;
+		rate = new Rate(now);
+		phases.clear();
+		currentPhase = new PhaseRecord(null, now);
+		phases.put(null, currentPhase);
+	}
+
+	@Override
+	public void beginTask(final String name, final int totalWork) {
+		delegate.beginTask(name, totalWork);
+		synchronized (this) {
+			taskName = name;
+			this.totalWork = totalWork;
+			start(System.nanoTime());
+		}
+	}
+
+	@Override
+	public void done() {
+		delegate.done();
+		synchronized (this) {
+			if (endNanos < 0) {
+				endNanos = System.nanoTime();
+				currentPhase.deactivate(endNanos);
+			}
+			flushMonitorNotifications();
+		}
+	}
+
+	@Override
+	public boolean isCanceled() {
+		return delegate.isCanceled();
+	}
+
+	@Override
+	public void setCanceled(final boolean canceled) {
+		delegate.setCanceled(canceled);
+	}
+
+	@Override
+	public void setTaskName(final String name) {
+		delegate.setTaskName(name);
+		synchronized (this) {
+			taskName = name;
+		}
+	}
+
+	@Override
+	public void subTask(final String name) {
+		delegate.subTask(name);
+		synchronized (this) {
+			final long now = System.nanoTime();
+			currentPhase.deactivate(now);
+			PhaseRecord phase = phases.remove(name);
+			if (phase == null) {
+				phase = new PhaseRecord(name, now);
+			} else {
+				phase.activate(now);
+			}
+			phases.put(name, phase);
+			currentPhase = phase;
+		}
+	}
+
+	@Override
+	public void worked(final int work) {
+		delegate.worked(work);
+		if (work <= 0) {
+			return;
+		}
+
+		synchronized (this) {
+			final long now = System.nanoTime();
+			worked += work;
+			rate.add(work, now);
+			currentPhase.worked += work;
+			currentPhase.rate.add(work, now);
+			// the notification limits of AbstractMonitor are not thread-safe,
+			// and listeners must see the progress in order
+			notifyMonitorListeners(worked);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the metrics recorded so far.
+	 *
+	 * @return the metrics
+	 */
+	public synchronized MonitorMetrics getMetrics() {
+		final long now = System.nanoTime();
+		final boolean done = endNanos >= 0;
+		final long elapsed = (done ? endNanos : now) - startNanos;
+
+		final double currentRate = done ? (elapsed > 0 ? worked * 1.0e9 / elapsed : 0.0d) : rate.estimate(now);
+		long eta = -1;
+		if (done) {
+			eta = 0;
+		} else if (totalWork > 0 && currentRate > 0.0d) {
+			eta = (long) (Math.max(0, totalWork - worked) * 1000.0d / currentRate);
+		}
+
+		final List<MonitorMetrics.Phase> phaseSnapshots = new ArrayList<>(phases.size());
+		for (final PhaseRecord phase : phases.values()) {
+			// the part before the first sub-task is only of interest if something
+			// happened there
+			if (phase.name == null && phase.worked == 0 && phases.size() > 1) {
+				continue;
+			}
+			phaseSnapshots.add(phase.snapshot(now));
+		}
+
+		return new MonitorMetrics(taskName, totalWork, worked, startTime, TimeUnit.NANOSECONDS.toMillis(elapsed),
+				currentRate, eta, done, phaseSnapshots);
+	}
+
+	@Override
+	public String getTaskName() {
+		return getMetrics().getTaskName();
+	}
+
+	@Override
+	public String getSubTask() {
+		return getMetrics().getSubTask();
+	}
+
+	@Override
+	public int getTotalWork() {
+		return getMetrics().getTotalWork();
+	}
+
+	@Override
+	public long getWorked() {
+		return getMetrics().getWorked();
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		return getMetrics().getElapsedMillis();
+	}
+
+	@Override
+	public double getRate() {
+		return getMetrics().getRate();
+	}
+
+	@Override
+	public long getEtaMillis() {
+		return getMetrics().getEtaMillis();
+	}
+
+	@Override
+	public Map<String, Long> getPhaseDurations() {
+		final Map<String, Long> durations = new LinkedHashMap<>();
+		for (final MonitorMetrics.Phase phase : getMetrics().getPhases()) {
+			durations.merge(String.valueOf(phase.getName()), phase.getDurationMillis(), Long::sum);
+		}
+		return durations;
+	}
+
+	/**
+	 * Registers this monitor with the platform MBean server under
+	 * <code>com.bitctrl.util.monitor:type=Monitor,name=&lt;name&gt;</code>. A
+	 * previous registration of this monitor is removed first.
+	 *
+	 * @param name the name of the monitor in JMX
+	 * @return the object name used for the registration
+	 * @throws IllegalStateException if the registration fails, e.g. because the
+	 *                               name is already in use
+	 */
+	public synchronized ObjectName register(final String name) {
+		unregister();
+		try {
+			final ObjectName newName = new ObjectName("com.bitctrl.util.monitor", createProperties(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+			objectName = newName;
+			return newName;
+		} catch (final JMException ex) {
+			throw new IllegalStateException("Monitor could not be registered as " + name, ex);
+		}
+	}
+
+	private static Hashtable<String, String> createProperties(final String name) {
+		final Hashtable<String, String> properties = new Hashtable<>();
+		properties.put("type", "Monitor");
+		properties.put("name", ObjectName.quote(name));
+		return properties;
+	}
+
+	/**
+	 * Removes the registration with the platform MBean server, if any.
+	 */
+	public synchronized void unregister() {
+		if (objectName == null) {
+			return;
+		}
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+		} catch (final JMException ex) {
+			throw new IllegalStateException("Monitor could not be unregistered: " + objectName, ex);
+		} finally {
+			objectName = null;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.bitctrl.util.monitor;
+
+import java.util.Map;
+
+/**
+ * The JMX view of a {@link MetricsMonitor}.
+ *
+ * @author BitCtrl Systems GmbH
+ * @see MetricsMonitor#register(String)
+ */
+public interface MetricsMonitorMXBean {
+
+	/**
+	 * @return the name of the task
+	 */
+	String getTaskName();
+
+	/**
+	 * @return the name of the current sub-task
+	 */
+	String getSubTask();
+
+	/**
+	 * @return the total work of the task, or {@link IMonitor#UNKNOWN}
+	 */
+	int getTotalWork();
+
+	/**
+	 * @return the work reported so far
+	 */
+	long getWorked();
+
+	/**
+	 * @return the time since the start of the task in milliseconds
+	 */
+	long getElapsedMillis();
+
+	/**
+	 * @return the smoothed rate in work units per second
+	 */
+	double getRate();
+
+	/**
+	 * @return the estimated time until the task is done in milliseconds, or
+	 *         <code>-1</code> if unknown
+	 */
+	long getEtaMillis();
+
+	/**
+	 * @return the duration of each phase in milliseconds, keyed by sub-task name
+	 *         ordered by their last activation; durations of repeated sub-tasks
+	 *         are added
+	 */
+	Map<String, Long> getPhaseDurations();
+}
@@ -0,0 +1,226 @@
+package com.bitctrl.util.monitor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the metrics recorded by a {@link MetricsMonitor}.
+ * Rates are given in work units per second, i.e. in the units passed to
+ * {@link IMonitor#worked(int)} of the monitor that recorded them.
+ *
+ * @author BitCtrl Systems GmbH
+ */
+public final class MonitorMetrics {
+
+	/**
+	 * The metrics of one phase of a task. A phase starts with the task or with a
+	 * call to {@link IMonitor#subTask(String)} and lasts until the next sub-task
+	 * or the end of the task. All periods with the same sub-task name are merged
+	 * into one phase.
+	 */
+	public static final class Phase {
+
+		private final String name;
+
+		private final long startTime;
+
+		private final long durationMillis;
+
+		private final long worked;
+
+		private final double rate;
+
+		private final boolean finished;
+
+		Phase(final String name, final long startTime, final long durationMillis, final long worked,
+				final double rate, final boolean finished) {
+			this.name = name;
+			this.startTime = startTime;
+			this.durationMillis = durationMillis;
+			this.worked = worked;
+			this.rate = rate;
+			this.finished = finished;
+		}
+
+		/**
+		 * @return the name of the sub-task, or <code>null</code> for the part of
+		 *         the task before the first sub-task
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the start of the first period of the phase in milliseconds since
+		 *         the epoch
+		 */
+		public long getStartTime() {
+			return startTime;
+		}
+
+		/**
+		 * @return the total duration of all periods of the phase so far in
+		 *         milliseconds
+		 */
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		/**
+		 * @return the work reported during the phase
+		 */
+		public long getWorked() {
+			return worked;
+		}
+
+		/**
+		 * @return the smoothed rate of the current period in work units per
+		 *         second; the average rate over all periods once the phase is
+		 *         finished
+		 */
+		public double getRate() {
+			return rate;
+		}
+
+		/**
+		 * @return <code>true</code> if another phase has started since or the task
+		 *         is done
+		 */
+		public boolean isFinished() {
+			return finished;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[name=" + name + ", durationMillis=" + durationMillis + ", worked="
+					+ worked + ", rate=" + rate + "]";
+		}
+	}
+
+	private final String taskName;
+
+	private final int totalWork;
+
+	private final long worked;
+
+	private final long startTime;
+
+	private final long elapsedMillis;
+
+	private final double rate;
+
+	private final long etaMillis;
+
+	private final boolean done;
+
+	private final List<Phase> phases;
+
+	MonitorMetrics(final String taskName, final int totalWork, final long worked, final long startTime,
+			final long elapsedMillis, final double rate, final long etaMillis, final boolean done,
+			final List<Phase> phases) {
+		this.taskName = taskName;
+		this.totalWork = totalWork;
+		this.worked = worked;
+		this.startTime = startTime;
+		this.elapsedMillis = elapsedMillis;
+		this.rate = rate;
+		this.etaMillis = etaMillis;
+		this.done = done;
+		this.phases = Collections.unmodifiableList(phases);
+	}
+
+	/**
+	 * @return the name of the task
+	 */
+	public String getTaskName() {
+		return taskName;
+	}
+
+	/**
+	 * @return the name of the current sub-task, or <code>null</code> if there is
+	 *         none
+	 */
+	public String getSubTask() {
+		return phases.isEmpty() ? null : phases.get(phases.size() - 1).getName();
+	}
+
+	/**
+	 * @return the total work of the task, or {@link IMonitor#UNKNOWN}
+	 */
+	public int getTotalWork() {
+		return totalWork;
+	}
+
+	/**
+	 * @return the work reported so far
+	 */
+	public long getWorked() {
+		return worked;
+	}
+
+	/**
+	 * @return the progress between 0 and 1, or {@link Double#NaN} if the total
+	 *         work is unknown
+	 */
+	public double getProgress() {
+		if (totalWork <= 0) {
+			return Double.NaN;
+		}
+		return Math.min(1.0d, (double) worked / totalWork);
+	}
+
+	/**
+	 * @return the start of the task in milliseconds since the epoch
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the time since the start of the task, or its duration if it is
+	 *         done, in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @return the exponentially weighted moving average of the rate in work units
+	 *         per second
+	 */
+	public double getRate() {
+		return rate;
+	}
+
+	/**
+	 * @return the estimated time until the task is done in milliseconds, based on
+	 *         the smoothed rate; <code>-1</code> if the total work is unknown or
+	 *         no progress has been made yet
+	 */
+	public long getEtaMillis() {
+		return etaMillis;
+	}
+
+	/**
+	 * @return <code>true</code> if {@link IMonitor#done()} was called
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * @return the phases of the task ordered by their last activation; the last
+	 *         one is the current phase unless the task is done. Only the most
+	 *         recently active phases are kept, see {@link MetricsMonitor}.
+	 */
+	public List<Phase> getPhases() {
+		return phases;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[taskName=" + taskName + ", worked=" + worked + ", totalWork="
+				+ totalWork + ", elapsedMillis=" + elapsedMillis + ", rate=" + rate + ", etaMillis=" + etaMillis
+				+ ", phases=" + phases + "]";
+	}
+}
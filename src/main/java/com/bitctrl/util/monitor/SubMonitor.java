@@ -14,6 +14,8 @@
  *******************************************************************************/
 package com.bitctrl.util.monitor;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * A progress monitor that uses a given amount of work ticks from a parent
@@ -367,6 +369,18 @@ public final class SubMonitor extends AbstractMonitor {
 	 */
 	private IMonitor lastSubMonitor = null;
 
+	/**
+	 * Like lastSubMonitor, the last incomplete group of concurrent children
+	 * created with split.
+	 */
+	private ConcurrentSubMonitor.Group lastGroup = null;
+
+	/**
+	 * Granularity of notifications in percent of totalForChildren, or 0 if not
+	 * set. The notification delta is derived from it whenever the total changes.
+	 */
+	private double notificationGranularity = 0.0;
+
 	/**
 	 * Used to communicate with the root of this progress monitor tree
 	 */
@@ -548,6 +562,31 @@ public final class SubMonitor extends AbstractMonitor {
 		totalParent = totalParent - usedForParent;
 		usedForParent = 0;
 		totalForChildren = workRemaining;
+		if (notificationGranularity > 0.0d) {
+			setNotificationDelta(totalForChildren * notificationGranularity / 100.0d);
+		}
+		return this;
+	}
+
+	/**
+	 * Coalesces progress notifications to the given granularity. Listeners are
+	 * only notified when the progress has advanced by at least the given
+	 * percentage of the total work, and when the work is complete. The total is
+	 * the one set by the latest {@link #beginTask(String, int)} or
+	 * {@link #setWorkRemaining(int)}, so the granularity may be set before or
+	 * after them. This keeps per-item reporting in tight loops cheap. See
+	 * {@link #setNotificationInterval(long)} for time based rate-limiting.
+	 * 
+	 * @param percent the minimum progress between two notifications, in percent;
+	 *                <code>0</code> notifies on every change
+	 * @return the receiver
+	 */
+	public SubMonitor setNotificationGranularity(final double percent) {
+		if (!(percent >= 0.0d)) {
+			throw new IllegalArgumentException("Granularity must not be negative: " + percent);
+		}
+		notificationGranularity = percent;
+		setNotificationDelta(totalForChildren * percent / 100.0d);
 		return this;
 	}
 
@@ -576,7 +615,9 @@ public final class SubMonitor extends AbstractMonitor {
 
 		usedForParent = parentPosition;
 
-		notifyMonitorListeners(usedForChildren);
+		// the final value is always delivered, even if notifications are
+		// rate-limited
+		notifyMonitorListeners(usedForChildren, usedForChildren >= totalForChildren);
 
 		return delta;
 	}
@@ -632,6 +673,7 @@ public final class SubMonitor extends AbstractMonitor {
 	@Override
 	public void done() {
 		cleanupActiveChild();
+		flushMonitorNotifications();
 		final int delta = totalParent - usedForParent;
 		if (delta > 0) {
 			root.worked(delta);
@@ -871,7 +913,81 @@ public final class SubMonitor extends AbstractMonitor {
 		return result;
 	}
 
+	/**
+	 * <p>
+	 * Creates a group of children that may be used concurrently, one per worker
+	 * thread. Each child receives a fixed share of the given ticks; together they
+	 * consume the sum of all shares from the receiver, just like a single
+	 * {@link #newChild(int)} would.
+	 * </p>
+	 * 
+	 * <p>
+	 * The children are thread-safe and aggregate their progress without locks.
+	 * Canceling one of them cancels all of them. Like children created with
+	 * newChild, the group is completed automatically the next time the receiver
+	 * is touched, so the receiver must not be used until all workers have
+	 * finished.
+	 * </p>
+	 * 
+	 * <pre>
+	 * <code>
+	 *      void doSomething(IMonitor monitor, List&lt;File&gt; files) {
+	 *          SubMonitor progress = SubMonitor.convert(monitor, 100);
+	 *          ConcurrentSubMonitor[] children = progress.splitEvenly(files.size(), 1);
+	 *          IntStream.range(0, files.size()).parallel()
+	 *                  .forEach(i -&gt; importFile(files.get(i), children[i]));
+	 *      }
+	 * </code>
+	 * </pre>
+	 * 
+	 * @param shares the ticks of the receiver allocated to each child
+	 * @return the children, in the order of the shares
+	 */
+	public ConcurrentSubMonitor[] split(final int... shares) {
+		if (shares.length == 0) {
+			throw new IllegalArgumentException("At least one share is required.");
+		}
+		long sum = 0;
+		for (final int share : shares) {
+			if (share < 0) {
+				throw new IllegalArgumentException("Shares must not be negative: " + share);
+			}
+			sum += share;
+		}
+
+		final double totalWorkDouble = Math.min(sum, totalForChildren - usedForChildren);
+		cleanupActiveChild();
+
+		final ConcurrentSubMonitor.Group group = new ConcurrentSubMonitor.Group(root.root, consume(totalWorkDouble),
+				shares);
+		lastGroup = group;
+		return group.getMembers();
+	}
+
+	/**
+	 * Creates a group of children with equal shares that may be used
+	 * concurrently.
+	 * 
+	 * @param count        the number of children
+	 * @param workPerChild the ticks of the receiver allocated to each child
+	 * @return the children
+	 * @see #split(int...)
+	 */
+	public ConcurrentSubMonitor[] splitEvenly(final int count, final int workPerChild) {
+		if (count < 1) {
+			throw new IllegalArgumentException("At least one child is required: " + count);
+		}
+		final int[] shares = new int[count];
+		Arrays.fill(shares, workPerChild);
+		return split(shares);
+	}
+
 	private void cleanupActiveChild() {
+		if (lastGroup != null) {
+			final ConcurrentSubMonitor.Group group = lastGroup;
+			lastGroup = null;
+			group.done();
+		}
 		if (lastSubMonitor == null) {
 			return;
 		}
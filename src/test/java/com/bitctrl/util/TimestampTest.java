@@ -0,0 +1,138 @@
+/*
+ * Java Common Library
+ * Copyright (c) 2008 BitCtrl Systems GmbH
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3.0 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA.
+ *
+ * Contact Information:
+ * BitCtrl Systems GmbH
+ * Weißenfelser Straße 67
+ * 04229 Leipzig
+ * Phone: +49 341-490670
+ * mailto: info@bitctrl.de
+ */
+
+package com.bitctrl.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bitctrl.Constants;
+
+/**
+ * Testet die Formatierung und das Einlesen von {@link Timestamp} gegen
+ * {@link DateFormat}.
+ * 
+ * @author BitCtrl Systems GmbH
+ */
+public class TimestampTest {
+
+	/** 08.01.1558 12:00 UTC im Julianischen Kalender. */
+	private static final long JULIAN = -12999960000000L;
+
+	/** 17.12.2005 16:05:05,866 UTC. */
+	private static final long MODERN = 1134835505866L;
+
+	private Locale locale;
+	private TimeZone timeZone;
+
+	@Before
+	public void setUp() {
+		locale = Locale.getDefault();
+		timeZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+	}
+
+	@After
+	public void tearDown() {
+		Locale.setDefault(locale);
+		TimeZone.setDefault(timeZone);
+	}
+
+	private static void assertSameAsDateFormat(final long zeitstempel) {
+		final Date date = new Date(zeitstempel);
+		assertEquals(DateFormat.getDateTimeInstance().format(date), Timestamp.absoluteTime(zeitstempel));
+		assertEquals(DateFormat.getDateInstance().format(date), Timestamp.absoluteTime(zeitstempel, true, false));
+		assertEquals(DateFormat.getTimeInstance().format(date), Timestamp.absoluteTime(zeitstempel, false, true));
+	}
+
+	@Test
+	public void testLocaleCalendar() {
+		for (final Locale l : new Locale[] { Locale.GERMANY, Locale.forLanguageTag("th-TH"),
+				Locale.forLanguageTag("ja-JP-u-ca-japanese"), new Locale("ja", "JP", "JP"),
+				new Locale("th", "TH", "TH") }) {
+			Locale.setDefault(l);
+			assertSameAsDateFormat(MODERN);
+		}
+
+		Locale.setDefault(Locale.forLanguageTag("th-TH"));
+		assertTrue(Timestamp.absoluteTime(MODERN, true, false).contains("2548"));
+	}
+
+	@Test
+	public void testParseInLocaleCalendar() throws Exception {
+		Locale.setDefault(Locale.forLanguageTag("th-TH"));
+		final long expected = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm").parse("2551-04-24T22:08").getTime();
+		assertEquals(expected, Timestamp.parseIso8601("2551-04-24T22:08"));
+		assertEquals(MODERN, Timestamp.parseIso8601(Timestamp.iso8601(MODERN)));
+
+		Locale.setDefault(Locale.GERMANY);
+		assertEquals(expected, Timestamp.parseIso8601("2008-04-24T22:08"));
+	}
+
+	@Test
+	public void testParseAtTimeChange() throws Exception {
+		Locale.setDefault(Locale.GERMANY);
+		for (final String zone : new String[] { "Europe/Berlin", "America/New_York" }) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			for (final String s : new String[] { "2008-03-09T02:30", "2008-03-30T02:30", "2008-10-26T02:30",
+					"2008-11-02T01:30", "2400-03-12T02:30" }) {
+				assertEquals(s, new SimpleDateFormat("yyyy-MM-dd'T'HH:mm").parse(s).getTime(),
+						Timestamp.parseIso8601(s));
+			}
+		}
+	}
+
+	@Test
+	public void testBeforeGregorianChange() throws Exception {
+		Locale.setDefault(Locale.GERMANY);
+		assertEquals("08.01.1558", Timestamp.absoluteTime(JULIAN, true, false));
+		assertSameAsDateFormat(JULIAN);
+
+		final long end = JULIAN + 40 * 365 * Constants.MILLIS_PER_DAY;
+		final long step = 193 * Constants.MILLIS_PER_HOUR + 12_345;
+		for (final String zone : new String[] { "Europe/Berlin", "America/New_York", "Asia/Tokyo" }) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			for (final Locale l : new Locale[] { Locale.GERMANY, Locale.forLanguageTag("th-TH") }) {
+				Locale.setDefault(l);
+				for (long t = JULIAN; t < end; t += step) {
+					assertSameAsDateFormat(t);
+					assertEquals(t, Timestamp.parseIso8601(Timestamp.iso8601(t)));
+				}
+			}
+		}
+	}
+
+}